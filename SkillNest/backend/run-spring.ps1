@@ -1,4 +1,5 @@
 # backend/run-spring.ps1
 $env:JAVA_HOME = "C:\Program Files\Java\jdk-24"
 $env:Path = "$env:JAVA_HOME\bin;$env:Path"
+# Point at the cluster with $env:MONGODB_URI; left unset, the app talks to a local mongod
 ./mvnw spring-boot:run
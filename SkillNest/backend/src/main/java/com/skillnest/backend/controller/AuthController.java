@@ -2,11 +2,11 @@ package com.skillnest.backend.controller;
 
 import java.io.IOException;
 import java.security.GeneralSecurityException;
-import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
 
@@ -14,6 +14,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -28,7 +29,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
@@ -38,6 +41,7 @@ import com.google.api.client.json.gson.GsonFactory;
 import com.skillnest.backend.model.User;
 import com.skillnest.backend.repository.UserRepository;
 import com.skillnest.backend.security.JwtUtil;
+import com.skillnest.backend.service.ExportService;
 import com.skillnest.backend.service.UserService;
 
 @RestController
@@ -55,6 +59,9 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private ExportService exportService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -204,23 +211,38 @@ public class AuthController {
         return ResponseEntity.ok(res);
     }
 
+    // Every user (without password hashes) as newline-delimited JSON, streamed from a cursor; SecurityConfig admits admins only
+    @GetMapping(value = "/users", params = "format=ndjson", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return ResponseEntity.ok(exportService.exportUsers());
+    }
+
     @GetMapping("/users/{id}")
-    public ResponseEntity<?> getUserById(@PathVariable String id) {
+    public ResponseEntity<?> getUserById(@PathVariable String id, WebRequest request) {
+        // Revalidation only needs the version; the profile itself is loaded on a miss
+        Optional<String> etag = userService.getProfileEtag(id);
+        if (etag.isEmpty()) {
+            return ResponseEntity.status(404).body("User not found");
+        }
+        if (request.checkNotModified(etag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+        }
         return userRepo.findById(id)
-                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .<ResponseEntity<?>>map(user -> ResponseEntity.ok()
+                        .eTag(etag.get())
+                        .cacheControl(CacheControl.noCache())
+                        .body(user))
                 .orElse(ResponseEntity.status(404).body("User not found"));
     }
 
     @PostMapping("/users/{id}/cover")
     public ResponseEntity<?> uploadCover(@PathVariable String id, @RequestParam("coverImage") MultipartFile file) {
         try {
-            Optional<User> userOpt = userRepo.findById(id);
-            if (userOpt.isEmpty()) return ResponseEntity.status(404).body("User not found");
-
-            User user = userOpt.get();
-            String base64Image = Base64.getEncoder().encodeToString(file.getBytes());
-            user.setCoverImage("data:" + file.getContentType() + ";base64," + base64Image);
-            return ResponseEntity.ok(userRepo.save(user));
+            return ResponseEntity.ok(userService.updateCoverImage(id, file));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(404).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error uploading image");
         }
@@ -238,14 +260,9 @@ public class AuthController {
                 return ResponseEntity.status(403).body("Invalid or unauthorized token");
             }
 
-            Optional<User> userOpt = userRepo.findById(id);
-            if (userOpt.isEmpty()) {
-                return ResponseEntity.status(404).body("User not found");
-            }
-
-            User user = userOpt.get();
-            user.setCoverImage(null);
-            return ResponseEntity.ok(userRepo.save(user));
+            return ResponseEntity.ok(userService.deleteCoverImage(id));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(404).body(e.getMessage());
         } catch (Exception e) {
             logger.error("Error deleting cover image: {}", e.getMessage());
             return ResponseEntity.status(500).body("Error deleting cover image");
@@ -255,13 +272,11 @@ public class AuthController {
     @PostMapping("/users/{id}/profile")
     public ResponseEntity<?> uploadProfileImage(@PathVariable String id, @RequestParam("profileImage") MultipartFile file) {
         try {
-            Optional<User> userOpt = userRepo.findById(id);
-            if (userOpt.isEmpty()) return ResponseEntity.status(404).body("User not found");
-
-            User user = userOpt.get();
-            String base64Image = Base64.getEncoder().encodeToString(file.getBytes());
-            user.setProfileImage("data:" + file.getContentType() + ";base64," + base64Image);
-            return ResponseEntity.ok(userRepo.save(user));
+            return ResponseEntity.ok(userService.updateProfileImage(id, file));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(404).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Upload error: " + e.getMessage());
         }
@@ -279,14 +294,9 @@ public class AuthController {
                 return ResponseEntity.status(403).body("Invalid or unauthorized token");
             }
 
-            Optional<User> userOpt = userRepo.findById(id);
-            if (userOpt.isEmpty()) {
-                return ResponseEntity.status(404).body("User not found");
-            }
-
-            User user = userOpt.get();
-            user.setProfileImage(null);
-            return ResponseEntity.ok(userRepo.save(user));
+            return ResponseEntity.ok(userService.deleteProfileImage(id));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(404).body(e.getMessage());
         } catch (Exception e) {
             logger.error("Error deleting profile image: {}", e.getMessage());
             return ResponseEntity.status(500).body("Error deleting profile image");
@@ -329,20 +339,18 @@ public class AuthController {
     public ResponseEntity<?> updateUser(@PathVariable String id, @RequestBody User user) {
         try {
             return ResponseEntity.ok(userService.updateUser(id, user));
-        } catch (RuntimeException e) {
+        } catch (NoSuchElementException e) {
             return ResponseEntity.status(404).body("User not found");
         }
     }
 
     @PutMapping("/users/{id}/skills")
     public ResponseEntity<?> updateSkills(@PathVariable String id, @RequestBody Map<String, List<String>> body) {
-        Optional<User> userOpt = userRepo.findById(id);
-        if (userOpt.isEmpty()) return ResponseEntity.status(404).body("User not found");
-
-        User user = userOpt.get();
-        List<String> skills = body.get("skills");
-        user.setSkills(skills);
-        return ResponseEntity.ok(userRepo.save(user));
+        try {
+            return ResponseEntity.ok(userService.updateSkills(id, body.get("skills")));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(404).body("User not found");
+        }
     }
 
     @GetMapping("/users/{id}/skills")
@@ -0,0 +1,24 @@
+package com.skillnest.backend.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.skillnest.backend.security.JwtUtil;
+
+// The caller's user id as proven by the Authorization header, for endpoints that must not trust an id the client sends
+final class BearerTokens {
+
+    private BearerTokens() {
+    }
+
+    static String userId(JwtUtil jwtUtil, String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing or malformed token");
+        }
+        String userId = jwtUtil.validateToken(authHeader.replace("Bearer ", ""));
+        if (userId == null) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Invalid or expired token");
+        }
+        return userId;
+    }
+}
@@ -1,11 +1,13 @@
 package com.skillnest.backend.controller;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,10 +17,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.skillnest.backend.dto.CommentView;
 import com.skillnest.backend.model.Comment;
+import com.skillnest.backend.model.FeedPage;
 import com.skillnest.backend.model.Post;
-import com.skillnest.backend.repository.UserRepository;
+import com.skillnest.backend.model.User;
+import com.skillnest.backend.service.AuthorHydrationService;
+import com.skillnest.backend.service.Etags;
 import com.skillnest.backend.service.LikeCommentService;
 
 @RestController
@@ -30,7 +37,7 @@ public class LikeCommentController {
     private LikeCommentService likeCommentService;
 
     @Autowired
-    private UserRepository userRepository;
+    private AuthorHydrationService authorHydrationService;
 
     @PostMapping("/{postId}/like")
     public ResponseEntity<?> likePost(@PathVariable String postId, @RequestParam String userId) {
@@ -83,29 +90,44 @@ public class LikeCommentController {
     }
 
     @GetMapping("/{postId}/comments")
-    public ResponseEntity<List<Map<String, Object>>> getComments(@PathVariable String postId) {
-        List<Comment> comments = likeCommentService.getCommentsByPostId(postId);
-        List<Map<String, Object>> enrichedComments = comments.stream().map(comment -> {
-            Map<String, Object> map = new HashMap<>();
-            map.put("id", comment.getId());
-            map.put("postId", comment.getPostId());
-            map.put("userId", comment.getUserId());
-            map.put("content", comment.getContent());
-            map.put("createdAt", comment.getCreatedAt());
-            map.put("updatedAt", comment.getUpdatedAt());
-
-            userRepository.findById(comment.getUserId()).ifPresent(user -> {
-                Map<String, Object> userMap = new HashMap<>();
-                userMap.put("id", user.getId());
-                userMap.put("name", user.getName());
-                userMap.put("profileImage", user.getProfileImage());
-                userMap.put("username", user.getEmail().split("@")[0]);
-                map.put("user", userMap);
-            });
+    public ResponseEntity<?> getComments(
+            @PathVariable String postId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            WebRequest request) {
+        // Read before the page, so a comment landing in between makes the next tag differ rather than this body stale
+        Optional<Long> commentVersion = likeCommentService.getCommentVersion(postId);
+        FeedPage<Comment> page;
+        try {
+            page = likeCommentService.getCommentPage(postId, cursor, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid cursor");
+        }
+        // Bucket reads are cheap; the tag is derived from the page and authors actually served
+        Map<String, User> authors = authorHydrationService.loadAuthors(page.getItems(), Comment::getUserId);
+        if (commentVersion.isEmpty()) {
+            return ResponseEntity.ok(body(page, authors));
+        }
+        String etag = Etags.comments(postId, commentVersion.get(), cursor, limit, authors.values());
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(body(page, authors));
+    }
 
-            return map;
-        }).collect(Collectors.toList());
+    @GetMapping("/{postId}/comments/count")
+    public ResponseEntity<?> getCommentCount(@PathVariable String postId) {
+        try {
+            return ResponseEntity.ok(Map.of("count", likeCommentService.getCommentCount(postId)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404).body(e.getMessage());
+        }
+    }
 
-        return ResponseEntity.ok(enrichedComments);
+    private static FeedPage<CommentView> body(FeedPage<Comment> page, Map<String, User> authors) {
+        List<CommentView> views = page.getItems().stream()
+                .map(comment -> CommentView.of(comment, authors.get(comment.getUserId())))
+                .collect(Collectors.toList());
+        return new FeedPage<>(views, page.getNextCursor());
     }
-}
\ No newline at end of file
+}
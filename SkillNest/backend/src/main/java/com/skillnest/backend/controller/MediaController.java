@@ -0,0 +1,74 @@
+package com.skillnest.backend.controller;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+
+import com.skillnest.backend.service.ImageVariantCache;
+import com.skillnest.backend.service.UploadResponses;
+import com.skillnest.backend.service.UploadStore;
+
+// Any stored image at (about) any size, e.g. /media/<name>?w=320 or ?w=96&h=96&fit=cover; sizes snap up to media.on-demand.sizes
+@RestController
+public class MediaController {
+
+    @Autowired
+    private UploadStore uploadStore;
+
+    @Autowired
+    private ImageVariantCache imageVariantCache;
+
+    @GetMapping("/media/{name:.+}")
+    public ResponseEntity<?> variant(
+            @PathVariable String name,
+            @RequestParam("w") int width,
+            @RequestParam(value = "h", defaultValue = "0") int height,
+            @RequestParam(value = "fit", required = false) String fit,
+            WebRequest request
+    ) {
+        ImageVariantCache.Spec spec;
+        try {
+            spec = imageVariantCache.snap(new ImageVariantCache.Spec(width, height, fit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        Optional<UploadStore.StoredFile> source = uploadStore.find(name);
+        if (source.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        // Validated against the source: a new upload under the name changes both. Checked before
+        // rendering, so a revalidation never decodes anything.
+        String etag = source.get().etag() + "-" + spec.width() + "x" + spec.height() + "-" + spec.fit();
+        if (request.checkNotModified(etag, source.get().lastModified().toEpochMilli())) {
+            return UploadResponses.notModified(etag);
+        }
+        try {
+            ImageVariantCache.Variant variant = imageVariantCache.get(source.get(), spec);
+            // The body is written before the request completes, so the file stays pinned while it streams
+            request.registerDestructionCallback(ImageVariantCache.Variant.class.getName(), variant::close,
+                    RequestAttributes.SCOPE_REQUEST);
+            UploadStore.StoredFile file = new UploadStore.StoredFile(name, new FileSystemResource(variant.path()), "image/jpeg",
+                    variant.size(), etag, source.get().lastModified());
+            return UploadResponses.of(file, request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Busy rendering other images; try again shortly");
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to render variant");
+        }
+    }
+}
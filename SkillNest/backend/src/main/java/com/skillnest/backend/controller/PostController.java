@@ -1,11 +1,9 @@
 package com.skillnest.backend.controller;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,12 +14,20 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.http.HttpStatus;
+import com.skillnest.backend.dto.FeedPostView;
+import com.skillnest.backend.model.FeedPage;
 import com.skillnest.backend.model.Post;
-import com.skillnest.backend.repository.PostRepository;
-import com.skillnest.backend.repository.UserRepository;
+import com.skillnest.backend.security.JwtUtil;
+import com.skillnest.backend.service.Etags;
+import com.skillnest.backend.service.ExportService;
+import com.skillnest.backend.service.FeedViewService;
 import com.skillnest.backend.service.PostService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -31,8 +37,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 public class PostController {
 
     @Autowired private PostService postService;
-    @Autowired private PostRepository postRepository;
-    @Autowired private UserRepository userRepository;
+    @Autowired private FeedViewService feedViewService;
+    @Autowired private ExportService exportService;
+    @Autowired private JwtUtil jwtUtil;
 
     @PostMapping(consumes = {"multipart/form-data"})
     public ResponseEntity<?> createPostWithMedia(
@@ -41,8 +48,13 @@ public class PostController {
         @RequestParam("visibility") String visibility,
         @RequestParam("addToPortfolio") boolean addToPortfolio,
         @RequestParam("userId") String userId,
-        @RequestParam(value = "files", required = false) List<MultipartFile> files
+        @RequestParam(value = "files", required = false) List<MultipartFile> files,
+        @RequestParam(value = "uploadIds", required = false) List<String> uploadIds,
+        @RequestHeader(value = "Authorization", required = false) String authHeader
     ) {
+        if (uploadIds != null && !uploadIds.isEmpty()) {
+            requireAuthor(authHeader, userId);
+        }
         try {
             Post post = new Post();
             post.setUserId(userId);
@@ -51,40 +63,77 @@ public class PostController {
             post.setVisibility(visibility);
             post.setAddToPortfolio(addToPortfolio);
 
-            Post savedPost = postService.createPost(post, files);
+            Post savedPost = postService.createPost(post, files, uploadIds);
             return ResponseEntity.status(201).body(savedPost);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body("Error creating post: " + e.getMessage());
         }
     }
 
     @GetMapping
-    public ResponseEntity<List<Map<String, Object>>> getAllPosts() {
-        List<Post> posts = postRepository.findAll();
-        List<Map<String, Object>> enrichedPosts = posts.stream().map(post -> {
-            Map<String, Object> map = new HashMap<>();
-            map.put("id", post.getId());
-            map.put("title", post.getTitle());
-            map.put("content", post.getContent());
-            map.put("mediaUrls", post.getMediaUrls());
-            map.put("createdAt", post.getCreatedAt());
-            map.put("userId", post.getUserId());
-            map.put("likeCount", post.getLikedBy().size());
-            map.put("commentCount", post.getCommentIds().size());
-            map.put("likedBy", post.getLikedBy());
-            userRepository.findById(post.getUserId()).ifPresent(user -> {
-                Map<String, Object> userMap = new HashMap<>();
-                userMap.put("id", user.getId());
-                userMap.put("name", user.getName());
-                userMap.put("profileImage", user.getProfileImage());
-                userMap.put("country", user.getCountry());
-                userMap.put("username", user.getEmail().split("@")[0]);
-                userMap.put("isMember", true);
-                map.put("user", userMap);
-            });
-            return map;
-        }).collect(Collectors.toList());
-        return ResponseEntity.ok(enrichedPosts);
+    public ResponseEntity<?> getAllPosts(
+        @RequestParam(value = "userId", required = false) String viewerId,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "limit", required = false) Integer limit,
+        WebRequest request
+    ) {
+        FeedPage<FeedPostView> page;
+        try {
+            page = feedViewService.getFeed(viewerId, cursor, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid cursor");
+        }
+        // Tagged from the page being served, so a cached first page never carries a fresher tag than its body
+        String etag = Etags.feed(page);
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache())
+            .body(page);
+    }
+
+    // Every post, private ones included, as newline-delimited JSON for export tooling; SecurityConfig admits admins only
+    @GetMapping(params = "format=ndjson", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportPosts() {
+        return ResponseEntity.ok(exportService.exportPosts());
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrending(
+        @RequestParam(value = "window", defaultValue = "hour") String window,
+        @RequestParam(value = "userId", required = false) String viewerId,
+        @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        try {
+            return ResponseEntity.ok(feedViewService.getTrending(viewerId, window, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/timeline")
+    public ResponseEntity<?> getTimeline(
+        @RequestParam("userId") String userId,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        try {
+            return ResponseEntity.ok(feedViewService.getTimeline(userId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid cursor");
+        }
+    }
+
+    @GetMapping("/ranked")
+    public ResponseEntity<?> getRankedFeed(
+        @RequestParam("userId") String userId,
+        @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(feedViewService.getRankedFeed(userId, limit));
     }
 
     @PostMapping("/text")
@@ -103,10 +152,14 @@ public class PostController {
     }
 
     @DeleteMapping("/{postId}")
-    public ResponseEntity<?> deletePost(@PathVariable String postId) {
+    public ResponseEntity<?> deletePost(@PathVariable String postId,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        String callerId = BearerTokens.userId(jwtUtil, authHeader);
         try {
-            postService.deletePost(postId);
+            postService.deletePost(postId, callerId);
             return ResponseEntity.ok("Post deleted successfully");
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body("Error deleting post");
         }
@@ -121,8 +174,11 @@ public class PostController {
         @RequestParam("addToPortfolio") boolean addToPortfolio,
         @RequestParam("userId") String userId,
         @RequestParam(value = "files", required = false) List<MultipartFile> files,
-        @RequestParam(value = "removedMedia", required = false) String removedMediaJson
+        @RequestParam(value = "uploadIds", required = false) List<String> uploadIds,
+        @RequestParam(value = "removedMedia", required = false) String removedMediaJson,
+        @RequestHeader(value = "Authorization", required = false) String authHeader
     ) {
+        requireAuthor(authHeader, userId);
         try {
             Post updatedPost = new Post();
             updatedPost.setId(postId);
@@ -138,11 +194,22 @@ public class PostController {
                 removedMedia = mapper.readValue(removedMediaJson, mapper.getTypeFactory().constructCollectionType(List.class, String.class));
             }
 
-            Post savedPost = postService.updatePost(postId, updatedPost, files, removedMedia);
+            Post savedPost = postService.updatePost(postId, updatedPost, files, uploadIds, removedMedia);
             return ResponseEntity.ok(savedPost);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body("Error updating post: " + e.getMessage());
         }
     }
+
+    // Edits and resumable uploads act for the post's author, so that author has to be the token holder
+    private void requireAuthor(String authHeader, String userId) {
+        if (!BearerTokens.userId(jwtUtil, authHeader).equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can only post as yourself");
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,204 @@
+package com.skillnest.backend.controller;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.skillnest.backend.model.UploadSession;
+import com.skillnest.backend.security.JwtUtil;
+import com.skillnest.backend.service.ResumableUploadService;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * The tus 1.0 core protocol plus creation and termination, and an explicit finish step:
+ *
+ * POST   /api/auth/uploads              Upload-Length, Upload-Metadata (filename, filetype, sha256) -> 201 Location
+ * HEAD   /api/auth/uploads/{id}         -> Upload-Offset, Upload-Length
+ * PATCH  /api/auth/uploads/{id}         Upload-Offset, application/offset+octet-stream body -> 204 Upload-Offset
+ * POST   /api/auth/uploads/{id}/finish  -> the stored upload, whose id is then passed as uploadId(s) to posts, showcases or documents
+ * DELETE /api/auth/uploads/{id}         -> 204
+ *
+ * For a file that does not need resuming, POST /api/auth/uploads/stream takes the raw bytes
+ * as the body (Content-Type the file's type, same Upload-Metadata) and returns what finish does.
+ *
+ * As in tus, metadata values are base64; sha256 is the base64 of the raw digest.
+ *
+ * Every call but OPTIONS needs the caller's Bearer token, and an upload is only visible to the
+ * user who created it.
+ */
+@RestController
+@RequestMapping("/api/auth/uploads")
+@CrossOrigin(origins = "http://localhost:5173",
+        exposedHeaders = {"Location", "Tus-Resumable", "Upload-Offset", "Upload-Length"})
+public class ResumableUploadController {
+
+    private static final String TUS_RESUMABLE = "Tus-Resumable";
+    private static final String TUS_VERSION = "1.0.0";
+    private static final String OFFSET_OCTET_STREAM = "application/offset+octet-stream";
+
+    private final ResumableUploadService resumableUploadService;
+    private final JwtUtil jwtUtil;
+
+    public ResumableUploadController(ResumableUploadService resumableUploadService, JwtUtil jwtUtil) {
+        this.resumableUploadService = resumableUploadService;
+        this.jwtUtil = jwtUtil;
+    }
+
+    @RequestMapping(method = RequestMethod.OPTIONS)
+    public ResponseEntity<Void> options() {
+        return ResponseEntity.noContent()
+                .header(TUS_RESUMABLE, TUS_VERSION)
+                .header("Tus-Version", TUS_VERSION)
+                .header("Tus-Extension", "creation,termination")
+                .build();
+    }
+
+    @PostMapping
+    public ResponseEntity<?> create(
+            @RequestHeader("Upload-Length") long length,
+            @RequestHeader(value = "Upload-Metadata", required = false) String metadataHeader,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) throws IOException {
+        String userId = userId(authHeader);
+        Map<String, byte[]> metadata;
+        try {
+            metadata = parseMetadata(metadataHeader);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid Upload-Metadata");
+        }
+        String contentType = metadata.containsKey("filetype")
+                ? new String(metadata.get("filetype"), StandardCharsets.UTF_8)
+                : null;
+
+        UploadSession session = resumableUploadService.create(userId, filename(metadata), contentType, length,
+                sha256(metadata));
+        return ResponseEntity.created(URI.create("/api/auth/uploads/" + session.getId()))
+                .header(TUS_RESUMABLE, TUS_VERSION)
+                .build();
+    }
+
+    // Raw body rather than multipart, so nothing is spooled before it reaches the store
+    @PostMapping("/stream")
+    public ResponseEntity<?> stream(
+            @RequestHeader(value = "Upload-Metadata", required = false) String metadataHeader,
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            HttpServletRequest request) throws IOException {
+        String userId = userId(authHeader);
+        Map<String, byte[]> metadata;
+        try {
+            metadata = parseMetadata(metadataHeader);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid Upload-Metadata");
+        }
+        String contentType = metadata.containsKey("filetype")
+                ? new String(metadata.get("filetype"), StandardCharsets.UTF_8)
+                : request.getContentType();
+        UploadSession session = resumableUploadService.ingest(userId, filename(metadata), contentType,
+                sha256(metadata), request.getInputStream());
+        return ResponseEntity.status(HttpStatus.CREATED).header(TUS_RESUMABLE, TUS_VERSION)
+                .body(describe(session.getId(), new ResumableUploadService.Finished(session.getUrl(),
+                        session.getFilename(), session.getContentType(), session.getLength())));
+    }
+
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> offset(
+            @PathVariable String id,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) {
+        UploadSession session = resumableUploadService.get(id, userId(authHeader));
+        return ResponseEntity.ok()
+                .header(TUS_RESUMABLE, TUS_VERSION)
+                .header("Upload-Offset", String.valueOf(session.getOffset()))
+                .header("Upload-Length", String.valueOf(session.getLength()))
+                .cacheControl(CacheControl.noStore())
+                .build();
+    }
+
+    @PatchMapping(value = "/{id}", consumes = OFFSET_OCTET_STREAM)
+    public ResponseEntity<Void> append(
+            @PathVariable String id,
+            @RequestHeader("Upload-Offset") long offset,
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            HttpServletRequest request) throws IOException {
+        long newOffset = resumableUploadService.append(id, userId(authHeader), offset, request.getInputStream());
+        return ResponseEntity.noContent()
+                .header(TUS_RESUMABLE, TUS_VERSION)
+                .header("Upload-Offset", String.valueOf(newOffset))
+                .build();
+    }
+
+    @PostMapping("/{id}/finish")
+    public ResponseEntity<?> finish(
+            @PathVariable String id,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) throws IOException {
+        ResumableUploadService.Finished finished = resumableUploadService.finish(id, userId(authHeader));
+        return ResponseEntity.ok().header(TUS_RESUMABLE, TUS_VERSION).body(describe(id, finished));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancel(
+            @PathVariable String id,
+            @RequestHeader(value = "Authorization", required = false) String authHeader) throws IOException {
+        resumableUploadService.cancel(id, userId(authHeader));
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).header(TUS_RESUMABLE, TUS_VERSION).build();
+    }
+
+    // Answered here rather than through the /error dispatch, so clients always see the protocol's own status
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<String> protocolError(ResponseStatusException e) {
+        return ResponseEntity.status(e.getStatusCode()).header(TUS_RESUMABLE, TUS_VERSION).body(e.getReason());
+    }
+
+    private String userId(String authHeader) {
+        return BearerTokens.userId(jwtUtil, authHeader);
+    }
+
+    private static Map<String, Object> describe(String id, ResumableUploadService.Finished finished) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("uploadId", id);
+        body.put("url", finished.url());
+        body.put("filename", finished.filename());
+        body.put("contentType", finished.contentType());
+        body.put("size", finished.size());
+        return body;
+    }
+
+    private static String filename(Map<String, byte[]> metadata) {
+        return metadata.containsKey("filename") ? new String(metadata.get("filename"), StandardCharsets.UTF_8) : "file";
+    }
+
+    private static String sha256(Map<String, byte[]> metadata) {
+        return metadata.containsKey("sha256") ? HexFormat.of().formatHex(metadata.get("sha256")) : null;
+    }
+
+    // "key base64value,key2 base64value2"; a key may come without a value
+    static Map<String, byte[]> parseMetadata(String header) {
+        Map<String, byte[]> metadata = new HashMap<>();
+        if (header == null || header.isBlank()) {
+            return metadata;
+        }
+        for (String pair : header.split(",")) {
+            String[] parts = pair.trim().split(" ", 2);
+            metadata.put(parts[0], parts.length > 1 ? Base64.getDecoder().decode(parts[1].trim()) : new byte[0]);
+        }
+        return metadata;
+    }
+}
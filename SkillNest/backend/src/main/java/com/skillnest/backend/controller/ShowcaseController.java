@@ -2,15 +2,11 @@ package com.skillnest.backend.controller;
 
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -18,25 +14,36 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.skillnest.backend.model.Showcase;
 import com.skillnest.backend.repository.ShowcaseRepository;
+import com.skillnest.backend.security.JwtUtil;
+import com.skillnest.backend.service.ResumableUploadService;
+import com.skillnest.backend.service.UploadResponses;
+import com.skillnest.backend.service.UploadStore;
 
 @RestController
 @RequestMapping("/api/auth/users/{userId}/showcases")
 public class ShowcaseController {
 
     private final ShowcaseRepository showcaseRepository;
+    private final UploadStore uploadStore;
+    private final ResumableUploadService resumableUploadService;
+    private final JwtUtil jwtUtil;
 
-    @Value("${file.upload-dir}")
-    private String uploadDir;
-
-    public ShowcaseController(ShowcaseRepository showcaseRepository) {
+    public ShowcaseController(ShowcaseRepository showcaseRepository, UploadStore uploadStore,
+            ResumableUploadService resumableUploadService, JwtUtil jwtUtil) {
         this.showcaseRepository = showcaseRepository;
+        this.uploadStore = uploadStore;
+        this.resumableUploadService = resumableUploadService;
+        this.jwtUtil = jwtUtil;
     }
 
     @GetMapping
@@ -53,7 +60,9 @@ public class ShowcaseController {
             @RequestParam(value = "skills", required = false) List<String> skills,
             @RequestParam("visibility") String visibility,
             @RequestParam(value = "file", required = false) MultipartFile file,
-            @RequestParam(value = "projectUrl", required = false) String projectUrl
+            @RequestParam(value = "uploadId", required = false) String uploadId,
+            @RequestParam(value = "projectUrl", required = false) String projectUrl,
+            @RequestHeader(value = "Authorization", required = false) String authHeader
     ) {
         try {
             Showcase showcase = new Showcase();
@@ -67,15 +76,15 @@ public class ShowcaseController {
             showcase.setUpdatedAt(LocalDateTime.now());
 
             if (file != null && !file.isEmpty()) {
-                String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-                Path filePath = Paths.get(uploadDir, fileName);
-                Files.createDirectories(filePath.getParent());
-                file.transferTo(filePath);
-                showcase.setFilePath("/uploads/" + fileName);
+                showcase.setFilePath(uploadStore.store(file));
+            } else if (uploadId != null) {
+                showcase.setFilePath(resumableUploadService.claim(uploadId, uploadOwner(authHeader, userId)).url());
             }
 
             Showcase savedShowcase = showcaseRepository.save(showcase);
             return ResponseEntity.status(HttpStatus.CREATED).body(savedShowcase);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to upload file: " + e.getMessage());
@@ -91,7 +100,9 @@ public class ShowcaseController {
             @RequestParam(value = "skills", required = false) List<String> skills,
             @RequestParam("visibility") String visibility,
             @RequestParam(value = "file", required = false) MultipartFile file,
-            @RequestParam(value = "projectUrl", required = false) String projectUrl
+            @RequestParam(value = "uploadId", required = false) String uploadId,
+            @RequestParam(value = "projectUrl", required = false) String projectUrl,
+            @RequestHeader(value = "Authorization", required = false) String authHeader
     ) {
         try {
             Optional<Showcase> optionalShowcase = showcaseRepository.findById(showcaseId);
@@ -113,22 +124,21 @@ public class ShowcaseController {
             showcase.setProjectUrl(projectUrl);
             showcase.setUpdatedAt(LocalDateTime.now());
 
-            if (file != null && !file.isEmpty()) {
+            if ((file != null && !file.isEmpty()) || uploadId != null) {
+                String filePath = file != null && !file.isEmpty()
+                        ? uploadStore.store(file)
+                        : resumableUploadService.claim(uploadId, uploadOwner(authHeader, userId)).url();
                 // Delete old file if exists
                 if (showcase.getFilePath() != null) {
-                    Path oldFilePath = Paths.get(uploadDir, showcase.getFilePath().substring("/uploads/".length()));
-                    Files.deleteIfExists(oldFilePath);
+                    uploadStore.delete(showcase.getFilePath());
                 }
-
-                String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-                Path filePath = Paths.get(uploadDir, fileName);
-                Files.createDirectories(filePath.getParent());
-                file.transferTo(filePath);
-                showcase.setFilePath("/uploads/" + fileName);
+                showcase.setFilePath(filePath);
             }
 
             Showcase updatedShowcase = showcaseRepository.save(showcase);
             return ResponseEntity.ok(updatedShowcase);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to upload file: " + e.getMessage());
@@ -152,55 +162,47 @@ public class ShowcaseController {
                     .body("You can only delete your own showcases");
         }
 
-        try {
-            if (showcase.getFilePath() != null) {
-                Path filePath = Paths.get(uploadDir, showcase.getFilePath().substring("/uploads/".length()));
-                Files.deleteIfExists(filePath);
-            }
-            showcaseRepository.deleteById(showcaseId);
-            return ResponseEntity.ok().build();
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Failed to delete file: " + e.getMessage());
+        if (showcase.getFilePath() != null) {
+            uploadStore.delete(showcase.getFilePath());
+        }
+        showcaseRepository.deleteById(showcaseId);
+        return ResponseEntity.ok().build();
+    }
+
+    // The upload is claimed for the token holder, never for the id in the path, and only onto their own showcase
+    private String uploadOwner(String authHeader, String userId) {
+        String ownerId = BearerTokens.userId(jwtUtil, authHeader);
+        if (!ownerId.equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can only attach uploads to your own showcases");
         }
+        return ownerId;
     }
 
     @GetMapping("/files/{filename:.+}")
-    public ResponseEntity<?> serveFile(@PathVariable String filename) {
+    public ResponseEntity<?> serveFile(@PathVariable String filename, WebRequest request) {
         try {
-            Path filePath = Paths.get(uploadDir, filename);
-            if (!Files.exists(filePath)) {
+            Optional<UploadStore.StoredFile> stored = uploadStore.find(filename);
+            if (stored.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body("File not found");
             }
-
-            byte[] fileBytes = Files.readAllBytes(filePath);
-            String contentType = Files.probeContentType(filePath);
-            return ResponseEntity.ok()
-                    .header("Content-Type", contentType)
-                    .body(fileBytes);
+            return UploadResponses.of(stored.get(), request);
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to serve file: " + e.getMessage());
         }
     }
+
     @GetMapping("/view/{filename:.+}")
-public ResponseEntity<byte[]> viewFile(@PathVariable String filename) {
-    try {
-        Path filePath = Paths.get("C:/SkillNestUploads", filename);
-        if (!Files.exists(filePath)) {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<Resource> viewFile(@PathVariable String filename, WebRequest request) {
+        try {
+            Optional<UploadStore.StoredFile> stored = uploadStore.find(filename);
+            if (stored.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            return UploadResponses.of(stored.get(), request);
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
-
-        byte[] fileBytes = Files.readAllBytes(filePath);
-        String contentType = Files.probeContentType(filePath);
-
-        return ResponseEntity.ok()
-                .header("Content-Type", contentType)
-                .body(fileBytes);
-    } catch (IOException e) {
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
     }
 }
-
-}
\ No newline at end of file
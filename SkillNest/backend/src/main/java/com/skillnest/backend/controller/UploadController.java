@@ -0,0 +1,39 @@
+package com.skillnest.backend.controller;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import com.skillnest.backend.service.UploadResponses;
+import com.skillnest.backend.service.UploadStore;
+
+// Serves "/uploads/<name>" from the upload store; blobs are keyed by hash, so a static resource handler cannot find them
+@RestController
+public class UploadController {
+
+    private final UploadStore uploadStore;
+
+    public UploadController(UploadStore uploadStore) {
+        this.uploadStore = uploadStore;
+    }
+
+    @GetMapping("/uploads/{name:.+}")
+    public ResponseEntity<Resource> serve(@PathVariable String name, WebRequest request) {
+        Optional<UploadStore.StoredFile> stored = uploadStore.find(name);
+        if (stored.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return UploadResponses.of(stored.get(), request);
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
@@ -1,48 +1,54 @@
 package com.skillnest.backend.controller;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.skillnest.backend.model.UserDocument;
 import com.skillnest.backend.repository.UserDocumentRepository;
+import com.skillnest.backend.security.JwtUtil;
+import com.skillnest.backend.service.ResumableUploadService;
+import com.skillnest.backend.service.UploadStore;
 
 @RestController
 @RequestMapping("/api/auth/users/{userId}/documents")
 @CrossOrigin(origins = "http://localhost:5173")
 public class UserDocumentController {
 
-    @Value("${file.upload-dir}")
-    private String uploadDir;
-
     @Autowired
     private UserDocumentRepository documentRepository;
 
+    @Autowired
+    private UploadStore uploadStore;
+
+    @Autowired
+    private ResumableUploadService resumableUploadService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
     // Upload Document or Certificate
     @PostMapping
     public ResponseEntity<?> uploadDocument(
             @PathVariable String userId,
             @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "uploadId", required = false) String uploadId,
             @RequestParam("type") String type,
             @RequestParam("name") String name,
             @RequestParam("description") String description,
@@ -50,7 +56,8 @@ public class UserDocumentController {
             @RequestParam(required = false) String folder,
             @RequestParam(required = false) List<String> tags,
             @RequestParam(value = "issuingOrganization", required = false) String issuingOrganization,
-            @RequestParam(value = "credentialUrl", required = false) String credentialUrl
+            @RequestParam(value = "credentialUrl", required = false) String credentialUrl,
+            @RequestHeader(value = "Authorization", required = false) String authHeader
     ) {
         try {
             if (!type.equals("document") && !type.equals("certificate")) {
@@ -63,14 +70,9 @@ public class UserDocumentController {
 
             String filePath = null;
             if (file != null && !file.isEmpty()) {
-                File directory = new File(uploadDir);
-                if (!directory.exists()) {
-                    directory.mkdirs();
-                }
-
-                String filename = UUID.randomUUID() + "_" + StringUtils.cleanPath(file.getOriginalFilename());
-                filePath = uploadDir + File.separator + filename;
-                Files.copy(file.getInputStream(), Paths.get(filePath));
+                filePath = uploadStore.store(file);
+            } else if (uploadId != null) {
+                filePath = resumableUploadService.claim(uploadId, uploadOwner(authHeader, userId)).url();
             } else if (type.equals("document")) {
                 return ResponseEntity.badRequest().body("File is required for documents");
             }
@@ -93,6 +95,8 @@ public class UserDocumentController {
 
             UserDocument saved = documentRepository.save(doc);
             return ResponseEntity.ok(saved);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (IOException e) {
             return ResponseEntity.status(500).body("Failed to upload file: " + e.getMessage());
         }
@@ -109,13 +113,9 @@ public class UserDocumentController {
     public ResponseEntity<?> deleteDocument(@PathVariable String docId) {
         return documentRepository.findById(docId)
                 .map(doc -> {
-                    try {
-                        if (doc.getFilePath() != null) {
-                            Path path = Paths.get(doc.getFilePath());
-                            Files.deleteIfExists(path);
-                        }
-                    } catch (IOException e) {
-                        e.printStackTrace();
+                    // Older documents hold an absolute path; the store resolves either form by name
+                    if (doc.getFilePath() != null) {
+                        uploadStore.delete(doc.getFilePath());
                     }
                     documentRepository.deleteById(docId);
                     return ResponseEntity.ok().build();
@@ -128,6 +128,7 @@ public class UserDocumentController {
     public ResponseEntity<?> updateDocument(
             @PathVariable String docId,
             @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "uploadId", required = false) String uploadId,
             @RequestParam("type") String type,
             @RequestParam("name") String name,
             @RequestParam("description") String description,
@@ -135,7 +136,8 @@ public class UserDocumentController {
             @RequestParam(required = false) String folder,
             @RequestParam(required = false) List<String> tags,
             @RequestParam(value = "issuingOrganization", required = false) String issuingOrganization,
-            @RequestParam(value = "credentialUrl", required = false) String credentialUrl
+            @RequestParam(value = "credentialUrl", required = false) String credentialUrl,
+            @RequestHeader(value = "Authorization", required = false) String authHeader
     ) {
         return documentRepository.findById(docId)
                 .map(doc -> {
@@ -149,19 +151,16 @@ public class UserDocumentController {
 
                     try {
                         String filePath = doc.getFilePath();
-                        if (file != null && !file.isEmpty()) {
+                        if ((file != null && !file.isEmpty()) || uploadId != null) {
+                            // Save new file
+                            String newFilePath = file != null && !file.isEmpty()
+                                    ? uploadStore.store(file)
+                                    : resumableUploadService.claim(uploadId, uploadOwner(authHeader, doc.getUserId())).url();
                             // Delete old file if exists
                             if (filePath != null) {
-                                Files.deleteIfExists(Paths.get(filePath));
-                            }
-                            // Save new file
-                            File directory = new File(uploadDir);
-                            if (!directory.exists()) {
-                                directory.mkdirs();
+                                uploadStore.delete(filePath);
                             }
-                            String filename = UUID.randomUUID() + "_" + StringUtils.cleanPath(file.getOriginalFilename());
-                            filePath = uploadDir + File.separator + filename;
-                            Files.copy(file.getInputStream(), Paths.get(filePath));
+                            filePath = newFilePath;
                         }
 
                         doc.setType(type);
@@ -181,10 +180,21 @@ public class UserDocumentController {
                         }
 
                         return ResponseEntity.ok(documentRepository.save(doc));
+                    } catch (IllegalArgumentException e) {
+                        return ResponseEntity.badRequest().body(e.getMessage());
                     } catch (IOException e) {
                         return ResponseEntity.status(500).body("Failed to update file: " + e.getMessage());
                     }
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+
+    // The upload is claimed for the token holder, never for a client-supplied id, and only onto their own document
+    private String uploadOwner(String authHeader, String userId) {
+        String ownerId = BearerTokens.userId(jwtUtil, authHeader);
+        if (!ownerId.equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can only attach uploads to your own documents");
+        }
+        return ownerId;
+    }
+}
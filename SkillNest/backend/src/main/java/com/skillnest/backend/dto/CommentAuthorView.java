@@ -0,0 +1,11 @@
+package com.skillnest.backend.dto;
+
+import com.skillnest.backend.model.User;
+
+public record CommentAuthorView(String id, String name, String profileImage, String username) {
+
+    public static CommentAuthorView of(User user) {
+        return new CommentAuthorView(user.getId(), user.getName(), user.getProfileImage(),
+                user.getEmail().split("@")[0]);
+    }
+}
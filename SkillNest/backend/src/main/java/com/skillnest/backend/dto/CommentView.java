@@ -0,0 +1,24 @@
+package com.skillnest.backend.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.skillnest.backend.model.Comment;
+import com.skillnest.backend.model.User;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CommentView(
+        String id,
+        String postId,
+        String userId,
+        String content,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        CommentAuthorView user) {
+
+    public static CommentView of(Comment comment, User author) {
+        return new CommentView(comment.getId(), comment.getPostId(), comment.getUserId(), comment.getContent(),
+                comment.getCreatedAt(), comment.getUpdatedAt(),
+                author != null ? CommentAuthorView.of(author) : null);
+    }
+}
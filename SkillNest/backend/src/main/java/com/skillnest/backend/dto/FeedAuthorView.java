@@ -0,0 +1,11 @@
+package com.skillnest.backend.dto;
+
+import com.skillnest.backend.model.User;
+
+public record FeedAuthorView(String id, String name, String profileImage, String country, String username, boolean isMember) {
+
+    public static FeedAuthorView of(User user) {
+        return new FeedAuthorView(user.getId(), user.getName(), user.getProfileImage(), user.getCountry(),
+                user.getEmail().split("@")[0], true);
+    }
+}
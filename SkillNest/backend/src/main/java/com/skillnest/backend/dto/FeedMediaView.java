@@ -0,0 +1,31 @@
+package com.skillnest.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.skillnest.backend.model.MediaVariant;
+import com.skillnest.backend.model.PostMedia;
+
+// One media item on a feed card: the narrowest variant that still fills a card, or null while it is being processed
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record FeedMediaView(String url, String originalUrl, String kind, String posterUrl, boolean processing) {
+
+    // Widest a card is ever laid out, in CSS pixels
+    public static final int CARD_WIDTH = 640;
+
+    public static FeedMediaView of(PostMedia media) {
+        if (PostMedia.PENDING.equals(media.getStatus())) {
+            // Videos can play from the original meanwhile; images get a placeholder
+            String url = PostMedia.VIDEO.equals(media.getKind()) ? media.getUrl() : null;
+            return new FeedMediaView(url, media.getUrl(), media.getKind(), null, true);
+        }
+        String url = media.getUrl();
+        if (media.getVariants() != null) {
+            for (MediaVariant variant : media.getVariants()) {
+                if (variant.getWidth() >= CARD_WIDTH) {
+                    url = variant.getUrl();
+                    break;
+                }
+            }
+        }
+        return new FeedMediaView(url, media.getUrl(), media.getKind(), media.getPosterUrl(), false);
+    }
+}
@@ -0,0 +1,39 @@
+package com.skillnest.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.skillnest.backend.model.Post;
+import com.skillnest.backend.model.User;
+
+// One card in the feed. "user" is left out entirely when the author no longer exists, "media" on posts from
+// before the media pipeline (render mediaUrls as they are).
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record FeedPostView(
+        String id,
+        String title,
+        String content,
+        List<String> mediaUrls,
+        List<FeedMediaView> media,
+        LocalDateTime createdAt,
+        String userId,
+        int likeCount,
+        int commentCount,
+        boolean likedByMe,
+        FeedAuthorView user) {
+
+    public static FeedPostView of(Post post, User author, boolean likedByMe) {
+        List<FeedMediaView> media = post.getMedia() == null ? null
+                : post.getMedia().stream().map(FeedMediaView::of).collect(Collectors.toList());
+        return new FeedPostView(post.getId(), post.getTitle(), post.getContent(), post.getMediaUrls(), media,
+                post.getCreatedAt(), post.getUserId(), post.getLikeCount(), post.getCommentCount(), likedByMe,
+                author != null ? FeedAuthorView.of(author) : null);
+    }
+
+    public FeedPostView withLikedByMe(boolean liked) {
+        return liked == likedByMe ? this
+                : new FeedPostView(id, title, content, mediaUrls, media, createdAt, userId, likeCount, commentCount, liked, user);
+    }
+}
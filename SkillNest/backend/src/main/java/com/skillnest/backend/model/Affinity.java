@@ -0,0 +1,49 @@
+package com.skillnest.backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// How much a user has interacted with an author's posts. Bumped with $inc on every like and comment.
+@Document(collection = "affinities")
+@CompoundIndex(name = "user_author_idx", def = "{'userId': 1, 'authorId': 1}", unique = true)
+public class Affinity {
+
+    @Id
+    private String id;
+    private String userId;
+    private String authorId;
+    private double score;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(String authorId) {
+        this.authorId = authorId;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
@@ -3,13 +3,10 @@ package com.skillnest.backend.model;
 
 import java.time.LocalDateTime;
 
-import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.mapping.Document;
-
-@Document(collection = "comments")
+// API shape of a comment. Stored as a CommentEntry inside a CommentBucket; the old "comments"
+// collection is only read by CommentBucketMigration until it is dropped.
 public class Comment {
 
-    @Id
     private String id;
     private String postId;
     private String userId;
@@ -0,0 +1,69 @@
+package com.skillnest.backend.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// Up to CommentBucketStore.BUCKET_SIZE comments of one post, keyed "<postId>:<seq>". A comment's bucket follows from its sequence number.
+@Document(collection = "comment_buckets")
+@CompoundIndexes({
+    @CompoundIndex(name = "post_seq_idx", def = "{'postId': 1, 'seq': -1}", unique = true),
+    @CompoundIndex(name = "comment_id_idx", def = "{'comments.commentId': 1}")
+})
+public class CommentBucket {
+
+    @Id
+    private String id;
+    private String postId;
+    private long seq;
+    private int count;
+    private List<CommentEntry> comments;
+
+    public CommentBucket() {
+        this.comments = new ArrayList<>();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getPostId() {
+        return postId;
+    }
+
+    public void setPostId(String postId) {
+        this.postId = postId;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public List<CommentEntry> getComments() {
+        return comments;
+    }
+
+    public void setComments(List<CommentEntry> comments) {
+        this.comments = comments;
+    }
+}
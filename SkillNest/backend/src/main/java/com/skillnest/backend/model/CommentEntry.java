@@ -0,0 +1,80 @@
+package com.skillnest.backend.model;
+
+import java.time.LocalDateTime;
+
+// A comment as stored inside a CommentBucket. seq is its per-post sequence number, allocated on the post.
+public class CommentEntry {
+
+    private String commentId;
+    private long seq;
+    private String userId;
+    private String content;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public CommentEntry() {}
+
+    public CommentEntry(String commentId, long seq, String userId, String content, LocalDateTime createdAt) {
+        this.commentId = commentId;
+        this.seq = seq;
+        this.userId = userId;
+        this.content = content;
+        this.createdAt = createdAt;
+    }
+
+    public Comment toComment(String postId) {
+        Comment comment = new Comment(postId, userId, content);
+        comment.setId(commentId);
+        comment.setCreatedAt(createdAt);
+        comment.setUpdatedAt(updatedAt);
+        return comment;
+    }
+
+    public String getCommentId() {
+        return commentId;
+    }
+
+    public void setCommentId(String commentId) {
+        this.commentId = commentId;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
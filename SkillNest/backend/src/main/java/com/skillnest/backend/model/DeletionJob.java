@@ -0,0 +1,135 @@
+package com.skillnest.backend.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// Durable record of a cascade delete. Whichever node holds the lease works it; an expired lease can be taken over.
+@Document(collection = "deletion_jobs")
+@CompoundIndex(name = "status_lease_idx", def = "{'status': 1, 'leaseUntil': 1}")
+public class DeletionJob {
+
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    private String id;
+    private String type; // What was deleted, e.g. "POST"
+    private String targetId;
+    private List<String> mediaUrls; // Captured at enqueue time, the source document is already gone
+    private String status;
+    private int attempts;
+    private String leaseOwner;
+    private LocalDateTime leaseUntil;
+    private String lastError;
+    private LocalDateTime createdAt;
+    @Indexed(name = "completed_ttl_idx", expireAfterSeconds = 7 * 24 * 3600)
+    private LocalDateTime completedAt; // Finished jobs are kept a week for inspection
+
+    public DeletionJob() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public DeletionJob(String type, String targetId, List<String> mediaUrls) {
+        this.type = type;
+        this.targetId = targetId;
+        this.mediaUrls = mediaUrls;
+        this.status = PENDING;
+        this.createdAt = LocalDateTime.now();
+        this.leaseUntil = this.createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(String targetId) {
+        this.targetId = targetId;
+    }
+
+    public List<String> getMediaUrls() {
+        return mediaUrls;
+    }
+
+    public void setMediaUrls(List<String> mediaUrls) {
+        this.mediaUrls = mediaUrls;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    public void setLeaseOwner(String leaseOwner) {
+        this.leaseOwner = leaseOwner;
+    }
+
+    public LocalDateTime getLeaseUntil() {
+        return leaseUntil;
+    }
+
+    public void setLeaseUntil(LocalDateTime leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
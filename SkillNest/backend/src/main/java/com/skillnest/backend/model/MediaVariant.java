@@ -0,0 +1,41 @@
+package com.skillnest.backend.model;
+
+// A resized rendition of an uploaded image, stored next to the original in the upload directory
+public class MediaVariant {
+
+    private int width;
+    private int height;
+    private String url;
+
+    public MediaVariant() {}
+
+    public MediaVariant(int width, int height, String url) {
+        this.width = width;
+        this.height = height;
+        this.url = url;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public void setWidth(int width) {
+        this.width = width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public void setHeight(int height) {
+        this.height = height;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+}
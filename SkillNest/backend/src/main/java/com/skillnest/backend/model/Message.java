@@ -2,6 +2,16 @@ package com.skillnest.backend.model;
 
 import java.util.Date;
 
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// Collection name is the one Spring Data already derived from the class name
+@Document(collection = "message")
+@CompoundIndexes({
+    @CompoundIndex(name = "recipient_timestamp_idx", def = "{'recipientId': 1, 'timestamp': 1}"),
+    @CompoundIndex(name = "sender_recipient_idx", def = "{'senderId': 1, 'recipientId': 1}")
+})
 public class Message {
     private String id;
     private String senderId;
@@ -4,9 +4,16 @@ package com.skillnest.backend.model;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "notifications")
+@CompoundIndexes({
+    @CompoundIndex(name = "user_created_idx", def = "{'userId': 1, 'createdAt': -1}"),
+    @CompoundIndex(name = "user_unread_idx", def = "{'userId': 1, 'isRead': 1}"),
+    @CompoundIndex(name = "post_idx", def = "{'postId': 1}")
+})
 public class Notification {
 
     @Id
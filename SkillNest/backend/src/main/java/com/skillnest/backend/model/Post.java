@@ -1,13 +1,21 @@
 package com.skillnest.backend.model;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "posts")
+@CompoundIndexes({
+    @CompoundIndex(name = "feed_created_id_idx", def = "{'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "author_created_id_idx", def = "{'userId': 1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "author_visibility_idx", def = "{'userId': 1, 'visibility': 1}"),
+    @CompoundIndex(name = "media_status_idx", def = "{'media.status': 1}")
+})
 public class Post {
 
     @Id
@@ -18,14 +26,18 @@ public class Post {
     private boolean addToPortfolio;
     private String userId;
     private List<String> mediaUrls;
+    private List<PostMedia> media; // Processing state and variants of each upload; absent on older posts
     private LocalDateTime createdAt;
-    private List<String> likedBy; // List of user IDs who liked the post
-    private List<String> commentIds;
+    private int likeCount; // Likes themselves live in the likes collection
+    private int commentCount;
+    private double engagementScore; // Maintained with $inc as likes and comments arrive
+    @Version
+    private Long version; // Bumped by every save and every MongoTemplate update; drives the feed ETag
+    private long commentVersion; // Bumped whenever a comment on this post is added, edited or deleted
+    private long commentSeq; // Next comment sequence number; the comments live in comment_buckets
 
     public Post() {
         this.createdAt = LocalDateTime.now();
-        this.likedBy = new ArrayList<>();
-        this.commentIds = new ArrayList<>();
     }
 
     public Post(String title, String content, String visibility, boolean addToPortfolio, String userId, List<String> mediaUrls) {
@@ -36,8 +48,6 @@ public class Post {
         this.userId = userId;
         this.mediaUrls = mediaUrls;
         this.createdAt = LocalDateTime.now();
-        this.likedBy = new ArrayList<>();
-        this.commentIds = new ArrayList<>();
     }
 
     public String getId() {
@@ -96,6 +106,14 @@ public class Post {
         this.mediaUrls = mediaUrls;
     }
 
+    public List<PostMedia> getMedia() {
+        return media;
+    }
+
+    public void setMedia(List<PostMedia> media) {
+        this.media = media;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -103,19 +121,51 @@ public class Post {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
-    public List<String> getLikedBy() {
-        return likedBy;
+    public int getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(int likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public int getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(int commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public double getEngagementScore() {
+        return engagementScore;
+    }
+
+    public void setEngagementScore(double engagementScore) {
+        this.engagementScore = engagementScore;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public long getCommentVersion() {
+        return commentVersion;
     }
 
-    public void setLikedBy(List<String> likedBy) {
-        this.likedBy = likedBy;
+    public void setCommentVersion(long commentVersion) {
+        this.commentVersion = commentVersion;
     }
 
-    public List<String> getCommentIds() {
-        return commentIds;
+    public long getCommentSeq() {
+        return commentSeq;
     }
 
-    public void setCommentIds(List<String> commentIds) {
-        this.commentIds = commentIds;
+    public void setCommentSeq(long commentSeq) {
+        this.commentSeq = commentSeq;
     }
 }
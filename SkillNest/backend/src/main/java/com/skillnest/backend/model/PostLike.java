@@ -0,0 +1,65 @@
+package com.skillnest.backend.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// One document per (post, user) like; the unique index is what makes a double like impossible
+@Document(collection = "likes")
+@CompoundIndexes({
+    @CompoundIndex(name = "post_user_idx", def = "{'postId': 1, 'userId': 1}", unique = true),
+    @CompoundIndex(name = "user_post_idx", def = "{'userId': 1, 'postId': 1}")
+})
+public class PostLike {
+
+    @Id
+    private String id;
+    private String postId;
+    private String userId;
+    private LocalDateTime createdAt;
+
+    public PostLike() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public PostLike(String postId, String userId) {
+        this.postId = postId;
+        this.userId = userId;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getPostId() {
+        return postId;
+    }
+
+    public void setPostId(String postId) {
+        this.postId = postId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
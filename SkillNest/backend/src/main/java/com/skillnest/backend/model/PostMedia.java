@@ -0,0 +1,104 @@
+package com.skillnest.backend.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One uploaded file of a post and what the media pipeline has made of it so far
+public class PostMedia {
+
+    public static final String IMAGE = "image";
+    public static final String VIDEO = "video";
+    public static final String FILE = "file";
+
+    public static final String PENDING = "PENDING";
+    public static final String READY = "READY";
+    public static final String FAILED = "FAILED"; // Served as the original
+
+    private String url; // The original upload, also listed in Post.mediaUrls
+    private String kind;
+    private String status;
+    private int width; // Of the original image, 0 until processed
+    private int height;
+    private List<MediaVariant> variants; // Narrowest first
+    private String posterUrl; // Videos only
+
+    public PostMedia() {
+        this.variants = new ArrayList<>();
+    }
+
+    public PostMedia(String url, String kind) {
+        this.url = url;
+        this.kind = kind;
+        this.status = FILE.equals(kind) ? READY : PENDING;
+        this.variants = new ArrayList<>();
+    }
+
+    /** All files this entry owns on disk: the original, its variants and the poster. */
+    public List<String> allUrls() {
+        List<String> urls = new ArrayList<>();
+        urls.add(url);
+        for (MediaVariant variant : variants) {
+            urls.add(variant.getUrl());
+        }
+        if (posterUrl != null) {
+            urls.add(posterUrl);
+        }
+        return urls;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public void setWidth(int width) {
+        this.width = width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public void setHeight(int height) {
+        this.height = height;
+    }
+
+    public List<MediaVariant> getVariants() {
+        return variants;
+    }
+
+    public void setVariants(List<MediaVariant> variants) {
+        this.variants = variants;
+    }
+
+    public String getPosterUrl() {
+        return posterUrl;
+    }
+
+    public void setPosterUrl(String posterUrl) {
+        this.posterUrl = posterUrl;
+    }
+}
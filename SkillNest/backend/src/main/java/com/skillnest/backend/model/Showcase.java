@@ -5,12 +5,14 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "showcases")
 public class Showcase {
     @Id
     private String id;
+    @Indexed
     private String userId;
     private String title;
     private String description;
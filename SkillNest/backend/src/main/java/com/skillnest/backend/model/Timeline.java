@@ -0,0 +1,41 @@
+package com.skillnest.backend.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// One document per user, keyed by the user id. Entries are kept newest first and capped on every push.
+@Document(collection = "timelines")
+public class Timeline {
+
+    @Id
+    private String id;
+    private List<TimelineEntry> entries;
+
+    public Timeline() {
+        this.entries = new ArrayList<>();
+    }
+
+    public Timeline(String id, List<TimelineEntry> entries) {
+        this.id = id;
+        this.entries = entries;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public List<TimelineEntry> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<TimelineEntry> entries) {
+        this.entries = entries;
+    }
+}
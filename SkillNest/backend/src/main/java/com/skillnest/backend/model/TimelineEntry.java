@@ -0,0 +1,42 @@
+package com.skillnest.backend.model;
+
+import java.time.LocalDateTime;
+
+public class TimelineEntry {
+
+    private String postId;
+    private String authorId;
+    private LocalDateTime createdAt;
+
+    public TimelineEntry() {}
+
+    public TimelineEntry(String postId, String authorId, LocalDateTime createdAt) {
+        this.postId = postId;
+        this.authorId = authorId;
+        this.createdAt = createdAt;
+    }
+
+    public String getPostId() {
+        return postId;
+    }
+
+    public void setPostId(String postId) {
+        this.postId = postId;
+    }
+
+    public String getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(String authorId) {
+        this.authorId = authorId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,69 @@
+package com.skillnest.backend.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// One stored file content, keyed by its SHA-256. refCount is the number of upload names pointing at it.
+@Document(collection = "upload_blobs")
+@CompoundIndex(name = "unreferenced_idx", def = "{'refCount': 1, 'zeroSince': 1}")
+public class UploadBlob {
+
+    @Id
+    private String id; // Lowercase hex SHA-256
+    private long size;
+    private long refCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime zeroSince; // Set when the last name was released; the file is reaped after a grace period
+    private LocalDateTime reapingSince; // Set while the reaper deletes the file; no new name can be counted meanwhile
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public long getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(long refCount) {
+        this.refCount = refCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getZeroSince() {
+        return zeroSince;
+    }
+
+    public void setZeroSince(LocalDateTime zeroSince) {
+        this.zeroSince = zeroSince;
+    }
+
+    public LocalDateTime getReapingSince() {
+        return reapingSince;
+    }
+
+    public void setReapingSince(LocalDateTime reapingSince) {
+        this.reapingSince = reapingSince;
+    }
+}
@@ -0,0 +1,70 @@
+package com.skillnest.backend.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// The logical name behind an "/uploads/<name>" URL and the blob holding its bytes
+@Document(collection = "upload_names")
+public class UploadName {
+
+    @Id
+    private String id; // The name, e.g. "<uuid>_resume.pdf"
+    @Indexed
+    private String hash;
+    private String contentType;
+    private long size;
+    private LocalDateTime createdAt;
+
+    public UploadName() {}
+
+    public UploadName(String id, String hash, String contentType, long size) {
+        this.id = id;
+        this.hash = hash;
+        this.contentType = contentType;
+        this.size = size;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
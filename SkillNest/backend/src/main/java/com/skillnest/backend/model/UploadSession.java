@@ -0,0 +1,131 @@
+package com.skillnest.backend.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// A resumable upload in progress. Chunks land in a part file on the node that created it; offset counts the bytes safely written.
+@Document(collection = "upload_sessions")
+public class UploadSession {
+
+    public static final String UPLOADING = "UPLOADING";
+    public static final String FINISHING = "FINISHING";
+    public static final String COMPLETE = "COMPLETE";
+
+    @Id
+    private String id;
+    private String ownerId; // The signed-in user who created it; only they can write, finish, claim or cancel it
+    private String filename;
+    private String contentType;
+    private long length;
+    private long offset;
+    private String sha256; // Hex digest the client declared up front, checked when the upload is finished
+    private String status;
+    private String url; // Set once finished, until a post, showcase or document claims it
+    private LocalDateTime createdAt;
+    @Indexed
+    private LocalDateTime updatedAt; // Sessions idle past the expiry are dropped along with their bytes
+
+    public UploadSession() {}
+
+    public UploadSession(String ownerId, String filename, String contentType, long length, String sha256) {
+        this.ownerId = ownerId;
+        this.filename = filename;
+        this.contentType = contentType;
+        this.length = length;
+        this.sha256 = sha256;
+        this.status = UPLOADING;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(String ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public String getFilename() {
+        return filename;
+    }
+
+    public void setFilename(String filename) {
+        this.filename = filename;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
+    public void setLength(long length) {
+        this.length = length;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
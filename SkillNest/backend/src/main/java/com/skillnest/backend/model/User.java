@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Set;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import jakarta.validation.constraints.Email;
@@ -17,9 +18,13 @@ public class User {
     @Id
     private String id;
 
+    @Version
+    private Long version;
+
     @NotBlank(message = "Name is required")
     private String name;
 
+    // Unique, but the index is built by UserEmailIndex once no two accounts share an address
     @Email(message = "Invalid email format")
     @NotBlank(message = "Email is required")
     private String email;
@@ -32,7 +37,8 @@ public class User {
     private String loginMethod;
     private String coverImage;
     private String headline;
-    private String profileImage;
+    private String profileImage; // URL of the square avatar thumbnail, which is what every listing embeds
+    private String profileImageOriginal; // URL of the image as uploaded
     private Date createdAt;
 
     private String bio;
@@ -137,6 +143,14 @@ public class User {
         this.profileImage = profileImage;
     }
 
+    public String getProfileImageOriginal() {
+        return profileImageOriginal;
+    }
+
+    public void setProfileImageOriginal(String profileImageOriginal) {
+        this.profileImageOriginal = profileImageOriginal;
+    }
+
     public Date getCreatedAt() {
         return createdAt;
     }
@@ -262,5 +276,13 @@ public class User {
     public void setFollowers(Set<String> followers) {
         this.followers = followers;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
     
 }
@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document("documents")
@@ -12,6 +13,7 @@ public class UserDocument {
     @Id
     private String id;
 
+    @Indexed
     private String userId;
     private String type; // "document" or "certificate"
     private String name;
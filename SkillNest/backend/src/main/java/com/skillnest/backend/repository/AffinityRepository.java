@@ -0,0 +1,11 @@
+package com.skillnest.backend.repository;
+
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.skillnest.backend.model.Affinity;
+
+public interface AffinityRepository extends MongoRepository<Affinity, String> {
+    List<Affinity> findByUserId(String userId);
+}
@@ -0,0 +1,12 @@
+package com.skillnest.backend.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.skillnest.backend.model.PostLike;
+
+public interface PostLikeRepository extends MongoRepository<PostLike, String> {
+    List<PostLike> findByUserIdAndPostIdIn(String userId, Collection<String> postIds);
+}
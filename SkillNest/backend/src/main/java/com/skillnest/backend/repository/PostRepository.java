@@ -1,8 +1,13 @@
 package com.skillnest.backend.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.skillnest.backend.model.Post;
@@ -10,7 +15,42 @@ import com.skillnest.backend.model.Post;
 @Repository
 public interface PostRepository extends MongoRepository<Post, String> {
 
+    // What a feed card shows plus what ranking reads
+    String FEED_FIELDS = "{ 'title': 1, 'content': 1, 'mediaUrls': 1, 'media': 1, 'createdAt': 1, 'userId': 1, "
+            + "'likeCount': 1, 'commentCount': 1, 'engagementScore': 1 }";
+
     List<Post> findByUserIdOrderByCreatedAtDesc(String userId);
 
+    // Just what a timeline entry holds, newest first, for following backfills and timeline rebuilds
+    @Query(value = "{ 'userId': ?0 }", fields = "{ 'userId': 1, 'createdAt': 1 }", sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<Post> findTimelineEntriesByUserId(String userId, Pageable pageable);
+
+    @Query(value = "{ 'userId': { '$in': ?0 } }", fields = "{ 'userId': 1, 'createdAt': 1 }", sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<Post> findTimelineEntriesByUserIdIn(Collection<String> userIds, Pageable pageable);
+
     List<Post> findByVisibilityAndUserId(String visibility, String userId);
+
+    // First feed page, newest first. Served by the (createdAt, _id) compound index.
+    @Query(value = "{}", fields = FEED_FIELDS, sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<Post> findFeedFirstPage(Pageable pageable);
+
+    // Keyset continuation: everything strictly after the (createdAt, _id) of the last post seen.
+    @Query(value = "{ '$or': [ { 'createdAt': { '$lt': ?0 } }, { 'createdAt': ?0, '_id': { '$lt': ?1 } } ] }",
+           fields = FEED_FIELDS, sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<Post> findFeedPageAfter(LocalDateTime createdAt, String id, Pageable pageable);
+
+    // Per-author keyset pages, used when a high-follower author's posts are pulled in at read time
+    @Query(value = "{ 'userId': ?0 }", fields = FEED_FIELDS, sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<Post> findAuthorFirstPage(String userId, Pageable pageable);
+
+    @Query(value = "{ 'userId': ?0, '$or': [ { 'createdAt': { '$lt': ?1 } }, { 'createdAt': ?1, '_id': { '$lt': ?2 } } ] }",
+           fields = FEED_FIELDS, sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<Post> findAuthorPageAfter(String userId, LocalDateTime createdAt, String id, Pageable pageable);
+
+    @Query(value = "{ '_id': { '$in': ?0 } }", fields = FEED_FIELDS)
+    List<Post> findFeedPostsByIdIn(Collection<String> ids);
+
+    // Comment counter and version only, for comment counts and the comment list ETag
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'commentCount': 1, 'commentVersion': 1 }")
+    Optional<Post> findCommentStatsById(String id);
 }
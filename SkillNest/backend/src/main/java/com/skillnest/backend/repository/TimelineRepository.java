@@ -0,0 +1,8 @@
+package com.skillnest.backend.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.skillnest.backend.model.Timeline;
+
+public interface TimelineRepository extends MongoRepository<Timeline, String> {
+}
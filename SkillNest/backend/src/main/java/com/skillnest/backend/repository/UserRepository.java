@@ -1,8 +1,11 @@
 package com.skillnest.backend.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import com.skillnest.backend.model.User;
 
@@ -11,4 +14,13 @@ import com.skillnest.backend.model.User;
 public interface UserRepository extends MongoRepository<User, String> {
     Optional<User> findByEmail(String email);
     Optional<User> findById(String id);
+
+    // Only the fields shown next to a post or comment, so list endpoints don't drag in whole profiles;
+    // the version lets a response's ETag cover the authors it actually embeds
+    @Query(value = "{ '_id': { '$in': ?0 } }", fields = "{ 'name': 1, 'email': 1, 'profileImage': 1, 'country': 1, 'version': 1 }")
+    List<User> findAuthorSummariesByIdIn(Collection<String> ids);
+
+    // Version-only read backing the profile ETag
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'version': 1 }")
+    Optional<User> findVersionById(String id);
 }
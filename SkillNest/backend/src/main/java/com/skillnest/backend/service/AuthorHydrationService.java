@@ -0,0 +1,62 @@
+package com.skillnest.backend.service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Service;
+
+import com.skillnest.backend.model.User;
+import com.skillnest.backend.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Loads the authors of a page of rows (posts, comments, ...) with one $in query
+ * instead of one findById per row. The findByIds that replaces are counted in
+ * author.hydration.lookups.saved.
+ */
+@Service
+public class AuthorHydrationService {
+
+    private final UserRepository userRepository;
+    private final Counter lookupsSaved;
+
+    public AuthorHydrationService(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.lookupsSaved = meterRegistry.counter("author.hydration.lookups.saved");
+    }
+
+    /**
+     * Returns the author summaries for the given rows keyed by user id. The users only
+     * carry id, name, email, profileImage, country and version.
+     */
+    public <T> Map<String, User> loadAuthors(List<T> rows, Function<T, String> authorIdOf) {
+        Set<String> authorIds = new LinkedHashSet<>();
+        int rowsWithAuthor = 0;
+        for (T row : rows) {
+            String authorId = authorIdOf.apply(row);
+            if (authorId != null) {
+                authorIds.add(authorId);
+                rowsWithAuthor++;
+            }
+        }
+        if (authorIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, User> authors = new HashMap<>();
+        for (User user : userRepository.findAuthorSummariesByIdIn(authorIds)) {
+            authors.put(user.getId(), user);
+        }
+
+        // Rendering row by row cost a findById per row with an author; this one query replaces all of them
+        lookupsSaved.increment(rowsWithAuthor - 1);
+        return authors;
+    }
+}
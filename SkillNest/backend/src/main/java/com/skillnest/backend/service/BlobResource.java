@@ -0,0 +1,98 @@
+package com.skillnest.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.core.io.AbstractResource;
+
+/**
+ * A blob in a remote {@link BlobStore}. Its length comes from the upload metadata, so
+ * serving it needs no round trip before the body is streamed, and exists() trusts that
+ * metadata rather than probing the store.
+ *
+ * The stream it hands out opens the blob on first use. Spring MVC serves a Range by
+ * skipping to the start of the region before it reads, so a skip that comes first is
+ * turned into an open at that offset: the store is asked for the tail of the blob only,
+ * and a seek in a long video does not pull everything before it through the app.
+ */
+final class BlobResource extends AbstractResource {
+
+    interface Opener {
+        /** The blob's bytes from the given offset on; offset is within the blob's length. */
+        InputStream open(long offset) throws IOException;
+    }
+
+    private final String description;
+    private final long length;
+    private final Opener opener;
+
+    BlobResource(String description, long length, Opener opener) {
+        this.description = description;
+        this.length = length;
+        this.opener = opener;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return new OffsetStream();
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public long contentLength() {
+        return length;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    private final class OffsetStream extends InputStream {
+
+        private InputStream in;
+
+        @Override
+        public long skip(long n) throws IOException {
+            if (in == null && n > 0) {
+                long offset = Math.min(n, length);
+                in = offset == length ? InputStream.nullInputStream() : opener.open(offset);
+                return offset;
+            }
+            return open().skip(n);
+        }
+
+        @Override
+        public int read() throws IOException {
+            return open().read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int count) throws IOException {
+            return open().read(buffer, offset, count);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return in == null ? 0 : in.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (in != null) {
+                in.close();
+            }
+        }
+
+        private InputStream open() throws IOException {
+            if (in == null) {
+                in = opener.open(0);
+            }
+            return in;
+        }
+    }
+}
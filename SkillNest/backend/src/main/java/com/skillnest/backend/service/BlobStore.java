@@ -0,0 +1,28 @@
+package com.skillnest.backend.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Where the bytes behind the {@link UploadStore} live. Keys are SHA-256 hashes of the content,
+ * so a key never changes meaning: a put of an existing key may be skipped, and two nodes
+ * racing to put the same key write the same bytes. Names, reference counts and content types
+ * stay in Mongo; a store only holds opaque blobs.
+ *
+ * Selected with upload.store.backend: local (default), gridfs or s3.
+ */
+public interface BlobStore {
+
+    /** Stores the file under the key. The source may be moved or copied; the caller removes what is left. */
+    void put(String key, Path source) throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    /** The blob as a lazily opened resource of the given length; nothing is read until it is opened. */
+    Resource get(String key, long size);
+
+    /** Removes the blob; a missing key is not an error. */
+    void delete(String key) throws IOException;
+}
@@ -0,0 +1,183 @@
+package com.skillnest.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.skillnest.backend.model.CommentBucket;
+import com.skillnest.backend.model.DeletionJob;
+import com.skillnest.backend.model.Notification;
+import com.skillnest.backend.model.Post;
+import com.skillnest.backend.model.PostLike;
+
+/**
+ * Background half of a post delete. The request removes the post document and records a
+ * {@link DeletionJob}; this worker claims jobs under a lease and removes the post's comment
+ * buckets, likes and notifications in batches, then releases its media files. Every step is
+ * idempotent, so a job whose node died is simply picked up again once its lease expires.
+ */
+@Component
+public class CascadeDeleteWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CascadeDeleteWorker.class);
+
+    public static final String POST = "POST";
+
+    private final MongoTemplate mongoTemplate;
+    private final UploadStore uploadStore;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final long leaseSeconds;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    public CascadeDeleteWorker(
+            MongoTemplate mongoTemplate,
+            UploadStore uploadStore,
+            @Value("${cascade.delete.lease-seconds:60}") long leaseSeconds,
+            @Value("${cascade.delete.batch-size:500}") int batchSize,
+            @Value("${cascade.delete.max-attempts:5}") int maxAttempts) {
+        this.mongoTemplate = mongoTemplate;
+        this.uploadStore = uploadStore;
+        this.leaseSeconds = leaseSeconds;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    public DeletionJob enqueuePost(Post post) {
+        Set<String> mediaUrls = new LinkedHashSet<>();
+        if (post.getMediaUrls() != null) {
+            mediaUrls.addAll(post.getMediaUrls());
+        }
+        if (post.getMedia() != null) {
+            post.getMedia().forEach(media -> mediaUrls.addAll(media.allUrls()));
+        }
+        return mongoTemplate.insert(new DeletionJob(POST, post.getId(), new ArrayList<>(mediaUrls)));
+    }
+
+    @Scheduled(fixedDelayString = "${cascade.delete.poll-millis:5000}")
+    public void poll() {
+        DeletionJob job;
+        while ((job = claim()) != null) {
+            run(job);
+        }
+    }
+
+    /** Runs one job to completion; false if it failed or the lease was lost to another node. */
+    boolean run(DeletionJob job) {
+        try {
+            if (!POST.equals(job.getType())) {
+                throw new IllegalStateException("Unknown deletion job type: " + job.getType());
+            }
+            boolean finished = deletePost(job);
+            if (finished) {
+                complete(job);
+            }
+            return finished;
+        } catch (RuntimeException e) {
+            logger.warn("Deletion job {} ({} {}) failed on attempt {}", job.getId(), job.getType(),
+                    job.getTargetId(), job.getAttempts(), e);
+            fail(job, e);
+            return false;
+        }
+    }
+
+    private boolean deletePost(DeletionJob job) {
+        String postId = job.getTargetId();
+        // Normally already gone; covers a crash between recording the job and removing the post
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(postId)), Post.class);
+
+        Query byPost = Query.query(Criteria.where("postId").is(postId));
+        if (!deleteInBatches(job, byPost, CommentBucket.class)
+                || !deleteInBatches(job, byPost, PostLike.class)
+                || !deleteInBatches(job, byPost, Notification.class)) {
+            return false;
+        }
+        for (String mediaUrl : job.getMediaUrls()) {
+            uploadStore.delete(mediaUrl);
+        }
+        return true;
+    }
+
+    // Deletes by _id a batch at a time so no single deleteMany holds the collection for long
+    private boolean deleteInBatches(DeletionJob job, Query selector, Class<?> entityClass) {
+        while (true) {
+            Query batch = Query.of(selector).limit(batchSize);
+            batch.fields().include("_id");
+            List<Object> ids = mongoTemplate.find(batch, Document.class, mongoTemplate.getCollectionName(entityClass))
+                    .stream()
+                    .map(document -> document.get("_id"))
+                    .toList();
+            if (ids.isEmpty()) {
+                return true;
+            }
+            mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), entityClass);
+            if (!renewLease(job)) {
+                logger.info("Lost the lease on deletion job {}; leaving it to its new owner", job.getId());
+                return false;
+            }
+        }
+    }
+
+    // Oldest runnable job: pending ones whose backoff has passed and running ones whose lease expired
+    private DeletionJob claim() {
+        LocalDateTime now = LocalDateTime.now();
+        Query runnable = Query.query(Criteria.where("status").in(DeletionJob.PENDING, DeletionJob.RUNNING)
+                .and("leaseUntil").lte(now))
+                .with(Sort.by("leaseUntil"));
+        Update lease = new Update()
+                .set("status", DeletionJob.RUNNING)
+                .set("leaseOwner", nodeId)
+                .set("leaseUntil", now.plusSeconds(leaseSeconds))
+                .inc("attempts", 1);
+        return mongoTemplate.findAndModify(runnable, lease, FindAndModifyOptions.options().returnNew(true),
+                DeletionJob.class);
+    }
+
+    private boolean renewLease(DeletionJob job) {
+        return mongoTemplate.updateFirst(owned(job),
+                new Update().set("leaseUntil", LocalDateTime.now().plusSeconds(leaseSeconds)),
+                DeletionJob.class).getModifiedCount() > 0;
+    }
+
+    private void complete(DeletionJob job) {
+        mongoTemplate.updateFirst(owned(job),
+                new Update()
+                        .set("status", DeletionJob.DONE)
+                        .set("completedAt", LocalDateTime.now())
+                        .unset("leaseOwner")
+                        .unset("lastError"),
+                DeletionJob.class);
+    }
+
+    // Back off linearly with the attempt count; give up and keep the record after maxAttempts
+    private void fail(DeletionJob job, RuntimeException e) {
+        boolean exhausted = job.getAttempts() >= maxAttempts;
+        mongoTemplate.updateFirst(owned(job),
+                new Update()
+                        .set("status", exhausted ? DeletionJob.FAILED : DeletionJob.PENDING)
+                        .set("leaseUntil", LocalDateTime.now().plusSeconds(leaseSeconds * job.getAttempts()))
+                        .set("lastError", String.valueOf(e.getMessage()))
+                        .unset("leaseOwner"),
+                DeletionJob.class);
+    }
+
+    private Query owned(DeletionJob job) {
+        return Query.query(Criteria.where("_id").is(job.getId()).and("leaseOwner").is(nodeId));
+    }
+}
@@ -0,0 +1,158 @@
+package com.skillnest.backend.service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.skillnest.backend.model.Comment;
+import com.skillnest.backend.model.CommentEntry;
+import com.skillnest.backend.model.Post;
+
+/**
+ * Moves the old one-document-per-comment "comments" collection into comment_buckets, post by
+ * post, on one node at a time under a {@link MigrationLease}. Each legacy comment is given its
+ * sequence number once, on its own document, and appended to that bucket only if absent, so
+ * any run can be interrupted and repeated. Legacy comments are marked rather than removed:
+ * nodes still on the old code keep writing them during a rolling deploy, and the next start
+ * picks those up. Dropping the collection and the Post.commentIds arrays is a separate step,
+ * enabled with comments.legacy.drop once no node runs the old code.
+ */
+@Component
+public class CommentBucketMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommentBucketMigration.class);
+    private static final String LEGACY_COLLECTION = "comments";
+    private static final String LEASE = "comment-bucket-migration";
+    private static final String SEQ = "bucketSeq";
+    private static final String MIGRATED = "migrated";
+
+    private final MongoTemplate mongoTemplate;
+    private final CommentBucketStore commentBucketStore;
+    private final MigrationLease migrationLease;
+    private final boolean dropLegacy;
+    private final Duration leaseDuration;
+
+    public CommentBucketMigration(
+            MongoTemplate mongoTemplate,
+            CommentBucketStore commentBucketStore,
+            MigrationLease migrationLease,
+            @Value("${comments.legacy.drop:false}") boolean dropLegacy,
+            @Value("${comments.migration.lease-seconds:300}") long leaseSeconds) {
+        this.mongoTemplate = mongoTemplate;
+        this.commentBucketStore = commentBucketStore;
+        this.migrationLease = migrationLease;
+        this.dropLegacy = dropLegacy;
+        this.leaseDuration = Duration.ofSeconds(leaseSeconds);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!mongoTemplate.collectionExists(LEGACY_COLLECTION)) {
+            return;
+        }
+        if (!migrationLease.acquire(LEASE, leaseDuration)) {
+            logger.info("Another node is moving legacy comments into buckets; leaving it to that node");
+            return;
+        }
+        try {
+            List<String> postIds = mongoTemplate.findDistinct(Query.query(Criteria.where(MIGRATED).ne(true)),
+                    "postId", LEGACY_COLLECTION, String.class);
+            for (String postId : postIds) {
+                if (!migrationLease.acquire(LEASE, leaseDuration)) {
+                    logger.warn("Lost the comment migration lease; the next start carries on");
+                    return;
+                }
+                migrate(postId);
+            }
+            if (!postIds.isEmpty()) {
+                logger.info("Moved the comments of {} posts into comment buckets", postIds.size());
+            }
+            if (dropLegacy) {
+                // Only safe once no node writes legacy comments any more, so nothing lands between the pass above and this
+                mongoTemplate.dropCollection(LEGACY_COLLECTION);
+                mongoTemplate.updateMulti(Query.query(Criteria.where("commentIds").exists(true)),
+                        new Update().unset("commentIds"), Post.class);
+                logger.info("Dropped the legacy comments collection");
+            }
+        } finally {
+            migrationLease.release(LEASE);
+        }
+    }
+
+    private void migrate(String postId) {
+        Query byPost = Query.query(Criteria.where("postId").is(postId).and(MIGRATED).ne(true))
+                .with(Sort.by("createdAt", "_id"));
+        List<Document> pending = mongoTemplate.find(byPost, Document.class, LEGACY_COLLECTION);
+        if (!assignSeqs(postId, pending)) {
+            logger.warn("Leaving {} comments of missing post {} to the legacy drop", pending.size(), postId);
+            return;
+        }
+
+        for (Document legacy : pending) {
+            Comment comment = mongoTemplate.getConverter().read(Comment.class, legacy);
+            CommentEntry entry = new CommentEntry(comment.getId(), legacy.get(SEQ, Number.class).longValue(),
+                    comment.getUserId(), comment.getContent(), comment.getCreatedAt());
+            entry.setUpdatedAt(comment.getUpdatedAt());
+            commentBucketStore.appendIfAbsent(postId, entry);
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(legacy.get("_id"))),
+                    new Update().set(MIGRATED, true), LEGACY_COLLECTION);
+        }
+
+        // Recount from the buckets so a re-run after a partial failure is still exact
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(postId)),
+                new Update().set("commentCount", commentBucketStore.count(postId)), Post.class);
+    }
+
+    // Gives each comment its sequence number once, stored on the legacy document, so a repeated run appends it
+    // to the same bucket. False when the post is gone.
+    private boolean assignSeqs(String postId, List<Document> pending) {
+        long unassigned = pending.stream().filter(legacy -> legacy.get(SEQ) == null).count();
+        if (unassigned == 0) {
+            return true;
+        }
+        Query post = Query.query(Criteria.where("_id").is(postId));
+        post.fields().include("commentSeq");
+        Post allocated = mongoTemplate.findAndModify(post, new Update().inc("commentSeq", unassigned),
+                FindAndModifyOptions.options().returnNew(true), Post.class);
+        if (allocated == null) {
+            return false;
+        }
+
+        long seq = allocated.getCommentSeq() - unassigned;
+        Iterator<Document> it = pending.iterator();
+        while (it.hasNext()) {
+            Document legacy = it.next();
+            if (legacy.get(SEQ) != null) {
+                continue;
+            }
+            Query unclaimed = Query.query(Criteria.where("_id").is(legacy.get("_id")).and(SEQ).exists(false));
+            if (mongoTemplate.updateFirst(unclaimed, new Update().set(SEQ, seq), LEGACY_COLLECTION).getModifiedCount() > 0) {
+                legacy.put(SEQ, seq);
+            } else {
+                // Claimed by a run that since lost its lease; its number stands, this one is left unused
+                Document claimed = mongoTemplate.findById(legacy.get("_id"), Document.class, LEGACY_COLLECTION);
+                if (claimed == null || claimed.get(SEQ) == null) {
+                    it.remove();
+                } else {
+                    legacy.put(SEQ, claimed.get(SEQ));
+                }
+            }
+            seq++;
+        }
+        return true;
+    }
+}
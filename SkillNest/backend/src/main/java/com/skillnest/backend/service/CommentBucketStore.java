@@ -0,0 +1,182 @@
+package com.skillnest.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.skillnest.backend.model.Comment;
+import com.skillnest.backend.model.CommentBucket;
+import com.skillnest.backend.model.CommentEntry;
+import com.skillnest.backend.model.FeedPage;
+
+/**
+ * Comments stored BUCKET_SIZE to a document in comment_buckets. The post hands out a
+ * sequence number per comment and seq / BUCKET_SIZE names the bucket, so an append is one
+ * upsert with $push and a page of newest comments is one or two bucket reads.
+ */
+@Service
+public class CommentBucketStore {
+
+    public static final int BUCKET_SIZE = 50;
+
+    private final MongoTemplate mongoTemplate;
+
+    public CommentBucketStore(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public Comment append(String postId, long seq, String userId, String content) {
+        CommentEntry entry = new CommentEntry(new ObjectId().toHexString(), seq, userId, content, LocalDateTime.now());
+        append(postId, entry);
+        return entry.toComment(postId);
+    }
+
+    public void append(String postId, CommentEntry entry) {
+        long bucketSeq = entry.getSeq() / BUCKET_SIZE;
+        Query bucket = Query.query(Criteria.where("_id").is(bucketId(postId, bucketSeq)));
+        Update update = pushUpdate(postId, bucketSeq, entry);
+        try {
+            mongoTemplate.upsert(bucket, update, CommentBucket.class);
+        } catch (DuplicateKeyException e) {
+            // Lost the race to create the bucket; it exists now, so the retry is a plain $push
+            mongoTemplate.upsert(bucket, update, CommentBucket.class);
+        }
+    }
+
+    /**
+     * Appends unless the entry's bucket already holds its comment id, so repeating it is
+     * harmless; false when it was already there. The sequence number must be fixed per
+     * comment, since that is what names the bucket.
+     */
+    public boolean appendIfAbsent(String postId, CommentEntry entry) {
+        long bucketSeq = entry.getSeq() / BUCKET_SIZE;
+        Query bucket = Query.query(Criteria.where("_id").is(bucketId(postId, bucketSeq))
+                .and("comments.commentId").ne(entry.getCommentId()));
+        Update update = pushUpdate(postId, bucketSeq, entry);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                mongoTemplate.upsert(bucket, update, CommentBucket.class);
+                return true;
+            } catch (DuplicateKeyException e) {
+                // The bucket exists but did not match: either it was created meanwhile, which the
+                // retry pushes into, or it already holds the comment, which the retry runs into again
+            }
+        }
+        return false;
+    }
+
+    public Optional<Comment> find(String commentId) {
+        Query query = byCommentId(commentId);
+        query.fields().include("postId").elemMatch("comments", Criteria.where("commentId").is(commentId));
+        CommentBucket bucket = mongoTemplate.findOne(query, CommentBucket.class);
+        if (bucket == null || bucket.getComments().isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(bucket.getComments().get(0).toComment(bucket.getPostId()));
+    }
+
+    public void edit(String commentId, String content, LocalDateTime updatedAt) {
+        mongoTemplate.updateFirst(byCommentId(commentId),
+                new Update().set("comments.$.content", content).set("comments.$.updatedAt", updatedAt),
+                CommentBucket.class);
+    }
+
+    /** Pulls the comment out of its bucket; false when it was already gone. */
+    public boolean remove(String commentId) {
+        return mongoTemplate.updateFirst(byCommentId(commentId),
+                new Update().pull("comments", new Document("commentId", commentId)).inc("count", -1),
+                CommentBucket.class).getModifiedCount() > 0;
+    }
+
+    public long count(String postId) {
+        Query query = Query.query(Criteria.where("postId").is(postId));
+        query.fields().include("count");
+        return mongoTemplate.find(query, CommentBucket.class).stream()
+                .mapToLong(CommentBucket::getCount)
+                .sum();
+    }
+
+    /**
+     * One page of a post's comments, newest first. The cursor is the sequence number of the
+     * last comment returned; buckets are read newest first until the page is full, skipping
+     * ones emptied by deletes.
+     */
+    public FeedPage<Comment> page(String postId, String cursor, int pageSize) {
+        long before = cursor == null || cursor.isBlank() ? Long.MAX_VALUE : decodeCursor(cursor);
+        int batch = pageSize / BUCKET_SIZE + 2;
+
+        List<CommentEntry> entries = new ArrayList<>();
+        long maxBucket = before == Long.MAX_VALUE ? Long.MAX_VALUE : (before - 1) / BUCKET_SIZE;
+        while (entries.size() <= pageSize && maxBucket >= 0 && before > 0) {
+            Query query = Query.query(Criteria.where("postId").is(postId).and("seq").lte(maxBucket).and("count").gt(0))
+                    .with(Sort.by(Sort.Direction.DESC, "seq"))
+                    .limit(batch);
+            List<CommentBucket> buckets = mongoTemplate.find(query, CommentBucket.class);
+            for (CommentBucket bucket : buckets) {
+                for (CommentEntry entry : bucket.getComments()) {
+                    if (entry.getSeq() < before) {
+                        entries.add(entry);
+                    }
+                }
+            }
+            if (buckets.size() < batch) {
+                break;
+            }
+            maxBucket = buckets.get(buckets.size() - 1).getSeq() - 1;
+        }
+        entries.sort(Comparator.comparingLong(CommentEntry::getSeq).reversed());
+
+        String nextCursor = null;
+        if (entries.size() > pageSize) {
+            entries = entries.subList(0, pageSize);
+            nextCursor = encodeCursor(entries.get(pageSize - 1).getSeq());
+        }
+        List<Comment> comments = new ArrayList<>(entries.size());
+        for (CommentEntry entry : entries) {
+            comments.add(entry.toComment(postId));
+        }
+        return new FeedPage<>(comments, nextCursor);
+    }
+
+    private static Update pushUpdate(String postId, long bucketSeq, CommentEntry entry) {
+        return new Update()
+                .push("comments", entry)
+                .inc("count", 1)
+                .setOnInsert("postId", postId)
+                .setOnInsert("seq", bucketSeq);
+    }
+
+    static String bucketId(String postId, long bucketSeq) {
+        return postId + ":" + bucketSeq;
+    }
+
+    private static Query byCommentId(String commentId) {
+        return Query.query(Criteria.where("comments.commentId").is(commentId));
+    }
+
+    private static String encodeCursor(long seq) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(seq).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
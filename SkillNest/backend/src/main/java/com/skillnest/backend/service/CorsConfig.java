@@ -1,17 +1,12 @@
 package com.skillnest.backend.service;
 
-  import org.springframework.beans.factory.annotation.Value;
   import org.springframework.context.annotation.Configuration;
   import org.springframework.web.servlet.config.annotation.CorsRegistry;
-  import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
   import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
   @Configuration
   public class CorsConfig implements WebMvcConfigurer {
 
-      @Value("${file.upload-dir}")
-      private String uploadDir;
-
       @Override
       public void addCorsMappings(CorsRegistry registry) {
           registry.addMapping("/**")
@@ -22,11 +17,4 @@ package com.skillnest.backend.service;
                   .maxAge(3600);
       }
 
-     @Override
-public void addResourceHandlers(ResourceHandlerRegistry registry) {
-    registry.addResourceHandler("/uploads/**")
-            .addResourceLocations("file:///C:/SkillNestUploads/");
-}
-
-      
   }
\ No newline at end of file
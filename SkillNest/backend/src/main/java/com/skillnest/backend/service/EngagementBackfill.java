@@ -0,0 +1,59 @@
+package com.skillnest.backend.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.client.result.UpdateResult;
+import com.skillnest.backend.model.Post;
+
+/**
+ * One-time engagementScore for posts written before ranking kept it up to date, so older
+ * posts are not ranked as if nobody had ever liked or commented on them. The score is worked
+ * out in the database from the counters, or from the legacy likedBy and commentIds arrays on
+ * posts the other migrations have not reached yet, so the order the runners go in does not
+ * matter. Only posts without the field are touched; afterwards this is a single empty update.
+ */
+@Component
+public class EngagementBackfill implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(EngagementBackfill.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final FeedRankingService feedRankingService;
+
+    public EngagementBackfill(MongoTemplate mongoTemplate, FeedRankingService feedRankingService) {
+        this.mongoTemplate = mongoTemplate;
+        this.feedRankingService = feedRankingService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        AggregationExpression score = ArithmeticOperators.valueOf(
+                        ArithmeticOperators.valueOf(count("likeCount", "likedBy")).multiplyBy(feedRankingService.likeWeight()))
+                .add(ArithmeticOperators.valueOf(count("commentCount", "commentIds")).multiplyBy(feedRankingService.commentWeight()));
+        UpdateResult result = mongoTemplate.updateMulti(Query.query(Criteria.where("engagementScore").exists(false)),
+                AggregationUpdate.update().set("engagementScore").toValue(score), Post.class);
+        if (result.getModifiedCount() > 0) {
+            logger.info("Backfilled engagementScore on {} posts", result.getModifiedCount());
+        }
+    }
+
+    // The counter when it is there, otherwise the length of the legacy array, otherwise 0
+    private static AggregationExpression count(String counter, String legacyArray) {
+        return ConditionalOperators.ifNull(counter)
+                .thenValueOf(ArrayOperators.Size.lengthOfArray(ConditionalOperators.ifNull(legacyArray).then(List.of())));
+    }
+}
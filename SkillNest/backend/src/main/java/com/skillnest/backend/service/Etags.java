@@ -0,0 +1,84 @@
+package com.skillnest.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+
+import com.skillnest.backend.model.FeedPage;
+import com.skillnest.backend.model.User;
+
+/**
+ * Strong entity tags built from document version counters or content hashes, so a
+ * conditional GET can be answered from a lookup without loading or serializing the body.
+ */
+public final class Etags {
+
+    private Etags() {
+    }
+
+    public static String user(String userId, Long version) {
+        return "u-" + userId + "-" + versionOf(version);
+    }
+
+    /**
+     * One page of a post's comments: the page's position, the post's comment version and
+     * the versions of the authors embedded in it, so a rename or new avatar is a new tag too.
+     */
+    public static String comments(String postId, long commentVersion, String cursor, Integer limit,
+            Collection<User> authors) {
+        List<String> parts = new ArrayList<>(authors.size() + 4);
+        parts.add(postId + ":" + commentVersion);
+        parts.add(cursor);
+        parts.add(String.valueOf(limit));
+        authors.stream()
+                .sorted(Comparator.comparing(User::getId))
+                .forEach(author -> parts.add(author.getId() + ":" + versionOf(author.getVersion())));
+        return "c-" + digest(parts);
+    }
+
+    /**
+     * A feed page from the cards actually served: a page answered from the cache is tagged
+     * by what it shows, never by fresher versions it does not reflect yet. The cards are
+     * records, so their string form covers every field including the viewer's likes.
+     */
+    public static String feed(FeedPage<?> page) {
+        List<String> parts = new ArrayList<>(page.getItems().size() + 1);
+        page.getItems().forEach(item -> parts.add(item.toString()));
+        parts.add(page.getNextCursor());
+        return "f-" + digest(parts);
+    }
+
+    /** Content-addressed uploads: the blob hash already identifies the bytes. */
+    public static String blob(String hash) {
+        return "b-" + hash;
+    }
+
+    /** Files outside the upload store, which have nothing better than size and modification time. */
+    public static String file(long size, long lastModifiedMillis) {
+        return "f-" + Long.toHexString(size) + "-" + Long.toHexString(lastModifiedMillis);
+    }
+
+    /** A digest over everything a multi-document response depends on, in a fixed order. */
+    public static String digest(List<String> parts) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                sha256.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                sha256.update((byte) '\n');
+            }
+            // 128 bits is plenty to tell two representations of one URL apart
+            return HexFormat.of().formatHex(sha256.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static long versionOf(Long version) {
+        return version == null ? 0 : version;
+    }
+}
@@ -0,0 +1,79 @@
+package com.skillnest.backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.skillnest.backend.model.Post;
+import com.skillnest.backend.model.User;
+
+/**
+ * Whole-collection exports as newline-delimited JSON. Rows are read from a Mongo cursor
+ * and written one at a time, so memory stays at one cursor batch regardless of
+ * collection size.
+ */
+@Service
+public class ExportService {
+
+    private static final int CURSOR_BATCH_SIZE = 500;
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(MongoTemplate mongoTemplate, ObjectMapper objectMapper) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public StreamingResponseBody exportPosts() {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id"));
+        return export(query, Post.class);
+    }
+
+    public StreamingResponseBody exportUsers() {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id"));
+        query.fields().exclude("password");
+        return export(query, User.class);
+    }
+
+    private <T> StreamingResponseBody export(Query query, Class<T> type) {
+        query.cursorBatchSize(CURSOR_BATCH_SIZE);
+        ObjectWriter writer = objectMapper.writerFor(type);
+        return out -> {
+            try (Stream<T> rows = mongoTemplate.stream(query, type)) {
+                writeNdjson(rows, writer, out);
+            }
+        };
+    }
+
+    /** Writes each row as one JSON line; returns the number of rows written. */
+    static <T> long writeNdjson(Stream<T> rows, ObjectWriter writer, OutputStream out) throws IOException {
+        // The per-value flush would turn every row into its own socket write
+        ObjectWriter rowWriter = writer.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+        try (JsonGenerator generator = rowWriter.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Rows are terminated by our own newline, not Jackson's default space separator
+            generator.setRootValueSeparator(null);
+            for (T row : (Iterable<T>) rows::iterator) {
+                rowWriter.writeValue(generator, row);
+                generator.writeRaw('\n');
+                if (++count % FLUSH_EVERY_ROWS == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,192 @@
+package com.skillnest.backend.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.skillnest.backend.dto.FeedPostView;
+import com.skillnest.backend.model.FeedPage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded LRU of rendered first feed pages, for the global feed and per-user timelines.
+ * Entries are indexed by the posts they show, the authors embedded in them and the timeline
+ * they belong to, so a write drops exactly the pages it affects. The TTL is only a backstop
+ * for writes that bypass the services.
+ */
+@Component
+public class FeedPageCache {
+
+    /** Owner key of the global feed; per-user timelines use the user id. */
+    public static final String GLOBAL = "";
+
+    private record Key(String owner, int pageSize) {
+    }
+
+    private record Entry(FeedPage<FeedPostView> page, long expiresAt) {
+    }
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    // Access order, so iteration starts at the least recently used entry
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Set<Key>> keysByPost = new HashMap<>();
+    private final Map<String, Set<Key>> keysByAuthor = new HashMap<>();
+    private final Map<String, Set<Key>> keysByOwner = new HashMap<>();
+    private long generation;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter invalidations;
+
+    @Autowired
+    public FeedPageCache(
+            MeterRegistry meterRegistry,
+            @Value("${feed.cache.max-entries:10000}") int maxEntries,
+            @Value("${feed.cache.ttl-seconds:60}") long ttlSeconds) {
+        this(meterRegistry, maxEntries, ttlSeconds * 1000, System::currentTimeMillis);
+    }
+
+    FeedPageCache(MeterRegistry meterRegistry, int maxEntries, long ttlMillis, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.hits = meterRegistry.counter("feed.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("feed.cache.requests", "result", "miss");
+        this.sizeEvictions = meterRegistry.counter("feed.cache.evictions", "cause", "size");
+        this.expiredEvictions = meterRegistry.counter("feed.cache.evictions", "cause", "expired");
+        this.invalidations = meterRegistry.counter("feed.cache.invalidations");
+        meterRegistry.gauge("feed.cache.size", this, FeedPageCache::size);
+    }
+
+    /**
+     * Current invalidation generation. Read it before loading a page from Mongo and hand it
+     * back to {@link #put}; a page loaded before any later invalidation is not cached.
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public synchronized FeedPage<FeedPostView> get(String owner, int pageSize) {
+        Key key = new Key(owner, pageSize);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() <= clock.getAsLong()) {
+            remove(key);
+            expiredEvictions.increment();
+            entry = null;
+        }
+        (entry == null ? misses : hits).increment();
+        return entry == null ? null : entry.page();
+    }
+
+    public synchronized void put(String owner, int pageSize, FeedPage<FeedPostView> page, long loadedAtGeneration) {
+        if (loadedAtGeneration != generation) {
+            return; // something was written while this page was being read
+        }
+        Key key = new Key(owner, pageSize);
+        remove(key);
+        entries.put(key, new Entry(page, clock.getAsLong() + ttlMillis));
+        keysByOwner.computeIfAbsent(owner, k -> new HashSet<>()).add(key);
+        for (FeedPostView post : page.getItems()) {
+            keysByPost.computeIfAbsent(post.id(), k -> new HashSet<>()).add(key);
+            if (post.userId() != null) {
+                keysByAuthor.computeIfAbsent(post.userId(), k -> new HashSet<>()).add(key);
+            }
+        }
+
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries) {
+            Map.Entry<Key, Entry> evicted = eldest.next();
+            eldest.remove();
+            unindex(evicted.getKey(), evicted.getValue());
+            sizeEvictions.increment();
+        }
+    }
+
+    /** Drops every cached page that shows the post: likes, comments, edits and deletes. */
+    public synchronized void invalidatePost(String postId) {
+        generation++;
+        invalidations.increment();
+        Set<Key> keys = keysByPost.remove(postId);
+        if (keys != null) {
+            keys.forEach(this::remove);
+        }
+    }
+
+    /** Drops every cached page that embeds the user as an author: renames and new avatars. */
+    public synchronized void invalidateAuthor(String userId) {
+        generation++;
+        invalidations.increment();
+        Set<Key> keys = keysByAuthor.remove(userId);
+        if (keys != null) {
+            keys.forEach(this::remove);
+        }
+    }
+
+    /** Drops the first pages of the given timelines; pass {@link #GLOBAL} for the global feed. */
+    public synchronized void invalidateOwners(Collection<String> owners) {
+        generation++;
+        invalidations.increment();
+        for (String owner : owners) {
+            Set<Key> keys = keysByOwner.remove(owner);
+            if (keys != null) {
+                keys.forEach(this::remove);
+            }
+        }
+    }
+
+    /** Drops the first page of every user timeline, leaving the global feed; for posts whose audience is too large to list. */
+    public synchronized void invalidateTimelines() {
+        generation++;
+        invalidations.increment();
+        for (String owner : new ArrayList<>(keysByOwner.keySet())) {
+            if (!GLOBAL.equals(owner)) {
+                keysByOwner.remove(owner).forEach(this::remove);
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void remove(Key key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            unindex(key, entry);
+        }
+    }
+
+    private void unindex(Key key, Entry entry) {
+        removeIndex(keysByOwner, key.owner(), key);
+        for (FeedPostView post : entry.page().getItems()) {
+            removeIndex(keysByPost, post.id(), key);
+            if (post.userId() != null) {
+                removeIndex(keysByAuthor, post.userId(), key);
+            }
+        }
+    }
+
+    private static void removeIndex(Map<String, Set<Key>> index, String indexKey, Key key) {
+        Set<Key> keys = index.get(indexKey);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            index.remove(indexKey);
+        }
+    }
+}
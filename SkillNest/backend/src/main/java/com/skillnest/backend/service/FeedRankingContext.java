@@ -0,0 +1,37 @@
+package com.skillnest.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+// Everything about the viewer a signal may need, loaded once per ranking request
+public class FeedRankingContext {
+
+    private final String viewerId;
+    private final LocalDateTime now;
+    private final Set<String> following;
+    private final Map<String, Double> affinityByAuthor;
+
+    public FeedRankingContext(String viewerId, LocalDateTime now, Set<String> following, Map<String, Double> affinityByAuthor) {
+        this.viewerId = viewerId;
+        this.now = now;
+        this.following = following;
+        this.affinityByAuthor = affinityByAuthor;
+    }
+
+    public String getViewerId() {
+        return viewerId;
+    }
+
+    public LocalDateTime getNow() {
+        return now;
+    }
+
+    public Set<String> getFollowing() {
+        return following;
+    }
+
+    public Map<String, Double> getAffinityByAuthor() {
+        return affinityByAuthor;
+    }
+}
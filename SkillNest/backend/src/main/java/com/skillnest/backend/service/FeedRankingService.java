@@ -0,0 +1,124 @@
+package com.skillnest.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.skillnest.backend.model.Affinity;
+import com.skillnest.backend.model.Post;
+import com.skillnest.backend.model.User;
+import com.skillnest.backend.repository.AffinityRepository;
+import com.skillnest.backend.repository.UserRepository;
+
+/**
+ * Orders candidate posts by the sum of all {@link FeedScoringSignal} beans. The expensive
+ * inputs (a post's engagement, a viewer's affinity to an author) are kept up to date
+ * incrementally from like and comment events, so ranking a page is pure arithmetic.
+ */
+@Service
+public class FeedRankingService {
+
+    public static final int CANDIDATE_POOL_SIZE = 200;
+
+    private final List<FeedScoringSignal> signals;
+    private final MongoTemplate mongoTemplate;
+    private final AffinityRepository affinityRepository;
+    private final UserRepository userRepository;
+    private final double likeWeight;
+    private final double commentWeight;
+
+    public FeedRankingService(
+            List<FeedScoringSignal> signals,
+            MongoTemplate mongoTemplate,
+            AffinityRepository affinityRepository,
+            UserRepository userRepository,
+            @Value("${feed.ranking.engagement.like-weight:1.0}") double likeWeight,
+            @Value("${feed.ranking.engagement.comment-weight:2.0}") double commentWeight) {
+        this.signals = signals;
+        this.mongoTemplate = mongoTemplate;
+        this.affinityRepository = affinityRepository;
+        this.userRepository = userRepository;
+        this.likeWeight = likeWeight;
+        this.commentWeight = commentWeight;
+    }
+
+    public List<Post> rank(String viewerId, List<Post> candidates) {
+        Map<String, Double> affinity = new HashMap<>();
+        for (Affinity a : affinityRepository.findByUserId(viewerId)) {
+            affinity.put(a.getAuthorId(), a.getScore());
+        }
+        FeedRankingContext context = new FeedRankingContext(
+                viewerId,
+                LocalDateTime.now(),
+                userRepository.findById(viewerId).map(User::getFollowing).orElse(Collections.emptySet()),
+                affinity);
+        return rank(candidates, context, signals);
+    }
+
+    static List<Post> rank(List<Post> candidates, FeedRankingContext context, List<FeedScoringSignal> signals) {
+        Map<Post, Double> scores = new HashMap<>(candidates.size() * 2);
+        for (Post post : candidates) {
+            double score = 0;
+            for (FeedScoringSignal signal : signals) {
+                score += signal.score(post, context);
+            }
+            scores.put(post, score);
+        }
+        List<Post> ranked = new ArrayList<>(candidates);
+        ranked.sort(Comparator.<Post>comparingDouble(scores::get).reversed()
+                .thenComparing(Post::getCreatedAt, Comparator.reverseOrder()));
+        return ranked;
+    }
+
+    double likeWeight() {
+        return likeWeight;
+    }
+
+    double commentWeight() {
+        return commentWeight;
+    }
+
+    public void onLike(Post post, String userId) {
+        bumpEngagement(post.getId(), likeWeight);
+        bumpAffinity(userId, post.getUserId(), likeWeight);
+    }
+
+    public void onUnlike(Post post, String userId) {
+        bumpEngagement(post.getId(), -likeWeight);
+        bumpAffinity(userId, post.getUserId(), -likeWeight);
+    }
+
+    public void onComment(Post post, String userId) {
+        bumpEngagement(post.getId(), commentWeight);
+        bumpAffinity(userId, post.getUserId(), commentWeight);
+    }
+
+    public void onCommentDeleted(Post post, String userId) {
+        bumpEngagement(post.getId(), -commentWeight);
+        bumpAffinity(userId, post.getUserId(), -commentWeight);
+    }
+
+    private void bumpEngagement(String postId, double delta) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(postId)),
+                new Update().inc("engagementScore", delta), Post.class);
+    }
+
+    private void bumpAffinity(String userId, String authorId, double delta) {
+        if (userId.equals(authorId)) {
+            return;
+        }
+        mongoTemplate.upsert(Query.query(Criteria.where("userId").is(userId).and("authorId").is(authorId)),
+                new Update().inc("score", delta), Affinity.class);
+    }
+}
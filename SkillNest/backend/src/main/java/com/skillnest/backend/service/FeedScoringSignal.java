@@ -0,0 +1,14 @@
+package com.skillnest.backend.service;
+
+import com.skillnest.backend.model.Post;
+
+/**
+ * One term of a post's feed score. Every bean of this type is picked up by
+ * {@link FeedRankingService} and the terms are summed, so adding a signal is just
+ * declaring another bean.
+ */
+@FunctionalInterface
+public interface FeedScoringSignal {
+
+    double score(Post post, FeedRankingContext context);
+}
@@ -0,0 +1,38 @@
+package com.skillnest.backend.service;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Default feed scoring signals. Weights are tunable from application.properties.
+@Configuration
+public class FeedSignalConfig {
+
+    @Bean
+    public FeedScoringSignal recencySignal(
+            @Value("${feed.ranking.recency.weight:1.0}") double weight,
+            @Value("${feed.ranking.recency.half-life-hours:12}") double halfLifeHours) {
+        return (post, context) -> {
+            double ageHours = Math.max(0, Duration.between(post.getCreatedAt(), context.getNow()).toMinutes() / 60.0);
+            return weight * Math.pow(0.5, ageHours / halfLifeHours);
+        };
+    }
+
+    @Bean
+    public FeedScoringSignal engagementSignal(@Value("${feed.ranking.engagement.weight:0.5}") double weight) {
+        return (post, context) -> weight * Math.log1p(Math.max(0, post.getEngagementScore()));
+    }
+
+    @Bean
+    public FeedScoringSignal affinitySignal(
+            @Value("${feed.ranking.affinity.follow-weight:0.5}") double followWeight,
+            @Value("${feed.ranking.affinity.interaction-weight:0.3}") double interactionWeight) {
+        return (post, context) -> {
+            double score = context.getFollowing().contains(post.getUserId()) ? followWeight : 0;
+            double interactions = context.getAffinityByAuthor().getOrDefault(post.getUserId(), 0.0);
+            return score + interactionWeight * Math.log1p(Math.max(0, interactions));
+        };
+    }
+}
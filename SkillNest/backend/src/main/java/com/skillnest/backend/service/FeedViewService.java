@@ -0,0 +1,101 @@
+package com.skillnest.backend.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import com.skillnest.backend.dto.FeedPostView;
+import com.skillnest.backend.model.FeedPage;
+import com.skillnest.backend.model.Post;
+import com.skillnest.backend.model.User;
+
+/**
+ * Renders feed pages into cards. First pages are served from {@link FeedPageCache}; the
+ * viewer's own likes are overlaid on every request so cached cards stay viewer-independent.
+ */
+@Service
+public class FeedViewService {
+
+    private final PostService postService;
+    private final AuthorHydrationService authorHydrationService;
+    private final LikeCommentService likeCommentService;
+    private final FeedPageCache feedPageCache;
+    private final TrendingService trendingService;
+
+    public FeedViewService(
+            PostService postService,
+            AuthorHydrationService authorHydrationService,
+            LikeCommentService likeCommentService,
+            FeedPageCache feedPageCache,
+            TrendingService trendingService) {
+        this.postService = postService;
+        this.authorHydrationService = authorHydrationService;
+        this.likeCommentService = likeCommentService;
+        this.feedPageCache = feedPageCache;
+        this.trendingService = trendingService;
+    }
+
+    public FeedPage<FeedPostView> getFeed(String viewerId, String cursor, Integer limit) {
+        if (cursor != null && !cursor.isBlank()) {
+            return withLikes(render(postService.getFeedPage(cursor, limit)), viewerId);
+        }
+        int pageSize = PostService.resolvePageSize(limit);
+        return withLikes(firstPage(FeedPageCache.GLOBAL, pageSize,
+                () -> postService.getFeedPage(null, pageSize)), viewerId);
+    }
+
+    public FeedPage<FeedPostView> getTimeline(String userId, String cursor, Integer limit) {
+        if (cursor != null && !cursor.isBlank()) {
+            return withLikes(render(postService.getTimelinePage(userId, cursor, limit)), userId);
+        }
+        int pageSize = PostService.resolvePageSize(limit);
+        return withLikes(firstPage(userId, pageSize,
+                () -> postService.getTimelinePage(userId, null, pageSize)), userId);
+    }
+
+    public List<FeedPostView> getRankedFeed(String userId, Integer limit) {
+        FeedPage<Post> ranked = new FeedPage<>(postService.getRankedFeed(userId, limit), null);
+        return withLikes(render(ranked), userId).getItems();
+    }
+
+    public List<FeedPostView> getTrending(String viewerId, String window, Integer limit) {
+        List<String> ids = trendingService.getTrendingPostIds(window, PostService.resolvePageSize(limit));
+        FeedPage<Post> trending = new FeedPage<>(postService.getFeedPostsInOrder(ids), null);
+        return withLikes(render(trending), viewerId).getItems();
+    }
+
+    private FeedPage<FeedPostView> firstPage(String owner, int pageSize, Supplier<FeedPage<Post>> loader) {
+        FeedPage<FeedPostView> cached = feedPageCache.get(owner, pageSize);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = feedPageCache.generation();
+        FeedPage<FeedPostView> page = render(loader.get());
+        feedPageCache.put(owner, pageSize, page, generation);
+        return page;
+    }
+
+    private FeedPage<FeedPostView> render(FeedPage<Post> page) {
+        Map<String, User> authors = authorHydrationService.loadAuthors(page.getItems(), Post::getUserId);
+        List<FeedPostView> views = page.getItems().stream()
+                .map(post -> FeedPostView.of(post, authors.get(post.getUserId()), false))
+                .collect(Collectors.toList());
+        return new FeedPage<>(views, page.getNextCursor());
+    }
+
+    private FeedPage<FeedPostView> withLikes(FeedPage<FeedPostView> page, String viewerId) {
+        Set<String> liked = likeCommentService.findLikedPostIds(viewerId,
+                page.getItems().stream().map(FeedPostView::id).collect(Collectors.toList()));
+        if (liked.isEmpty()) {
+            return page;
+        }
+        List<FeedPostView> views = page.getItems().stream()
+                .map(view -> view.withLikedByMe(liked.contains(view.id())))
+                .collect(Collectors.toList());
+        return new FeedPage<>(views, page.getNextCursor());
+    }
+}
@@ -1,50 +1,32 @@
 package com.skillnest.backend.service;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 @Service
 public class FileStorageService {
 
-    @Value("${file.upload-dir}")
-    private String uploadDir;
+    private final UploadStore uploadStore;
 
-    private Path getUploadPath() {
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            try {
-                Files.createDirectories(uploadPath);
-            } catch (IOException e) {
-                throw new RuntimeException("Could not create upload directory", e);
-            }
-        }
-        return uploadPath;
+    public FileStorageService(UploadStore uploadStore) {
+        this.uploadStore = uploadStore;
     }
 
     public List<String> storeFiles(List<MultipartFile> files) {
         List<String> fileUrls = new ArrayList<>();
         
         for (MultipartFile file : files) {
-            String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
             try {
-                Path targetLocation = getUploadPath().resolve(fileName);
-                Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-                fileUrls.add("/uploads/" + fileName);
+                fileUrls.add(uploadStore.store(file));
             } catch (IOException e) {
-                throw new RuntimeException("Could not store file " + fileName, e);
+                throw new RuntimeException("Could not store file " + file.getOriginalFilename(), e);
             }
         }
         
         return fileUrls;
     }
-}
\ No newline at end of file
+}
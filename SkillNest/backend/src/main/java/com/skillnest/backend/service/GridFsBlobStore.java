@@ -0,0 +1,70 @@
+package com.skillnest.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+
+/**
+ * Blobs in the database's GridFS bucket, with the hash as the file name. Every app node sees
+ * the same files without shared disk; the cost is that downloads go through the database.
+ */
+@Service
+@ConditionalOnProperty(name = "upload.store.backend", havingValue = "gridfs")
+public class GridFsBlobStore implements BlobStore {
+
+    private final GridFsTemplate gridFsTemplate;
+
+    public GridFsBlobStore(GridFsTemplate gridFsTemplate) {
+        this.gridFsTemplate = gridFsTemplate;
+    }
+
+    // Two nodes racing on one key may both write; reads take either copy and delete removes both
+    @Override
+    public void put(String key, Path source) throws IOException {
+        if (exists(key)) {
+            return;
+        }
+        try (InputStream in = Files.newInputStream(source)) {
+            gridFsTemplate.store(in, key);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return gridFsTemplate.findOne(byName(key)) != null;
+    }
+
+    @Override
+    public Resource get(String key, long size) {
+        return new BlobResource("GridFS blob " + key, size, offset -> {
+            GridFSFile file = gridFsTemplate.findOne(byName(key));
+            if (file == null) {
+                throw new NoSuchFileException(key);
+            }
+            InputStream in = gridFsTemplate.getResource(file).getInputStream();
+            // The download stream skips by chunk index, so chunks before the offset are never fetched
+            in.skipNBytes(offset);
+            return in;
+        });
+    }
+
+    @Override
+    public void delete(String key) {
+        gridFsTemplate.delete(byName(key));
+    }
+
+    private static Query byName(String key) {
+        return Query.query(Criteria.where("filename").is(key));
+    }
+}
@@ -0,0 +1,365 @@
+package com.skillnest.backend.service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Resized and cropped JPEGs of stored images at whatever size a client asks for, rendered on
+ * first request and kept in a disk cache capped at a byte budget with least-recently-used
+ * eviction. Concurrent requests for the same variant share one render. Variants are keyed by
+ * the source's ETag, so overwriting an upload simply stops hitting its old entries, which
+ * then age out.
+ *
+ * A variant handed out is pinned until it is closed, and eviction passes over pinned
+ * entries, so the file a response is still streaming is never deleted under it.
+ *
+ * Requested sizes are snapped up to a short list, so the number of variants per image is
+ * bounded; renders run a few at a time, and sources over the pixel budget are refused from
+ * their header before anything is decoded.
+ */
+@Service
+public class ImageVariantCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantCache.class);
+
+    public static final String FIT_COVER = "cover";
+    public static final String FIT_CONTAIN = "contain";
+    public static final int MAX_DIMENSION = 2048;
+
+    /** A request for a variant; a height of 0 keeps the source's aspect ratio. */
+    public record Spec(int width, int height, String fit) {
+
+        public Spec {
+            if (width < 1 || width > MAX_DIMENSION || height < 0 || height > MAX_DIMENSION) {
+                throw new IllegalArgumentException("Width must be 1-" + MAX_DIMENSION + " and height 0-" + MAX_DIMENSION);
+            }
+            fit = fit == null ? FIT_CONTAIN : fit;
+            if (!FIT_COVER.equals(fit) && !FIT_CONTAIN.equals(fit)) {
+                throw new IllegalArgumentException("Fit must be 'cover' or 'contain'");
+            }
+        }
+
+        String key() {
+            return "w" + width + "-h" + height + "-" + fit;
+        }
+    }
+
+    /** A cached variant file, pinned against eviction until closed. */
+    public final class Variant implements AutoCloseable {
+
+        private final String fileName;
+        private final long size;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Variant(String fileName, long size) {
+            this.fileName = fileName;
+            this.size = size;
+        }
+
+        public Path path() {
+            return cacheDir.resolve(fileName);
+        }
+
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                unpin(fileName);
+            }
+        }
+    }
+
+    private final Path cacheDir;
+    private final long maxBytes;
+    // Access-ordered, so iteration starts at the least recently used entry; guarded by this
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    // Variants being served, by file name, with how many readers hold each; guarded by this
+    private final Map<String, Integer> pins = new HashMap<>();
+    private final Map<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong renders = new AtomicLong();
+    private final int[] sizes;
+    private final Semaphore renderPermits;
+    private final long renderWaitMillis;
+    private final long maxPixels;
+
+    public ImageVariantCache(
+            @Value("${media.on-demand.cache-dir:${file.upload-dir}/variant-cache}") String cacheDir,
+            @Value("${media.on-demand.cache-max-mb:512}") long maxMegabytes,
+            @Value("${media.on-demand.sizes:48,96,160,320,480,640,960,1280,1600,2048}") int[] sizes,
+            @Value("${media.on-demand.max-concurrent-renders:2}") int maxConcurrentRenders,
+            @Value("${media.on-demand.render-wait-millis:5000}") long renderWaitMillis,
+            @Value("${media.max-pixels:24000000}") long maxPixels) throws IOException {
+        this.cacheDir = Paths.get(cacheDir).toAbsolutePath().normalize();
+        this.maxBytes = maxMegabytes * 1024 * 1024;
+        this.sizes = sizes.clone();
+        Arrays.sort(this.sizes);
+        if (this.sizes.length == 0 || this.sizes[0] < 1 || this.sizes[this.sizes.length - 1] > MAX_DIMENSION) {
+            throw new IllegalArgumentException("media.on-demand.sizes must lie within 1-" + MAX_DIMENSION);
+        }
+        this.renderPermits = new Semaphore(maxConcurrentRenders);
+        this.renderWaitMillis = renderWaitMillis;
+        this.maxPixels = maxPixels;
+        Files.createDirectories(this.cacheDir);
+        load();
+    }
+
+    /** The spec actually rendered for a request: width and height rounded up to the next allowed size. */
+    public Spec snap(Spec spec) {
+        return new Spec(snap(spec.width()), spec.height() == 0 ? 0 : snap(spec.height()), spec.fit());
+    }
+
+    /** The cached variant of a stored image, rendering it first if needed. The caller closes it once served. */
+    public Variant get(UploadStore.StoredFile source, Spec spec) throws IOException {
+        String fileName = fileName(source.etag(), spec);
+        while (true) {
+            Variant cached = hit(fileName);
+            if (cached != null) {
+                return cached;
+            }
+            // Single flight: the first caller renders, everyone arriving meanwhile waits on its future
+            // and then pins the result itself, rendering again in the rare case it was already evicted
+            CompletableFuture<Void> mine = new CompletableFuture<>();
+            CompletableFuture<Void> running = inFlight.putIfAbsent(fileName, mine);
+            if (running != null) {
+                await(running);
+                continue;
+            }
+            try {
+                // A render that finished between the miss above and taking the slot
+                Variant rendered = hit(fileName);
+                if (rendered == null) {
+                    rendered = render(source, spec, fileName);
+                }
+                mine.complete(null);
+                return rendered;
+            } catch (IOException | RuntimeException e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(fileName);
+            }
+        }
+    }
+
+    long renderCount() {
+        return renders.get();
+    }
+
+    long sizeInBytes() {
+        synchronized (this) {
+            return totalBytes;
+        }
+    }
+
+    // Pinned under the same lock eviction takes, so a hit cannot be deleted before it is served
+    private Variant hit(String fileName) {
+        Long size;
+        synchronized (this) {
+            size = entries.get(fileName);
+            if (size == null) {
+                return null;
+            }
+            pins.merge(fileName, 1, Integer::sum);
+        }
+        Variant variant = new Variant(fileName, size);
+        if (Files.exists(variant.path())) {
+            return variant;
+        }
+        variant.close();
+        forget(fileName); // removed behind our back
+        return null;
+    }
+
+    // Decoding holds the whole source in memory, so only a few run at once; the rest wait briefly, then are turned away
+    private Variant render(UploadStore.StoredFile source, Spec spec, String fileName) throws IOException {
+        try {
+            if (!renderPermits.tryAcquire(renderWaitMillis, TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("Too many variants rendering");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting to render", e);
+        }
+        try {
+            BufferedImage image;
+            try (InputStream in = source.resource().getInputStream()) {
+                image = MediaVariantRenderer.readImage(in, maxPixels);
+            }
+            if (image == null) {
+                throw new IllegalArgumentException("Not a supported image");
+            }
+            renders.incrementAndGet();
+            Path temp = Files.createTempFile(cacheDir, "render-", ".part");
+            try {
+                MediaVariantRenderer.writeJpeg(resize(image, spec), temp);
+                Path target = cacheDir.resolve(fileName);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                long size = Files.size(target);
+                synchronized (this) {
+                    pins.merge(fileName, 1, Integer::sum);
+                }
+                add(fileName, size);
+                return new Variant(fileName, size);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } finally {
+            renderPermits.release();
+        }
+    }
+
+    private int snap(int requested) {
+        for (int size : sizes) {
+            if (size >= requested) {
+                return size;
+            }
+        }
+        return sizes[sizes.length - 1];
+    }
+
+    // Never upscales: a request larger than the source gets the source's size
+    static BufferedImage resize(BufferedImage image, Spec spec) {
+        int sourceWidth = image.getWidth();
+        int sourceHeight = image.getHeight();
+        if (FIT_COVER.equals(spec.fit()) && spec.height() > 0) {
+            // Crop the centre to the requested aspect ratio, then scale that down
+            double aspect = (double) spec.width() / spec.height();
+            int cropWidth = Math.min(sourceWidth, (int) Math.round(sourceHeight * aspect));
+            int cropHeight = Math.min(sourceHeight, (int) Math.round(sourceWidth / aspect));
+            BufferedImage cropped = image.getSubimage((sourceWidth - cropWidth) / 2, (sourceHeight - cropHeight) / 2,
+                    Math.max(1, cropWidth), Math.max(1, cropHeight));
+            int width = Math.min(spec.width(), cropped.getWidth());
+            int height = Math.max(1, (int) Math.round(width / aspect));
+            return MediaVariantRenderer.scale(cropped, width, Math.min(height, cropped.getHeight()));
+        }
+        double ratio = (double) spec.width() / sourceWidth;
+        if (spec.height() > 0) {
+            ratio = Math.min(ratio, (double) spec.height() / sourceHeight);
+        }
+        ratio = Math.min(1.0, ratio);
+        return MediaVariantRenderer.scale(image,
+                Math.max(1, (int) Math.round(sourceWidth * ratio)),
+                Math.max(1, (int) Math.round(sourceHeight * ratio)));
+    }
+
+    private void add(String fileName, long size) {
+        List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            Long previous = entries.put(fileName, size);
+            totalBytes += size - (previous == null ? 0 : previous);
+            Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                if (entry.getKey().equals(fileName) || pins.containsKey(entry.getKey())) {
+                    continue; // being served; it goes on a later add once released
+                }
+                totalBytes -= entry.getValue();
+                evicted.add(entry.getKey());
+                eldest.remove();
+            }
+        }
+        // Unlinked outside the lock; nothing evicted was pinned, so no response is reading these
+        for (String name : evicted) {
+            try {
+                Files.deleteIfExists(cacheDir.resolve(name));
+            } catch (IOException e) {
+                logger.warn("Could not evict cached variant {}", name, e);
+            }
+        }
+    }
+
+    private void unpin(String fileName) {
+        synchronized (this) {
+            pins.computeIfPresent(fileName, (name, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    private void forget(String fileName) {
+        synchronized (this) {
+            Long size = entries.remove(fileName);
+            if (size != null) {
+                totalBytes -= size;
+            }
+        }
+    }
+
+    // Rebuilds the index after a restart, least recently modified first, and trims to the budget
+    private void load() throws IOException {
+        record Cached(String name, long size, long modified) {
+        }
+        List<Cached> cached;
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            cached = files.filter(Files::isRegularFile)
+                    .map(file -> {
+                        try {
+                            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                            return new Cached(file.getFileName().toString(), attributes.size(),
+                                    attributes.lastModifiedTime().toMillis());
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .sorted(Comparator.comparingLong(Cached::modified))
+                    .toList();
+        }
+        for (Cached file : cached) {
+            if (file.name().endsWith(".part")) {
+                Files.deleteIfExists(cacheDir.resolve(file.name())); // a render interrupted by the last shutdown
+            } else {
+                add(file.name(), file.size());
+            }
+        }
+    }
+
+    private static void await(CompletableFuture<Void> running) throws IOException {
+        try {
+            running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    // The source ETag is a hash or size-and-mtime, so it is safe in a file name
+    private static String fileName(String sourceEtag, Spec spec) {
+        return sourceEtag + "-" + spec.key() + ".jpg";
+    }
+}
@@ -0,0 +1,201 @@
+package com.skillnest.backend.service;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.Aggregation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+
+/**
+ * Calls every query method declared on our repositories once at startup with sample
+ * arguments, captures the command the driver sends and runs it through explain. Any
+ * winning plan containing a COLLSCAN is reported, or fails startup in "fail" mode.
+ * Aggregations are skipped since the distinct-value pipelines group the whole
+ * collection by design.
+ */
+@Component
+public class IndexVerifier implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexVerifier.class);
+
+    // Parses as an ObjectId so _id parameters convert the same way real ids do
+    private static final String SAMPLE_ID = "000000000000000000000000";
+    private static final Set<String> WRITE_PREFIXES = Set.of("delete", "remove", "save", "insert", "update");
+
+    private final ApplicationContext applicationContext;
+    private final MongoTemplate mongoTemplate;
+    private final QueryCaptureListener captureListener;
+    private final String mode;
+    private final Set<String> ignored;
+
+    public IndexVerifier(
+            ApplicationContext applicationContext,
+            MongoTemplate mongoTemplate,
+            QueryCaptureListener captureListener,
+            @Value("${index.verifier.mode:warn}") String mode,
+            @Value("${index.verifier.ignore:}") Set<String> ignored) {
+        this.applicationContext = applicationContext;
+        this.mongoTemplate = mongoTemplate;
+        this.captureListener = captureListener;
+        this.mode = mode;
+        this.ignored = ignored;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if ("off".equalsIgnoreCase(mode)) {
+            return;
+        }
+        Repositories repositories = new Repositories(applicationContext);
+        List<String> collScans = new ArrayList<>();
+        int checked = 0;
+        for (Class<?> domainType : repositories) {
+            Class<?> repositoryInterface = repositories.getRequiredRepositoryInformation(domainType).getRepositoryInterface();
+            Object repository = repositories.getRepositoryFor(domainType).orElse(null);
+            if (repository == null || !repositoryInterface.getPackageName().startsWith("com.skillnest")) {
+                continue;
+            }
+            Method[] methods = repositoryInterface.getDeclaredMethods();
+            Arrays.sort(methods, Comparator.comparing(Method::getName));
+            for (Method method : methods) {
+                String name = repositoryInterface.getSimpleName() + "." + method.getName();
+                if (!isQueryMethod(method) || ignored.contains(name)) {
+                    continue;
+                }
+                checked++;
+                for (BsonDocument command : captureListener.capture(() -> invoke(repository, method, name))) {
+                    if (hasCollScan(explain(command))) {
+                        collScans.add(name);
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (collScans.isEmpty()) {
+            logger.info("Index check passed for {} repository query methods", checked);
+            return;
+        }
+        String message = "Repository queries without a usable index (COLLSCAN): " + String.join(", ", collScans);
+        if ("fail".equalsIgnoreCase(mode)) {
+            throw new IllegalStateException(message);
+        }
+        logger.warn(message);
+    }
+
+    private static boolean isQueryMethod(Method method) {
+        if (method.isDefault() || method.isBridge() || Modifier.isStatic(method.getModifiers())
+                || method.isAnnotationPresent(Aggregation.class)) {
+            return false;
+        }
+        return WRITE_PREFIXES.stream().noneMatch(method.getName()::startsWith);
+    }
+
+    private Object invoke(Object repository, Method method, String name) {
+        Object[] arguments = Arrays.stream(method.getParameterTypes()).map(IndexVerifier::sampleOf).toArray();
+        try {
+            Object result = method.invoke(repository, arguments);
+            if (result instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+            return result;
+        } catch (InvocationTargetException e) {
+            logger.debug("Sample call of {} failed: {}", name, e.getTargetException().getMessage());
+        } catch (Exception e) {
+            logger.debug("Sample call of {} failed: {}", name, e.getMessage());
+        }
+        return null;
+    }
+
+    private static Object sampleOf(Class<?> type) {
+        if (type == String.class) {
+            return SAMPLE_ID;
+        }
+        if (Collection.class.isAssignableFrom(type) || type == Iterable.class) {
+            return type.isAssignableFrom(Set.class) && !type.isAssignableFrom(List.class)
+                    ? Set.of(SAMPLE_ID)
+                    : List.of(SAMPLE_ID);
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (type == Date.class) {
+            return new Date();
+        }
+        if (type == Instant.class) {
+            return Instant.now();
+        }
+        if (type == Pageable.class) {
+            return PageRequest.of(0, 1);
+        }
+        if (type == Sort.class) {
+            return Sort.unsorted();
+        }
+        if (type == int.class || type == Integer.class) {
+            return 1;
+        }
+        if (type == long.class || type == Long.class) {
+            return 1L;
+        }
+        if (type == double.class || type == Double.class) {
+            return 1.0;
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return false;
+        }
+        return null;
+    }
+
+    private Document explain(BsonDocument command) {
+        // Drop the session and routing fields the driver adds; explain wraps the bare command
+        Document bare = new Document();
+        for (Map.Entry<String, BsonValue> field : command.entrySet()) {
+            String key = field.getKey();
+            if (!key.startsWith("$") && !key.equals("lsid") && !key.equals("txnNumber")) {
+                bare.put(key, field.getValue());
+            }
+        }
+        return mongoTemplate.executeCommand(new Document("explain", bare).append("verbosity", "queryPlanner"));
+    }
+
+    static boolean hasCollScan(Object node) {
+        if (node instanceof Map<?, ?> map) {
+            if ("COLLSCAN".equals(map.get("stage"))) {
+                return true;
+            }
+            // Only the winning plan matters; rejected candidates often include a COLLSCAN
+            return map.entrySet().stream()
+                    .filter(field -> !"rejectedPlans".equals(field.getKey()))
+                    .anyMatch(field -> hasCollScan(field.getValue()));
+        }
+        if (node instanceof Collection<?> list) {
+            return list.stream().anyMatch(IndexVerifier::hasCollScan);
+        }
+        return false;
+    }
+}
@@ -1,86 +1,166 @@
 package com.skillnest.backend.service;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
 import com.skillnest.backend.model.Comment;
+import com.skillnest.backend.model.FeedPage;
 import com.skillnest.backend.model.Notification;
 import com.skillnest.backend.model.Post;
+import com.skillnest.backend.model.PostLike;
 import com.skillnest.backend.model.User;
-import com.skillnest.backend.repository.CommentRepository;
 import com.skillnest.backend.repository.NotificationRepository;
+import com.skillnest.backend.repository.PostLikeRepository;
 import com.skillnest.backend.repository.PostRepository;
 import com.skillnest.backend.repository.UserRepository;
 
 @Service
 public class LikeCommentService {
 
+    public static final int DEFAULT_COMMENT_PAGE_SIZE = 10;
+    public static final int MAX_COMMENT_PAGE_SIZE = 50;
+
     private final PostRepository postRepository;
-    private final CommentRepository commentRepository;
+    private final CommentBucketStore commentBucketStore;
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final FeedRankingService feedRankingService;
+    private final PostLikeRepository postLikeRepository;
+    private final MongoTemplate mongoTemplate;
+    private final FeedPageCache feedPageCache;
+    private final TrendingService trendingService;
 
     public LikeCommentService(
             PostRepository postRepository,
-            CommentRepository commentRepository,
+            CommentBucketStore commentBucketStore,
             NotificationRepository notificationRepository,
             UserRepository userRepository,
-            SimpMessagingTemplate messagingTemplate) {
+            SimpMessagingTemplate messagingTemplate,
+            FeedRankingService feedRankingService,
+            PostLikeRepository postLikeRepository,
+            MongoTemplate mongoTemplate,
+            FeedPageCache feedPageCache,
+            TrendingService trendingService) {
         this.postRepository = postRepository;
-        this.commentRepository = commentRepository;
+        this.commentBucketStore = commentBucketStore;
         this.notificationRepository = notificationRepository;
         this.userRepository = userRepository;
         this.messagingTemplate = messagingTemplate;
+        this.feedRankingService = feedRankingService;
+        this.postLikeRepository = postLikeRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.feedPageCache = feedPageCache;
+        this.trendingService = trendingService;
     }
 
+    /**
+     * Records a like in one conditional upsert. Only the request whose upsert actually inserted
+     * the like bumps the counter and notifies the author, so concurrent or repeated likes
+     * are counted exactly once.
+     */
     public Post likePost(String postId, String userId) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
-        List<String> likedBy = post.getLikedBy();
-        if (!likedBy.contains(userId)) {
-            likedBy.add(userId);
-            post.setLikedBy(likedBy);
-            post = postRepository.save(post);
-
-            if (!userId.equals(post.getUserId())) {
-                User liker = userRepository.findById(userId)
-                        .orElseThrow(() -> new RuntimeException("User not found"));
-                Notification notification = new Notification(
-                        post.getUserId(), userId, "LIKE",
-                        liker.getName() + " liked your post",
-                        postId
-                );
-                notificationRepository.save(notification);
-                messagingTemplate.convertAndSendToUser(
-                        post.getUserId(), "/queue/notifications", notification);
-            }
+        boolean added;
+        try {
+            UpdateResult result = mongoTemplate.upsert(likeOf(postId, userId),
+                    new Update().setOnInsert("createdAt", LocalDateTime.now()), PostLike.class);
+            added = result.getUpsertedId() != null;
+        } catch (DuplicateKeyException e) {
+            added = false; // lost an insert race against the same like
+        }
+        if (!added) {
+            return findPostSummary(postId);
+        }
+
+        Post post = incrementLikeCount(postId, 1);
+        if (post == null) {
+            mongoTemplate.remove(likeOf(postId, userId), PostLike.class);
+            throw new RuntimeException("Post not found");
+        }
+        feedPageCache.invalidatePost(postId);
+        feedRankingService.onLike(post, userId);
+        trendingService.onLike(postId);
+
+        if (!userId.equals(post.getUserId())) {
+            User liker = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            Notification notification = new Notification(
+                    post.getUserId(), userId, "LIKE",
+                    liker.getName() + " liked your post",
+                    postId
+            );
+            notificationRepository.save(notification);
+            messagingTemplate.convertAndSendToUser(
+                    post.getUserId(), "/queue/notifications", notification);
         }
         return post;
     }
 
     public Post unlikePost(String postId, String userId) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
-        List<String> likedBy = post.getLikedBy();
-        if (likedBy.contains(userId)) {
-            likedBy.remove(userId);
-            post.setLikedBy(likedBy);
-            return postRepository.save(post);
+        DeleteResult result = mongoTemplate.remove(likeOf(postId, userId), PostLike.class);
+        if (result.getDeletedCount() == 0) {
+            return findPostSummary(postId);
+        }
+        Post post = incrementLikeCount(postId, -1);
+        if (post == null) {
+            post = findPostSummary(postId); // counter already at zero
         }
+        feedPageCache.invalidatePost(postId);
+        feedRankingService.onUnlike(post, userId);
         return post;
     }
 
+    /** The subset of the given posts that the user has liked, answered from the likes collection. */
+    public Set<String> findLikedPostIds(String userId, Collection<String> postIds) {
+        if (userId == null || postIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return postLikeRepository.findByUserIdAndPostIdIn(userId, postIds).stream()
+                .map(PostLike::getPostId)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Takes the next comment sequence number from the post (bumping the count and version in
+     * the same update) and pushes the comment onto the bucket that number falls in. The post
+     * document itself never grows.
+     */
     public Comment addComment(String postId, String userId, String content) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
-        Comment comment = new Comment(postId, userId, content);
-        Comment savedComment = commentRepository.save(comment);
-        post.getCommentIds().add(savedComment.getId());
-        postRepository.save(post);
+        Query query = byId(postId);
+        query.fields().include("userId").include("commentSeq");
+        Post post = mongoTemplate.findAndModify(query,
+                new Update().inc("commentSeq", 1).inc("commentCount", 1).inc("commentVersion", 1),
+                FindAndModifyOptions.options().returnNew(true), Post.class);
+        if (post == null) {
+            throw new RuntimeException("Post not found");
+        }
+        Comment savedComment;
+        try {
+            savedComment = commentBucketStore.append(postId, post.getCommentSeq() - 1, userId, content);
+        } catch (RuntimeException e) {
+            // Give the count back; the sequence number stays used, which pages skip over like a deleted comment
+            mongoTemplate.updateFirst(byId(postId), new Update().inc("commentCount", -1).inc("commentVersion", 1),
+                    Post.class);
+            throw e;
+        }
+        feedPageCache.invalidatePost(postId);
+        feedRankingService.onComment(post, userId);
+        trendingService.onComment(postId);
 
         if (!userId.equals(post.getUserId())) {
             User commenter = userRepository.findById(userId)
@@ -98,30 +178,89 @@ public class LikeCommentService {
     }
 
     public Comment editComment(String commentId, String userId, String content) {
-        Comment comment = commentRepository.findById(commentId)
+        Comment comment = commentBucketStore.find(commentId)
                 .orElseThrow(() -> new RuntimeException("Comment not found"));
         if (!comment.getUserId().equals(userId)) {
             throw new RuntimeException("You can only edit your own comments");
         }
         comment.setContent(content);
         comment.setUpdatedAt(LocalDateTime.now());
-        return commentRepository.save(comment);
+        commentBucketStore.edit(commentId, content, comment.getUpdatedAt());
+        mongoTemplate.updateFirst(byId(comment.getPostId()), new Update().inc("commentVersion", 1), Post.class);
+        return comment;
     }
 
     public void deleteComment(String commentId, String userId) {
-        Comment comment = commentRepository.findById(commentId)
+        Comment comment = commentBucketStore.find(commentId)
                 .orElseThrow(() -> new RuntimeException("Comment not found"));
         if (!comment.getUserId().equals(userId)) {
             throw new RuntimeException("You can only delete your own comments");
         }
-        commentRepository.deleteById(commentId);
-        Post post = postRepository.findById(comment.getPostId())
+        if (!commentBucketStore.remove(commentId)) {
+            return; // a concurrent delete already took it out and adjusted the counters
+        }
+        Query query = byId(comment.getPostId());
+        summaryFields(query);
+        Post post = mongoTemplate.findAndModify(query,
+                new Update().inc("commentCount", -1).inc("commentVersion", 1),
+                FindAndModifyOptions.options().returnNew(true), Post.class);
+        if (post == null) {
+            return; // the post was deleted meanwhile and its cascade delete takes the buckets with it
+        }
+        feedPageCache.invalidatePost(post.getId());
+        feedRankingService.onCommentDeleted(post, userId);
+    }
+
+    /** One page of a post's comments, newest first, read from the post's newest buckets. */
+    public FeedPage<Comment> getCommentPage(String postId, String cursor, Integer limit) {
+        int pageSize = limit == null || limit <= 0
+                ? DEFAULT_COMMENT_PAGE_SIZE
+                : Math.min(limit, MAX_COMMENT_PAGE_SIZE);
+        return commentBucketStore.page(postId, cursor, pageSize);
+    }
+
+    /** The post's maintained comment counter; a single _id lookup, no count over comments. */
+    public int getCommentCount(String postId) {
+        return postRepository.findCommentStatsById(postId)
+                .map(Post::getCommentCount)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
-        post.getCommentIds().remove(commentId);
-        postRepository.save(post);
     }
 
-    public List<Comment> getCommentsByPostId(String postId) {
-        return commentRepository.findByPostIdOrderByCreatedAtDesc(postId);
+    /** The post's comment version, bumped by every add, edit and delete; empty when the post is gone. */
+    public Optional<Long> getCommentVersion(String postId) {
+        return postRepository.findCommentStatsById(postId).map(Post::getCommentVersion);
+    }
+
+    // Returns only the counters and owner, never the post body
+    private Post incrementLikeCount(String postId, int delta) {
+        Query query = byId(postId);
+        if (delta < 0) {
+            query.addCriteria(Criteria.where("likeCount").gt(0));
+        }
+        summaryFields(query);
+        return mongoTemplate.findAndModify(query, new Update().inc("likeCount", delta),
+                FindAndModifyOptions.options().returnNew(true), Post.class);
+    }
+
+    private Post findPostSummary(String postId) {
+        Query query = byId(postId);
+        summaryFields(query);
+        Post post = mongoTemplate.findOne(query, Post.class);
+        if (post == null) {
+            throw new RuntimeException("Post not found");
+        }
+        return post;
+    }
+
+    private static void summaryFields(Query query) {
+        query.fields().include("userId").include("createdAt").include("likeCount").include("commentCount");
+    }
+
+    private static Query likeOf(String postId, String userId) {
+        return Query.query(Criteria.where("postId").is(postId).and("userId").is(userId));
+    }
+
+    private static Query byId(String postId) {
+        return Query.query(Criteria.where("_id").is(postId));
     }
 }
@@ -0,0 +1,82 @@
+package com.skillnest.backend.service;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.skillnest.backend.model.Post;
+import com.skillnest.backend.model.PostLike;
+
+/**
+ * One-time move of the embedded Post.likedBy arrays into the likes collection. Only posts
+ * that still carry a likedBy field are touched, so once every post is migrated this is a
+ * single empty query at startup.
+ */
+@Component
+public class LikeMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeMigration.class);
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public LikeMigration(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Query pending = Query.query(Criteria.where("likedBy").exists(true));
+        pending.fields().include("_id").include("likedBy");
+
+        int migrated = 0;
+        try (Stream<Document> posts = mongoTemplate.stream(pending, Document.class, "posts")) {
+            for (Document post : (Iterable<Document>) posts::iterator) {
+                migrate(post);
+                migrated++;
+            }
+        }
+        if (migrated > 0) {
+            logger.info("Migrated likes of {} posts into the likes collection", migrated);
+        }
+    }
+
+    private void migrate(Document post) {
+        String postId = post.getObjectId("_id").toHexString();
+        List<String> likedBy = post.getList("likedBy", String.class, List.of());
+
+        if (!likedBy.isEmpty()) {
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PostLike.class);
+            likedBy.stream().distinct().forEach(userId -> ops.insert(new PostLike(postId, userId)));
+            try {
+                ops.execute();
+            } catch (BulkOperationException e) {
+                // Duplicate keys only mean a previous run was interrupted after inserting some likes, and the
+                // rest still went in (the batch is unordered); anything else leaves likedBy for the next start
+                if (!e.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY)) {
+                    throw e;
+                }
+            }
+        }
+
+        // Recount from the likes collection so a re-run after a partial failure is still exact
+        long likeCount = mongoTemplate.count(Query.query(Criteria.where("postId").is(postId)), PostLike.class);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(postId)),
+                new Update()
+                        .set("likeCount", likeCount)
+                        .unset("likedBy"),
+                Post.class);
+    }
+}
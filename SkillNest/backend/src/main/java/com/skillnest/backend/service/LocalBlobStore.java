@@ -0,0 +1,63 @@
+package com.skillnest.backend.service;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+// Blobs on this node's disk under <upload dir>/blobs/ab/cd/<hash>, the layout the upload store has always used
+@Service
+@ConditionalOnProperty(name = "upload.store.backend", havingValue = "local", matchIfMissing = true)
+public class LocalBlobStore implements BlobStore {
+
+    public static final String DIRECTORY = "blobs";
+
+    private final Path root;
+
+    public LocalBlobStore(@Value("${file.upload-dir}") String uploadDir) throws IOException {
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize().resolve(DIRECTORY);
+        Files.createDirectories(root);
+    }
+
+    // Identical bytes under the same key, so whichever copy lands first is as good as any
+    @Override
+    public void put(String key, Path source) throws IOException {
+        Path blob = path(key);
+        if (Files.exists(blob)) {
+            return;
+        }
+        Files.createDirectories(blob.getParent());
+        try {
+            Files.move(source, blob, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // another upload of the same content won the race
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(path(key));
+    }
+
+    @Override
+    public Resource get(String key, long size) {
+        return new FileSystemResource(path(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(path(key));
+    }
+
+    private Path path(String key) {
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+}
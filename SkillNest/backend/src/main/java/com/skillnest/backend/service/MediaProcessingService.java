@@ -0,0 +1,177 @@
+package com.skillnest.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.skillnest.backend.model.Post;
+import com.skillnest.backend.model.PostMedia;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Turns uploads into feed-sized variants off the request thread. Work goes to a fixed pool
+ * with a bounded queue; when the queue is full the entry simply stays PENDING and the
+ * periodic sweep, which also covers restarts, submits it again later. Results are written
+ * into the matching Post.media entry and the post's cached feed pages are dropped.
+ */
+@Service
+public class MediaProcessingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MediaProcessingService.class);
+    private static final int SWEEP_BATCH = 100;
+
+    private final MongoTemplate mongoTemplate;
+    private final FeedPageCache feedPageCache;
+    private final UploadStore uploadStore;
+    private final MediaVariantRenderer renderer;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public MediaProcessingService(
+            MongoTemplate mongoTemplate,
+            FeedPageCache feedPageCache,
+            UploadStore uploadStore,
+            @Value("${media.variant-widths:320,640,1280}") int[] widths,
+            @Value("${media.ffmpeg-path:ffmpeg}") String ffmpegPath,
+            @Value("${media.max-pixels:24000000}") long maxPixels,
+            @Value("${media.processing.threads:2}") int threads,
+            @Value("${media.processing.queue-capacity:100}") int queueCapacity) {
+        this.mongoTemplate = mongoTemplate;
+        this.feedPageCache = feedPageCache;
+        this.uploadStore = uploadStore;
+        this.renderer = new MediaVariantRenderer(widths, ffmpegPath, maxPixels);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "media-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /** Queues every pending entry of the post; returns at once. */
+    public void submit(String postId, List<PostMedia> media) {
+        if (media == null) {
+            return;
+        }
+        for (PostMedia entry : media) {
+            if (PostMedia.PENDING.equals(entry.getStatus())) {
+                submit(postId, entry);
+            }
+        }
+    }
+
+    // Re-submits what a full queue or a restart left behind
+    @Scheduled(fixedDelayString = "${media.processing.sweep-millis:60000}")
+    public void sweep() {
+        Query pending = Query.query(Criteria.where("media.status").is(PostMedia.PENDING)).limit(SWEEP_BATCH);
+        pending.fields().include("media");
+        for (Post post : mongoTemplate.find(pending, Post.class)) {
+            submit(post.getId(), post.getMedia());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow(); // unfinished entries stay PENDING for the next start
+    }
+
+    private void submit(String postId, PostMedia entry) {
+        String key = postId + "|" + entry.getUrl();
+        if (!inFlight.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(postId, entry);
+                } finally {
+                    inFlight.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key);
+            logger.debug("Media queue full; {} is left for the sweep", key);
+        }
+    }
+
+    private void process(String postId, PostMedia entry) {
+        try {
+            render(entry);
+        } catch (Exception e) {
+            logger.warn("Could not process {} of post {}; serving the original", entry.getUrl(), postId, e);
+            entry.setStatus(PostMedia.FAILED);
+        }
+        // Positional update of just this entry; a no-op if the post or the upload was removed meanwhile
+        Query query = Query.query(Criteria.where("_id").is(postId).and("media.url").is(entry.getUrl()));
+        Update update = new Update()
+                .set("media.$.status", entry.getStatus())
+                .set("media.$.width", entry.getWidth())
+                .set("media.$.height", entry.getHeight())
+                .set("media.$.variants", entry.getVariants())
+                .set("media.$.posterUrl", entry.getPosterUrl());
+        if (mongoTemplate.updateFirst(query, update, Post.class).getModifiedCount() > 0) {
+            feedPageCache.invalidatePost(postId);
+        }
+    }
+
+    // Renders into a scratch directory and moves each output into the upload store under the URL the renderer chose
+    private void render(PostMedia entry) throws IOException {
+        UploadStore.StoredFile original = uploadStore.find(entry.getUrl())
+                .orElseThrow(() -> new IOException("Upload is gone: " + entry.getUrl()));
+        Path workDir = Files.createTempDirectory("media-");
+        try {
+            // ffmpeg needs a file; blobs in a remote store are copied down first
+            Path source;
+            if (original.resource().isFile()) {
+                source = original.resource().getFile().toPath();
+            } else {
+                source = workDir.resolve("source");
+                try (InputStream in = original.resource().getInputStream()) {
+                    Files.copy(in, source);
+                }
+            }
+            renderer.render(entry, source, workDir);
+            List<String> outputs = new ArrayList<>();
+            entry.getVariants().forEach(variant -> outputs.add(variant.getUrl()));
+            if (entry.getPosterUrl() != null) {
+                outputs.add(entry.getPosterUrl());
+            }
+            for (String url : outputs) {
+                String name = UploadStore.nameOf(url);
+                try (InputStream in = Files.newInputStream(workDir.resolve(name))) {
+                    uploadStore.storeAs(name, in, "image/jpeg");
+                }
+            }
+        } finally {
+            try (Stream<Path> files = Files.list(workDir)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(workDir);
+        }
+    }
+}
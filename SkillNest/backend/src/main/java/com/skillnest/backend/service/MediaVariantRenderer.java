@@ -0,0 +1,193 @@
+package com.skillnest.backend.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import com.skillnest.backend.model.MediaVariant;
+import com.skillnest.backend.model.PostMedia;
+
+/**
+ * The file work of the media pipeline: JPEG variants of an image at fixed widths and a
+ * poster frame for a video. Output goes to a work directory as {@code <name>_w<width>.jpg}
+ * and {@code <name>_poster.jpg}, named after the upload, for the caller to store. Knows
+ * nothing of Mongo or the upload store.
+ */
+final class MediaVariantRenderer {
+
+    private static final float JPEG_QUALITY = 0.82f;
+    private static final long FFMPEG_TIMEOUT_SECONDS = 30;
+
+    private final int[] widths;
+    private final String ffmpegPath;
+    private final long maxPixels;
+
+    MediaVariantRenderer(int[] widths, String ffmpegPath, long maxPixels) {
+        this.widths = widths.clone();
+        Arrays.sort(this.widths);
+        this.ffmpegPath = ffmpegPath;
+        this.maxPixels = maxPixels;
+    }
+
+    /**
+     * Fills in the variants (images) or poster (videos) of a pending entry from the upload's
+     * bytes at {@code original} and marks it READY. Every URL it records names a file it
+     * wrote into {@code workDir}.
+     */
+    void render(PostMedia media, Path original, Path workDir) throws IOException {
+        String name = UploadStore.nameOf(media.getUrl());
+        if (PostMedia.IMAGE.equals(media.getKind())) {
+            renderImage(media, original, workDir, name);
+        } else if (PostMedia.VIDEO.equals(media.getKind())) {
+            media.setPosterUrl(renderPoster(original, workDir, name));
+        }
+        media.setStatus(PostMedia.READY);
+    }
+
+    private void renderImage(PostMedia media, Path original, Path workDir, String name) throws IOException {
+        BufferedImage image;
+        try (InputStream in = Files.newInputStream(original)) {
+            image = readImage(in, maxPixels);
+        }
+        if (image == null) {
+            throw new IOException("Unreadable image: " + original.getFileName());
+        }
+        media.setWidth(image.getWidth());
+        media.setHeight(image.getHeight());
+        // Animated GIFs would lose their animation; they are served as uploaded
+        if (name.toLowerCase().endsWith(".gif")) {
+            return;
+        }
+
+        List<MediaVariant> variants = new ArrayList<>();
+        for (int width : widths) {
+            if (width >= image.getWidth()) {
+                break; // never upscale; the original covers anything wider
+            }
+            int height = Math.max(1, Math.round((float) image.getHeight() * width / image.getWidth()));
+            String variantName = derivedName(name, "_w" + width + ".jpg");
+            writeJpeg(scale(image, width, height), workDir.resolve(variantName));
+            variants.add(new MediaVariant(width, height, UploadStore.URL_PREFIX + variantName));
+        }
+        media.setVariants(variants);
+    }
+
+    // Posters need ffmpeg; without it videos are still served, just without a poster frame
+    private String renderPoster(Path original, Path workDir, String name) throws IOException {
+        if (ffmpegPath == null || ffmpegPath.isBlank()) {
+            return null;
+        }
+        String posterName = derivedName(name, "_poster.jpg");
+        Path target = workDir.resolve(posterName);
+        int maxWidth = widths.length > 0 ? widths[widths.length - 1] : 1280;
+        Process process = new ProcessBuilder(ffmpegPath, "-y", "-loglevel", "error",
+                "-i", original.toString(),
+                "-vf", "thumbnail,scale='min(" + maxWidth + ",iw)':-2",
+                "-frames:v", "1", target.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            if (!process.waitFor(FFMPEG_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                throw new IOException("ffmpeg timed out on " + name);
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while extracting a poster", e);
+        }
+        if (process.exitValue() != 0 || !Files.exists(target)) {
+            throw new IOException("ffmpeg could not extract a poster from " + name);
+        }
+        return UploadStore.URL_PREFIX + posterName;
+    }
+
+    /**
+     * Decodes the first image in the stream, or returns null if no reader knows the format.
+     * The size the header declares is checked first, so a small file claiming a huge canvas
+     * is refused before any pixel memory is allocated.
+     */
+    static BufferedImage readImage(InputStream in, long maxPixels) throws IOException {
+        try (ImageInputStream stream = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = stream == null ? null : ImageIO.getImageReaders(stream);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IllegalArgumentException("Image is " + width + "x" + height
+                            + ", more than the " + maxPixels + " pixels allowed");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Halves in steps before the final bilinear pass; one big bilinear step aliases badly
+    static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = Math.max(width, w / 2);
+            h = Math.max(height, h / 2);
+            // Always draw onto opaque RGB so alpha ends up white instead of black in the JPEG
+            BufferedImage next = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, w, h, Color.WHITE, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (w != width || h != height);
+        return current;
+    }
+
+    static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+        try (OutputStream file = Files.newOutputStream(target);
+                ImageOutputStream out = ImageIO.createImageOutputStream(file)) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    static String derivedName(String name, String suffix) {
+        int dot = name.lastIndexOf('.');
+        return (dot > 0 ? name.substring(0, dot) : name) + suffix;
+    }
+}
@@ -0,0 +1,51 @@
+package com.skillnest.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Named leases in migration_leases, so a startup migration runs on one node at a time.
+ * A lease is taken when it is free, expired or already ours; a node that dies holding one
+ * blocks the others only until it expires.
+ */
+@Component
+public class MigrationLease {
+
+    private static final String COLLECTION = "migration_leases";
+
+    private final MongoTemplate mongoTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public MigrationLease(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /** Takes or extends the lease; false while another node holds it. */
+    public boolean acquire(String name, Duration duration) {
+        LocalDateTime now = LocalDateTime.now();
+        Query takeable = Query.query(Criteria.where("_id").is(name)
+                .orOperator(Criteria.where("owner").is(nodeId), Criteria.where("leaseUntil").lte(now)));
+        Update lease = new Update().set("owner", nodeId).set("leaseUntil", now.plus(duration));
+        try {
+            mongoTemplate.findAndModify(takeable, lease, FindAndModifyOptions.options().upsert(true),
+                    Document.class, COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false; // held by another node: the upsert tried to insert a second document with its _id
+        }
+    }
+
+    public void release(String name) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(name).and("owner").is(nodeId)), COLLECTION);
+    }
+}
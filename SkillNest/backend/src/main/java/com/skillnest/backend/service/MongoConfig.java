@@ -0,0 +1,19 @@
+package com.skillnest.backend.service;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MongoConfig {
+
+    @Bean
+    public QueryCaptureListener queryCaptureListener() {
+        return new QueryCaptureListener();
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer queryCaptureCustomizer(QueryCaptureListener listener) {
+        return settings -> settings.addCommandListener(listener);
+    }
+}
@@ -1,66 +1,131 @@
 package com.skillnest.backend.service;
 
-import java.io.File;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
 
-import org.springframework.beans.factory.annotation.Value;
+import org.bson.Document;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.skillnest.backend.model.FeedPage;
 import com.skillnest.backend.model.Post;
+import com.skillnest.backend.model.PostMedia;
 import com.skillnest.backend.repository.PostRepository;
 
 @Service
 public class PostService {
 
-    private final PostRepository postRepository;
+    public static final int DEFAULT_FEED_PAGE_SIZE = 10;
+    public static final int MAX_FEED_PAGE_SIZE = 50;
 
-    @Value("${file.upload-dir}")
-    private String uploadDir;
+    private final PostRepository postRepository;
+    private final TimelineService timelineService;
+    private final FeedRankingService feedRankingService;
+    private final MongoTemplate mongoTemplate;
+    private final FeedPageCache feedPageCache;
+    private final CascadeDeleteWorker cascadeDeleteWorker;
+    private final MediaProcessingService mediaProcessingService;
+    private final UploadStore uploadStore;
+    private final ResumableUploadService resumableUploadService;
 
-    public PostService(PostRepository postRepository) {
+    public PostService(
+            PostRepository postRepository,
+            TimelineService timelineService,
+            FeedRankingService feedRankingService,
+            MongoTemplate mongoTemplate,
+            FeedPageCache feedPageCache,
+            CascadeDeleteWorker cascadeDeleteWorker,
+            MediaProcessingService mediaProcessingService,
+            UploadStore uploadStore,
+            ResumableUploadService resumableUploadService) {
         this.postRepository = postRepository;
+        this.timelineService = timelineService;
+        this.feedRankingService = feedRankingService;
+        this.mongoTemplate = mongoTemplate;
+        this.feedPageCache = feedPageCache;
+        this.cascadeDeleteWorker = cascadeDeleteWorker;
+        this.mediaProcessingService = mediaProcessingService;
+        this.uploadStore = uploadStore;
+        this.resumableUploadService = resumableUploadService;
+    }
+
+    static int resolvePageSize(Integer limit) {
+        return limit == null || limit <= 0
+                ? DEFAULT_FEED_PAGE_SIZE
+                : Math.min(limit, MAX_FEED_PAGE_SIZE);
     }
 
     public Post createPost(Post post, List<MultipartFile> files) {
+        return createPost(post, files, null);
+    }
+
+    /** Creates a post with media from multipart files and from finished resumable uploads. */
+    public Post createPost(Post post, List<MultipartFile> files, List<String> uploadIds) {
+        List<PostMedia> media = storeMedia(post.getUserId(), files, uploadIds);
         List<String> mediaUrls = new ArrayList<>();
-        if (files != null && !files.isEmpty()) {
-            for (MultipartFile file : files) {
-                String contentType = file.getContentType();
-                if (contentType != null && (
-                        contentType.startsWith("image/") ||
-                        contentType.startsWith("video/") ||
-                        contentType.equals("application/pdf"))) {
-                    try {
-                        File uploadPath = new File(uploadDir);
-                        if (!uploadPath.exists()) {
-                            uploadPath.mkdirs();
-                        }
-                        String filename = UUID.randomUUID() + "_" + file.getOriginalFilename();
-                        File destination = new File(uploadPath, filename);
-                        file.transferTo(destination);
-                        String fileUrl = "/uploads/" + filename;
-                        mediaUrls.add(fileUrl);
-                    } catch (IOException e) {
-                        throw new RuntimeException("Failed to upload file: " + file.getOriginalFilename(), e);
-                    }
-                }
-            }
-        }
+        media.forEach(stored -> mediaUrls.add(stored.getUrl()));
         post.setMediaUrls(mediaUrls);
+        post.setMedia(media);
         post.setCreatedAt(LocalDateTime.now());
-        return postRepository.save(post);
+        Post saved = postRepository.save(post);
+        onPostCreated(saved);
+        // Visible right away; cards show a placeholder until the variants land
+        mediaProcessingService.submit(saved.getId(), media);
+        return saved;
+    }
+
+    public FeedPage<Post> getFeedPage(String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        // Fetch one extra row so we know whether another page exists without a count query
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+        List<Post> posts;
+        if (cursor == null || cursor.isBlank()) {
+            posts = postRepository.findFeedFirstPage(pageable);
+        } else {
+            FeedCursor after = FeedCursor.decode(cursor);
+            posts = postRepository.findFeedPageAfter(after.getCreatedAt(), after.getId(), pageable);
+        }
+
+        String nextCursor = null;
+        if (posts.size() > pageSize) {
+            posts = new ArrayList<>(posts.subList(0, pageSize));
+            Post last = posts.get(pageSize - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new FeedPage<>(posts, nextCursor);
     }
 
-    public List<Post> getAllPosts() {
-        return postRepository.findAll();
+    /** Feed projections of the given posts in the given order; ids of deleted posts are skipped. */
+    public List<Post> getFeedPostsInOrder(List<String> ids) {
+        Map<String, Post> byId = new HashMap<>();
+        for (Post post : postRepository.findFeedPostsByIdIn(ids)) {
+            byId.put(post.getId(), post);
+        }
+        List<Post> ordered = new ArrayList<>(byId.size());
+        for (String id : ids) {
+            Post post = byId.get(id);
+            if (post != null) {
+                ordered.add(post);
+            }
+        }
+        return ordered;
     }
 
     public List<Post> getUserPosts(String userId) {
@@ -71,15 +136,72 @@ public class PostService {
         return postRepository.findByVisibilityAndUserId(visibility, userId);
     }
 
-    public void deletePost(String postId) {
+    /**
+     * Removes the post itself and hands its comments, likes, notifications and media files to
+     * {@link CascadeDeleteWorker}. The job is recorded before the post goes, so a crash in
+     * between still ends with everything deleted. Only the author, as proven by the caller's
+     * token, may delete a post.
+     */
+    public void deletePost(String postId, String callerId) {
+        Query query = Query.query(Criteria.where("_id").is(postId));
+        query.fields().include("userId").include("mediaUrls").include("media");
+        Post post = mongoTemplate.findOne(query, Post.class);
+        if (post == null) {
+            return;
+        }
+        if (!post.getUserId().equals(callerId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can only delete your own posts");
+        }
+        cascadeDeleteWorker.enqueuePost(post);
         postRepository.deleteById(postId);
+        feedPageCache.invalidatePost(postId);
     }
 
     public Post savePost(Post post) {
-        return postRepository.save(post);
+        if (post.getId() == null) {
+            Post saved = postRepository.save(post);
+            onPostCreated(saved);
+            return saved;
+        }
+        // An edit $sets the editable fields like updatePost, so it cannot fail on a version a like or comment moved on
+        Update update = new Update()
+                .set("title", post.getTitle())
+                .set("content", post.getContent())
+                .set("visibility", post.getVisibility())
+                .set("addToPortfolio", post.isAddToPortfolio());
+        Post saved = mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(post.getId())), update,
+                FindAndModifyOptions.options().returnNew(true), Post.class);
+        if (saved == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Post not found");
+        }
+        feedPageCache.invalidatePost(saved.getId());
+        return saved;
+    }
+
+    // A new post can only appear on the first page of the global feed and of its audience's timelines
+    private void onPostCreated(Post saved) {
+        Set<String> audience = timelineService.fanOut(saved);
+        audience.add(FeedPageCache.GLOBAL);
+        feedPageCache.invalidateOwners(audience);
+    }
+
+    public FeedPage<Post> getTimelinePage(String userId, String cursor, Integer limit) {
+        return timelineService.getTimelinePage(userId, cursor, limit);
+    }
+
+    // Ranks the newest slice of the user's timeline; no cursor since the order is not chronological
+    public List<Post> getRankedFeed(String userId, Integer limit) {
+        List<Post> candidates = timelineService.getCandidates(userId, FeedRankingService.CANDIDATE_POOL_SIZE);
+        List<Post> ranked = feedRankingService.rank(userId, candidates);
+        return ranked.subList(0, Math.min(resolvePageSize(limit), ranked.size()));
     }
 
     public Post updatePost(String postId, Post updatedPost, List<MultipartFile> files, List<String> removedMedia) {
+        return updatePost(postId, updatedPost, files, null, removedMedia);
+    }
+
+    public Post updatePost(String postId, Post updatedPost, List<MultipartFile> files, List<String> uploadIds,
+            List<String> removedMedia) {
         // Find existing post
         Optional<Post> existingPostOpt = postRepository.findById(postId);
         if (!existingPostOpt.isPresent()) {
@@ -87,6 +209,10 @@ public class PostService {
         }
 
         Post existingPost = existingPostOpt.get();
+        // The controller has checked the token against updatedPost's user, so only the author gets past here
+        if (!existingPost.getUserId().equals(updatedPost.getUserId())) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You can only edit your own posts");
+        }
 
         // Update fields
         existingPost.setTitle(updatedPost.getTitle());
@@ -97,49 +223,127 @@ public class PostService {
         // Handle media URLs
         List<String> mediaUrls = existingPost.getMediaUrls() != null ? new ArrayList<>(existingPost.getMediaUrls()) : new ArrayList<>();
 
-        // Remove specified media URLs and delete files
-        if (removedMedia != null && !removedMedia.isEmpty()) {
-            for (String mediaUrl : removedMedia) {
-                mediaUrls.remove(mediaUrl);
-                // Delete the file from the server
-                String filename = mediaUrl.substring(mediaUrl.lastIndexOf('/') + 1);
-                File fileToDelete = new File(uploadDir, filename);
-                if (fileToDelete.exists()) {
-                    if (!fileToDelete.delete()) {
-                        throw new RuntimeException("Failed to delete file: " + filename);
+        // Remove specified media URLs and delete files, including any variants made from them;
+        // URLs that are not this post's own are ignored so an edit cannot delete someone else's files
+        List<String> ownRemoved = ownMedia(existingPost, removedMedia);
+        if (!ownRemoved.isEmpty()) {
+            List<String> filesToDelete = new ArrayList<>(ownRemoved);
+            if (existingPost.getMedia() != null) {
+                for (PostMedia entry : existingPost.getMedia()) {
+                    if (ownRemoved.contains(entry.getUrl())) {
+                        filesToDelete.addAll(entry.allUrls());
                     }
                 }
             }
+            for (String mediaUrl : filesToDelete) {
+                mediaUrls.remove(mediaUrl);
+                uploadStore.delete(mediaUrl);
+            }
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(postId)),
+                    new Update().pull("media", new Document("url", new Document("$in", ownRemoved))), Post.class);
         }
 
         // Add new files
-        if (files != null && !files.isEmpty()) {
-            for (MultipartFile file : files) {
-                String contentType = file.getContentType();
-                if (contentType != null && (
-                        contentType.startsWith("image/") ||
-                        contentType.startsWith("video/") ||
-                        contentType.equals("application/pdf"))) {
-                    try {
-                        File uploadPath = new File(uploadDir);
-                        if (!uploadPath.exists()) {
-                            uploadPath.mkdirs();
-                        }
-                        String filename = UUID.randomUUID() + "_" + file.getOriginalFilename();
-                        File destination = new File(uploadPath, filename);
-                        file.transferTo(destination);
-                        String fileUrl = "/uploads/" + filename;
-                        mediaUrls.add(fileUrl);
-                    } catch (IOException e) {
-                        throw new RuntimeException("Failed to upload file: " + file.getOriginalFilename(), e);
+        List<PostMedia> added = storeMedia(existingPost.getUserId(), files, uploadIds);
+        added.forEach(stored -> mediaUrls.add(stored.getUrl()));
+
+        existingPost.setMediaUrls(mediaUrls);
+
+        // Only $set the editable fields so concurrent like/comment counter $incs are not overwritten;
+        // new media is $pushed so entries the media pipeline is filling in are left alone
+        Update update = new Update()
+                .set("title", existingPost.getTitle())
+                .set("content", existingPost.getContent())
+                .set("visibility", existingPost.getVisibility())
+                .set("addToPortfolio", existingPost.isAddToPortfolio())
+                .set("mediaUrls", mediaUrls);
+        if (!added.isEmpty()) {
+            update.push("media").each(added.toArray());
+        }
+        Post saved = mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(postId)), update,
+                FindAndModifyOptions.options().returnNew(true), Post.class);
+        feedPageCache.invalidatePost(postId);
+        mediaProcessingService.submit(postId, added);
+        return saved;
+    }
+
+    // The requested URLs that the post actually references, either in mediaUrls or as a media entry's original
+    private static List<String> ownMedia(Post post, List<String> requested) {
+        if (requested == null || requested.isEmpty()) {
+            return List.of();
+        }
+        Set<String> own = new HashSet<>();
+        if (post.getMediaUrls() != null) {
+            own.addAll(post.getMediaUrls());
+        }
+        if (post.getMedia() != null) {
+            post.getMedia().forEach(entry -> own.add(entry.getUrl()));
+        }
+        return requested.stream().filter(own::contains).distinct().toList();
+    }
+
+    // Multipart files first, then the author's resumable uploads, skipping types posts do not take.
+    // All or nothing: when one fails, what was already stored or claimed is released rather than left to the GC.
+    private List<PostMedia> storeMedia(String userId, List<MultipartFile> files, List<String> uploadIds) {
+        List<PostMedia> media = new ArrayList<>();
+        try {
+            if (files != null) {
+                for (MultipartFile file : files) {
+                    PostMedia stored = storeUpload(file);
+                    if (stored != null) {
+                        media.add(stored);
                     }
                 }
             }
+            if (uploadIds != null) {
+                for (String uploadId : uploadIds) {
+                    PostMedia claimed = claimUpload(userId, uploadId);
+                    if (claimed != null) {
+                        media.add(claimed);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            media.forEach(stored -> uploadStore.delete(stored.getUrl()));
+            throw e;
         }
+        return media;
+    }
 
-        existingPost.setMediaUrls(mediaUrls);
+    // Stores an accepted upload; null for types posts do not take
+    private PostMedia storeUpload(MultipartFile file) {
+        String kind = kindOf(file.getContentType());
+        if (kind == null) {
+            return null;
+        }
+        try {
+            return new PostMedia(uploadStore.store(file), kind);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to upload file: " + file.getOriginalFilename(), e);
+        }
+    }
 
-        // Save updated post
-        return postRepository.save(existingPost);
+    // A finished resumable upload is already stored; one of a type posts do not take is released
+    private PostMedia claimUpload(String userId, String uploadId) {
+        ResumableUploadService.Finished upload = resumableUploadService.claim(uploadId, userId);
+        String kind = kindOf(upload.contentType());
+        if (kind == null) {
+            uploadStore.delete(upload.url());
+            return null;
+        }
+        return new PostMedia(upload.url(), kind);
+    }
+
+    private static String kindOf(String contentType) {
+        if (contentType == null) {
+            return null;
+        } else if (contentType.startsWith("image/")) {
+            return PostMedia.IMAGE;
+        } else if (contentType.startsWith("video/")) {
+            return PostMedia.VIDEO;
+        } else if (contentType.equals("application/pdf")) {
+            return PostMedia.FILE;
+        }
+        return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,99 @@
+package com.skillnest.backend.service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageInputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Profile and cover images as files in the {@link UploadStore}, so User only carries their
+ * URLs. Profile images also get a square JPEG avatar, which is the URL embedded in feeds,
+ * comments and chat; the upload itself stays available for the profile page.
+ */
+@Service
+public class ProfileImageService {
+
+    /** URLs of a stored profile image: the square avatar and the image as uploaded. */
+    public record ProfileImage(String avatarUrl, String originalUrl) {
+    }
+
+    private final UploadStore uploadStore;
+    private final int avatarSize;
+    private final long maxPixels;
+
+    public ProfileImageService(
+            UploadStore uploadStore,
+            @Value("${profile.avatar-size:256}") int avatarSize,
+            @Value("${media.max-pixels:24000000}") long maxPixels) {
+        this.uploadStore = uploadStore;
+        this.avatarSize = avatarSize;
+        this.maxPixels = maxPixels;
+    }
+
+    public ProfileImage storeProfileImage(String filename, InputStream in, String contentType) throws IOException {
+        String originalUrl = storeImage(filename, in, contentType);
+        try {
+            BufferedImage image;
+            try (InputStream stored = uploadStore.find(originalUrl).orElseThrow().resource().getInputStream()) {
+                image = MediaVariantRenderer.readImage(stored, maxPixels);
+            }
+            return new ProfileImage(storeAvatar(originalUrl, image), originalUrl);
+        } catch (IOException | RuntimeException e) {
+            uploadStore.delete(originalUrl);
+            throw e;
+        }
+    }
+
+    public String storeCoverImage(String filename, InputStream in, String contentType) throws IOException {
+        return storeImage(filename, in, contentType);
+    }
+
+    /** Drops an image this service stored; data URIs and external URLs are left alone. */
+    public void release(String url) {
+        if (UploadStore.isUploadUrl(url)) {
+            uploadStore.delete(url);
+        }
+    }
+
+    // Stored first so the bytes are streamed rather than held in memory, and refused if they are no image
+    private String storeImage(String filename, InputStream in, String contentType) throws IOException {
+        String url = uploadStore.store(filename, in, contentType);
+        boolean readable;
+        try (InputStream stored = uploadStore.find(url).orElseThrow().resource().getInputStream();
+                ImageInputStream image = ImageIO.createImageInputStream(stored)) {
+            readable = image != null && ImageIO.getImageReaders(image).hasNext();
+        }
+        if (!readable) {
+            uploadStore.delete(url);
+            throw new IllegalArgumentException("Not a supported image");
+        }
+        return url;
+    }
+
+    // Centre square cropped, then scaled down; small images are cropped but never upscaled
+    private String storeAvatar(String originalUrl, BufferedImage image) throws IOException {
+        if (image == null) {
+            throw new IllegalArgumentException("Not a supported image");
+        }
+        int side = Math.min(image.getWidth(), image.getHeight());
+        BufferedImage square = image.getSubimage((image.getWidth() - side) / 2, (image.getHeight() - side) / 2, side, side);
+        int size = Math.min(side, avatarSize);
+        Path temp = Files.createTempFile("avatar-", ".jpg");
+        try {
+            MediaVariantRenderer.writeJpeg(MediaVariantRenderer.scale(square, size, size), temp);
+            String avatarName = MediaVariantRenderer.derivedName(UploadStore.nameOf(originalUrl), "_avatar.jpg");
+            try (InputStream avatar = Files.newInputStream(temp)) {
+                return uploadStore.storeAs(avatarName, avatar, "image/jpeg");
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
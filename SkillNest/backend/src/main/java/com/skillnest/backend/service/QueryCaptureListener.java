@@ -0,0 +1,40 @@
+package com.skillnest.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.bson.BsonDocument;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+/**
+ * Records the read commands the driver sends while a capture is active on the current
+ * thread. Used by {@link IndexVerifier} to see exactly what a repository method runs.
+ */
+public class QueryCaptureListener implements CommandListener {
+
+    private static final Set<String> READ_COMMANDS = Set.of("find", "aggregate", "count", "distinct");
+
+    private final ThreadLocal<List<BsonDocument>> captured = new ThreadLocal<>();
+
+    public List<BsonDocument> capture(Supplier<?> action) {
+        captured.set(new ArrayList<>());
+        try {
+            action.get();
+            return captured.get();
+        } finally {
+            captured.remove();
+        }
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        List<BsonDocument> commands = captured.get();
+        if (commands != null && READ_COMMANDS.contains(event.getCommandName())) {
+            commands.add(event.getCommand().clone());
+        }
+    }
+}
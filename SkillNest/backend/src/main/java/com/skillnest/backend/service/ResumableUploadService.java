@@ -0,0 +1,353 @@
+package com.skillnest.backend.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.skillnest.backend.model.UploadSession;
+
+/**
+ * Resumable uploads in the style of tus: a session is created with the total length, chunks
+ * are appended at the offset the server last acknowledged, and a finished upload is checked
+ * against its declared SHA-256 and moved into the {@link UploadStore}. The result is then
+ * claimed by a post, showcase or document in place of a multipart file.
+ *
+ * A session belongs to the user who created it. Anyone else is told it does not exist, so an
+ * upload id on its own is not enough to write to, finish or claim someone else's upload.
+ *
+ * Each chunk is written with positional FileChannel writes into a part file on this node, and
+ * the offset only advances by what actually reached the file, so a connection dropped half-way
+ * through a chunk resumes from the last byte received rather than from the chunk's start.
+ */
+@Service
+public class ResumableUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumableUploadService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** A finished upload handed to whatever it was uploaded for. */
+    public record Finished(String url, String filename, String contentType, long size) {
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final UploadStore uploadStore;
+    private final Path partDir;
+    private final long maxBytes;
+    private final long expireHours;
+    // One writer per session on this node; a retry that overlaps a chunk still being read gets a 409
+    private final Set<String> writing = ConcurrentHashMap.newKeySet();
+
+    public ResumableUploadService(
+            MongoTemplate mongoTemplate,
+            UploadStore uploadStore,
+            @Value("${file.upload-dir}") String uploadDir,
+            @Value("${upload.resumable.max-size-mb:2048}") long maxMegabytes,
+            @Value("${upload.resumable.expire-hours:24}") long expireHours) throws IOException {
+        this.mongoTemplate = mongoTemplate;
+        this.uploadStore = uploadStore;
+        this.partDir = Paths.get(uploadDir).toAbsolutePath().normalize().resolve(".resumable");
+        this.maxBytes = maxMegabytes * 1024 * 1024;
+        this.expireHours = expireHours;
+        Files.createDirectories(partDir);
+    }
+
+    public UploadSession create(String ownerId, String filename, String contentType, long length, String sha256)
+            throws IOException {
+        if (length < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Upload-Length must not be negative");
+        }
+        if (length > maxBytes) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Uploads are limited to " + maxBytes + " bytes");
+        }
+        if (sha256 != null && !sha256.matches("[0-9a-f]{64}")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid SHA-256 checksum");
+        }
+        UploadSession session = mongoTemplate.insert(new UploadSession(ownerId, filename, contentType, length, sha256));
+        Files.deleteIfExists(part(session.getId()));
+        Files.createFile(part(session.getId()));
+        return session;
+    }
+
+    /**
+     * Stores a whole file sent as a raw request body in one pass: the bytes go from the socket
+     * to their place in the store while being hashed and counted, with no multipart spooling.
+     * The result is a finished session, claimed like any other.
+     */
+    public UploadSession ingest(String ownerId, String filename, String contentType, String sha256, InputStream body)
+            throws IOException {
+        if (sha256 != null && !sha256.matches("[0-9a-f]{64}")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid SHA-256 checksum");
+        }
+        UploadStore.Stored stored = uploadStore.ingest(filename, new LimitedInputStream(body, maxBytes), contentType);
+        if (sha256 != null && !sha256.equals(stored.hash())) {
+            uploadStore.delete(stored.url());
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Checksum mismatch");
+        }
+        UploadSession session = new UploadSession(ownerId, filename, contentType, stored.size(), sha256);
+        session.setOffset(stored.size());
+        session.setStatus(UploadSession.COMPLETE);
+        session.setUrl(stored.url());
+        return mongoTemplate.insert(session);
+    }
+
+    /** The session, if the given user owns it. */
+    public UploadSession get(String id, String ownerId) {
+        UploadSession session = mongoTemplate.findOne(owned(id, ownerId), UploadSession.class);
+        if (session == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found");
+        }
+        return session;
+    }
+
+    /**
+     * Writes a chunk at the given offset and returns the new offset. The offset must be the one
+     * the server last reported; bytes past the declared length are refused.
+     */
+    public long append(String id, String ownerId, long offset, InputStream body) throws IOException {
+        UploadSession session = get(id, ownerId);
+        if (!UploadSession.UPLOADING.equals(session.getStatus())) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload is already finished");
+        }
+        if (offset != session.getOffset()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload-Offset is " + session.getOffset());
+        }
+        if (!writing.add(id)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A chunk for this upload is still being written");
+        }
+        try {
+            long remaining = session.getLength() - offset;
+            long written = 0;
+            boolean tooLong = false;
+            try (FileChannel channel = FileChannel.open(part(id), StandardOpenOption.WRITE);
+                    ReadableByteChannel in = Channels.newChannel(body)) {
+                ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                while (true) {
+                    int read;
+                    try {
+                        read = in.read(buffer);
+                    } catch (IOException e) {
+                        // The client went away mid-chunk; keep what arrived so it can resume from there
+                        logger.debug("Chunk for upload {} cut short after {} bytes", id, written + buffer.position());
+                        read = -1;
+                    }
+                    if (buffer.position() > remaining - written) {
+                        buffer.limit((int) (remaining - written));
+                        tooLong = true;
+                    }
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        written += channel.write(buffer, offset + written);
+                    }
+                    buffer.clear();
+                    if (read < 0 || tooLong) {
+                        break;
+                    }
+                }
+                channel.force(false); // the offset we acknowledge must survive a crash
+            }
+            // What fit before Upload-Length is in the part file, so the offset counts it even when the chunk is refused
+            advance(id, offset, written);
+            if (tooLong) {
+                throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Chunk runs past Upload-Length");
+            }
+            return offset + written;
+        } finally {
+            writing.remove(id);
+        }
+    }
+
+    /**
+     * Verifies and stores a fully uploaded session. A checksum mismatch restarts the upload from
+     * zero, since there is no telling which chunk was damaged. Finishing twice returns the same result.
+     */
+    public Finished finish(String id, String ownerId) throws IOException {
+        UploadSession current = get(id, ownerId);
+        UploadSession session = mongoTemplate.findAndModify(
+                owned(id, ownerId).addCriteria(Criteria.where("status").is(UploadSession.UPLOADING)
+                        .and("offset").is(current.getLength())),
+                new Update().set("status", UploadSession.FINISHING).set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true), UploadSession.class);
+        if (session == null) {
+            current = get(id, ownerId);
+            if (UploadSession.COMPLETE.equals(current.getStatus())) {
+                return finished(current);
+            }
+            throw new ResponseStatusException(HttpStatus.CONFLICT, UploadSession.FINISHING.equals(current.getStatus())
+                    ? "Upload is already being finished"
+                    : "Upload is incomplete: " + current.getOffset() + " of " + current.getLength() + " bytes");
+        }
+        Path part = part(id);
+        try {
+            String hash = UploadStore.hash(part);
+            if (session.getSha256() != null && !session.getSha256().equals(hash)) {
+                try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE)) {
+                    channel.truncate(0);
+                }
+                mongoTemplate.updateFirst(byId(id), new Update()
+                        .set("status", UploadSession.UPLOADING)
+                        .set("offset", 0L)
+                        .set("updatedAt", LocalDateTime.now()), UploadSession.class);
+                throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Checksum mismatch; the upload starts over");
+            }
+            String url = uploadStore.storeFile(session.getFilename(), part, hash, session.getLength(), session.getContentType());
+            Files.deleteIfExists(part);
+            session.setUrl(url);
+            mongoTemplate.updateFirst(byId(id), new Update()
+                    .set("status", UploadSession.COMPLETE)
+                    .set("url", url)
+                    .set("updatedAt", LocalDateTime.now()), UploadSession.class);
+            return finished(session);
+        } catch (IOException | RuntimeException e) {
+            if (!(e instanceof ResponseStatusException)) {
+                mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id).and("status").is(UploadSession.FINISHING)),
+                        new Update().set("status", UploadSession.UPLOADING), UploadSession.class);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Takes a finished upload for a post, showcase or document of the user who uploaded it. The
+     * session goes away and the caller now owns the stored URL; an upload can be claimed only once.
+     */
+    public Finished claim(String id, String ownerId) {
+        UploadSession session = mongoTemplate.findAndRemove(
+                owned(id, ownerId).addCriteria(Criteria.where("status").is(UploadSession.COMPLETE)), UploadSession.class);
+        if (session == null) {
+            throw new IllegalArgumentException("No finished upload " + id);
+        }
+        return finished(session);
+    }
+
+    /** Abandons an upload, releasing whatever it stored. */
+    public void cancel(String id, String ownerId) throws IOException {
+        UploadSession session = mongoTemplate.findAndRemove(owned(id, ownerId), UploadSession.class);
+        if (session == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found");
+        }
+        discard(session);
+    }
+
+    // Sessions nobody touched within the expiry, finished or not, along with their part files and unclaimed uploads
+    @Scheduled(fixedDelayString = "${upload.resumable.expire-millis:3600000}")
+    public void expire() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(expireHours);
+        Query idle = Query.query(Criteria.where("updatedAt").lt(cutoff));
+        UploadSession session;
+        int expired = 0;
+        while ((session = mongoTemplate.findAndRemove(idle, UploadSession.class)) != null) {
+            try {
+                discard(session);
+                expired++;
+            } catch (IOException e) {
+                logger.warn("Could not remove the part file of expired upload {}", session.getId(), e);
+            }
+        }
+        if (expired > 0) {
+            logger.info("Expired {} idle resumable uploads", expired);
+        }
+    }
+
+    private void advance(String id, long offset, long written) {
+        if (written == 0) {
+            return;
+        }
+        long updated = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(id).and("offset").is(offset).and("status").is(UploadSession.UPLOADING)),
+                new Update().set("offset", offset + written).set("updatedAt", LocalDateTime.now()),
+                UploadSession.class).getModifiedCount();
+        if (updated == 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload changed while the chunk was written");
+        }
+    }
+
+    private void discard(UploadSession session) throws IOException {
+        if (session.getUrl() != null) {
+            uploadStore.delete(session.getUrl());
+        }
+        Files.deleteIfExists(part(session.getId()));
+    }
+
+    // Session ids are Mongo ObjectIds, so they are safe as file names
+    private Path part(String id) {
+        return partDir.resolve(id + ".part");
+    }
+
+    // Cuts a body off once it passes the size cap, before it fills the disk
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private final long limit;
+        private long count;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                counted(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                counted(read);
+            }
+            return read;
+        }
+
+        private void counted(int read) {
+            count += read;
+            if (count > limit) {
+                throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Uploads are limited to " + limit + " bytes");
+            }
+        }
+    }
+
+    private static Finished finished(UploadSession session) {
+        return new Finished(session.getUrl(), session.getFilename(), session.getContentType(), session.getLength());
+    }
+
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("_id").is(id));
+    }
+
+    // Matches a session only for its owner
+    private static Query owned(String id, String ownerId) {
+        if (ownerId == null) {
+            throw new IllegalArgumentException("Uploads can only be used by the user who made them");
+        }
+        return Query.query(Criteria.where("_id").is(id).and("ownerId").is(ownerId));
+    }
+}
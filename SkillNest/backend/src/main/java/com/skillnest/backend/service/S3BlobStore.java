@@ -0,0 +1,192 @@
+package com.skillnest.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+/**
+ * Blobs in an S3-compatible bucket (AWS S3, MinIO, Ceph RGW, R2), addressed path-style as
+ * <endpoint>/<bucket>/<prefix><hash>. Requests are signed with AWS Signature V4 over the JDK
+ * HTTP client, so no SDK is needed for the four calls used. Since keys are the SHA-256 of
+ * the content, an upload's x-amz-content-sha256 is its key and the payload is fully signed.
+ */
+@Service
+@ConditionalOnProperty(name = "upload.store.backend", havingValue = "s3")
+public class S3BlobStore implements BlobStore {
+
+    private static final String EMPTY_SHA256 = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final DateTimeFormatter SCOPE_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final URI endpoint;
+    private final String bucket;
+    private final String prefix;
+    private final String region;
+    private final String accessKey;
+    private final String secretKey;
+
+    public S3BlobStore(
+            @Value("${upload.store.s3.endpoint}") String endpoint,
+            @Value("${upload.store.s3.bucket}") String bucket,
+            @Value("${upload.store.s3.prefix:blobs/}") String prefix,
+            @Value("${upload.store.s3.region:us-east-1}") String region,
+            @Value("${upload.store.s3.access-key}") String accessKey,
+            @Value("${upload.store.s3.secret-key}") String secretKey) {
+        this.endpoint = URI.create(endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint);
+        this.bucket = bucket;
+        this.prefix = prefix;
+        this.region = region;
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+    }
+
+    @Override
+    public void put(String key, Path source) throws IOException {
+        if (exists(key)) {
+            return;
+        }
+        HttpRequest request = signed(HttpRequest.newBuilder(uri(key)).PUT(HttpRequest.BodyPublishers.ofFile(source)),
+                "PUT", key, key);
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("S3 PUT " + key + " failed with " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        HttpRequest request = signed(HttpRequest.newBuilder(uri(key)).method("HEAD", HttpRequest.BodyPublishers.noBody()),
+                "HEAD", key, EMPTY_SHA256);
+        int status = send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200 && status != 404) {
+            throw new IOException("S3 HEAD " + key + " failed with " + status);
+        }
+        return status == 200;
+    }
+
+    @Override
+    public Resource get(String key, long size) {
+        return new BlobResource("S3 blob " + bucket + "/" + prefix + key, size, offset -> {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(uri(key)).GET();
+            if (offset > 0) {
+                builder.header("Range", "bytes=" + offset + "-"); // the end is left open; the reader stops where it needs to
+            }
+            HttpRequest request = signed(builder, "GET", key, EMPTY_SHA256);
+            HttpResponse<InputStream> response = send(request, HttpResponse.BodyHandlers.ofInputStream());
+            if (response.statusCode() == 206) {
+                return response.body();
+            }
+            if (response.statusCode() == 200) {
+                InputStream body = response.body(); // a store that ignores Range sends it all
+                body.skipNBytes(offset);
+                return body;
+            }
+            response.body().close();
+            if (response.statusCode() == 404) {
+                throw new NoSuchFileException(key);
+            }
+            throw new IOException("S3 GET " + key + " failed with " + response.statusCode());
+        });
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        HttpRequest request = signed(HttpRequest.newBuilder(uri(key)).DELETE(), "DELETE", key, EMPTY_SHA256);
+        int status = send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 204 && status != 200 && status != 404) {
+            throw new IOException("S3 DELETE " + key + " failed with " + status);
+        }
+    }
+
+    // path() already starts with the endpoint's own path, so only the scheme and authority come from the endpoint here
+    private URI uri(String key) {
+        return URI.create(endpoint.getScheme() + "://" + endpoint.getRawAuthority() + path(key));
+    }
+
+    // Bucket names and hex keys need no escaping; the prefix is taken as configured
+    private String path(String key) {
+        return endpoint.getRawPath() + "/" + bucket + "/" + prefix + key;
+    }
+
+    private HttpRequest signed(HttpRequest.Builder builder, String method, String key, String payloadHash) {
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        String amzDate = AMZ_DATE.format(now);
+        String scope = SCOPE_DATE.format(now) + "/" + region + "/s3/aws4_request";
+        String host = endpoint.getPort() == -1 ? endpoint.getHost() : endpoint.getHost() + ":" + endpoint.getPort();
+
+        String signedHeaders = "host;x-amz-content-sha256;x-amz-date";
+        String canonicalRequest = method + "\n"
+                + path(key) + "\n"
+                + "\n" // no query string
+                + "host:" + host + "\n"
+                + "x-amz-content-sha256:" + payloadHash + "\n"
+                + "x-amz-date:" + amzDate + "\n"
+                + "\n"
+                + signedHeaders + "\n"
+                + payloadHash;
+        String stringToSign = "AWS4-HMAC-SHA256\n" + amzDate + "\n" + scope + "\n" + sha256Hex(canonicalRequest);
+
+        byte[] signingKey = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), SCOPE_DATE.format(now));
+        signingKey = hmac(signingKey, region);
+        signingKey = hmac(signingKey, "s3");
+        signingKey = hmac(signingKey, "aws4_request");
+        String signature = HexFormat.of().formatHex(hmac(signingKey, stringToSign));
+
+        return builder
+                .header("x-amz-content-sha256", payloadHash)
+                .header("x-amz-date", amzDate)
+                .header("Authorization", "AWS4-HMAC-SHA256 Credential=" + accessKey + "/" + scope
+                        + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature)
+                .timeout(Duration.ofMinutes(5))
+                .build();
+    }
+
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return http.send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted talking to S3", e);
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sha256Hex(String data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -2,28 +2,37 @@ package com.skillnest.backend.service;
 
 import com.skillnest.backend.security.JwtAuthFilter;
 import com.skillnest.backend.security.JwtUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.List;
+import java.util.Set;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
     private final JwtUtil jwtUtil;
+    private final Set<String> adminUserIds;
 
-    public SecurityConfig(JwtUtil jwtUtil) {
+    public SecurityConfig(JwtUtil jwtUtil, @Value("${admin.user-ids:}") Set<String> adminUserIds) {
         this.jwtUtil = jwtUtil;
+        this.adminUserIds = adminUserIds;
     }
 
   @Bean
@@ -33,6 +42,8 @@ public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Excepti
         .and()
         .csrf().disable()
         .authorizeHttpRequests()
+        // The NDJSON exports stream every post and every user's email; they sit under /api/auth/** so they must match first
+        .requestMatchers(ndjsonExport("/api/auth/posts"), ndjsonExport("/api/auth/users")).access(admins())
         .requestMatchers(
             "/api/auth/**",
             "/api/auth/users",
@@ -41,14 +52,29 @@ public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Excepti
             "/ws/info",
             "/sockjs-node/**",
             "/uploads/**",
+            "/media/**",
             "/search/**"// 👈 ADD THIS LINE
         ).permitAll()
+        // The upload collector report lists stored file names; only the configured admins may see it
+        .requestMatchers(EndpointRequest.to(UploadCollectorEndpoint.class)).access(admins())
         .anyRequest().authenticated()
         .and()
         .addFilterBefore(new JwtAuthFilter(jwtUtil), UsernamePasswordAuthenticationFilter.class)
         .build();
 }
 
+    // Granted when the bearer token belongs to one of admin.user-ids; anonymous callers never are
+    private AuthorizationManager<RequestAuthorizationContext> admins() {
+        return (authentication, context) -> new AuthorizationDecision(
+                adminUserIds.contains(String.valueOf(authentication.get().getPrincipal())));
+    }
+
+    private static RequestMatcher ndjsonExport(String path) {
+        return request -> "GET".equals(request.getMethod())
+                && path.equals(request.getRequestURI().substring(request.getContextPath().length()))
+                && "ndjson".equals(request.getParameter("format"));
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -58,8 +84,10 @@ public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Excepti
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration config = new CorsConfiguration();
         config.setAllowedOrigins(List.of("http://localhost:5173"));
-        config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        config.setAllowedMethods(List.of("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         config.setAllowedHeaders(List.of("*"));
+        // Resumable upload clients read these back to know where to continue
+        config.setExposedHeaders(List.of("Location", "Tus-Resumable", "Upload-Offset", "Upload-Length"));
         config.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,62 @@
+package com.skillnest.backend.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximate top-K keys over a sliding time window. The window is a ring of equal time
+ * buckets, each a {@link SpaceSaving} summary; expired buckets are cleared as time moves
+ * on and a query sums the live ones. Memory is buckets x capacity counters no matter how
+ * many distinct keys are offered.
+ */
+final class SlidingWindowTopK {
+
+    private final long bucketMillis;
+    private final SpaceSaving[] buckets;
+    private final long[] bucketEpochs;
+
+    SlidingWindowTopK(long windowMillis, int bucketCount, int capacityPerBucket) {
+        this.bucketMillis = Math.max(1, windowMillis / bucketCount);
+        this.buckets = new SpaceSaving[bucketCount];
+        this.bucketEpochs = new long[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new SpaceSaving(capacityPerBucket);
+            bucketEpochs[i] = -1;
+        }
+    }
+
+    synchronized void offer(String key, long weight, long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        int slot = (int) Math.floorMod(epoch, (long) buckets.length);
+        if (bucketEpochs[slot] != epoch) {
+            buckets[slot].clear();
+            bucketEpochs[slot] = epoch;
+        }
+        buckets[slot].offer(key, weight);
+    }
+
+    /** The k keys with the largest estimated counts in the window ending now, largest first. */
+    synchronized List<Map.Entry<String, Long>> top(int k, long nowMillis) {
+        long currentEpoch = nowMillis / bucketMillis;
+        Map<String, Long> totals = new HashMap<>();
+        for (int i = 0; i < buckets.length; i++) {
+            if (currentEpoch - bucketEpochs[i] < buckets.length) {
+                buckets[i].addTo(totals);
+            }
+        }
+        List<Map.Entry<String, Long>> ranked = new ArrayList<>(totals.entrySet());
+        ranked.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        return ranked.subList(0, Math.min(k, ranked.size()));
+    }
+
+    /** Counters currently allocated across all buckets. */
+    synchronized int monitoredCounters() {
+        int total = 0;
+        for (SpaceSaving bucket : buckets) {
+            total += bucket.size();
+        }
+        return total;
+    }
+}
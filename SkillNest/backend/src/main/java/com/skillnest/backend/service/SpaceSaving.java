@@ -0,0 +1,76 @@
+package com.skillnest.backend.service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving heavy-hitters summary (Metwally et al.) over a fixed number of counters.
+ * When full, a new key takes over the smallest counter and inherits its count, so every
+ * estimate is an overcount by at most {@link #minCount()}. Not thread-safe.
+ */
+final class SpaceSaving {
+
+    private static final class Counter {
+        final String key;
+        long count;
+
+        Counter(String key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+    }
+
+    private static final Comparator<Counter> BY_COUNT = Comparator
+            .<Counter>comparingLong(c -> c.count)
+            .thenComparing(c -> c.key);
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private final TreeSet<Counter> ordered = new TreeSet<>(BY_COUNT);
+
+    SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    void offer(String key, long weight) {
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            if (counters.size() < capacity) {
+                counter = new Counter(key, 0);
+            } else {
+                Counter smallest = ordered.pollFirst();
+                counters.remove(smallest.key);
+                counter = new Counter(key, smallest.count);
+            }
+            counters.put(key, counter);
+        } else {
+            ordered.remove(counter);
+        }
+        counter.count += weight;
+        ordered.add(counter);
+    }
+
+    /** Upper bound on the count of any key that is not currently monitored. */
+    long minCount() {
+        return counters.size() < capacity || ordered.isEmpty() ? 0 : ordered.first().count;
+    }
+
+    /** Adds every monitored key's estimate into {@code into}. */
+    void addTo(Map<String, Long> into) {
+        for (Counter counter : counters.values()) {
+            into.merge(counter.key, counter.count, Long::sum);
+        }
+    }
+
+    int size() {
+        return counters.size();
+    }
+
+    void clear() {
+        counters.clear();
+        ordered.clear();
+    }
+}
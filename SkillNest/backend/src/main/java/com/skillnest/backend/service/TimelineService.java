@@ -0,0 +1,347 @@
+package com.skillnest.backend.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.skillnest.backend.model.FeedPage;
+import com.skillnest.backend.model.Post;
+import com.skillnest.backend.model.Timeline;
+import com.skillnest.backend.model.TimelineEntry;
+import com.skillnest.backend.model.User;
+import com.skillnest.backend.repository.PostRepository;
+import com.skillnest.backend.repository.TimelineRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per-user home timelines. Authors below the follower threshold are fanned out on write
+ * into one capped document per follower. Authors at or above it are only written to their
+ * own timeline and merged into their followers' pages at read time.
+ */
+@Service
+public class TimelineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimelineService.class);
+
+    public static final int TIMELINE_CAP = 500;
+    private static final int FAN_OUT_BATCH_SIZE = 500;
+
+    // Newest first, ties broken on post id, same order as the global feed cursor
+    private static final Comparator<TimelineEntry> NEWEST_FIRST = Comparator
+            .comparing(TimelineEntry::getCreatedAt, Comparator.reverseOrder())
+            .thenComparing(TimelineEntry::getPostId, Comparator.reverseOrder());
+
+    private final TimelineRepository timelineRepository;
+    private final PostRepository postRepository;
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final FeedPageCache feedPageCache;
+    private final int followerThreshold;
+
+    public TimelineService(
+            TimelineRepository timelineRepository,
+            PostRepository postRepository,
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            FeedPageCache feedPageCache,
+            @Value("${timeline.fanout.follower-threshold:10000}") int followerThreshold) {
+        this.timelineRepository = timelineRepository;
+        this.postRepository = postRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.feedPageCache = feedPageCache;
+        this.followerThreshold = followerThreshold;
+    }
+
+    /**
+     * Pushes a freshly saved post into the author's own timeline and, unless the author is
+     * above the follower threshold, into every follower's timeline as well. Returns the users
+     * it was pushed to; for an author above the threshold, whose post is merged in at read
+     * time, every cached timeline page is dropped instead of shipping the follower ids here.
+     */
+    public Set<String> fanOut(Post post) {
+        FollowerCount author = countFollowers(post.getUserId());
+        boolean pull = author.followerCount() >= followerThreshold;
+
+        List<String> owners = new ArrayList<>();
+        owners.add(post.getUserId());
+        if (!pull) {
+            owners.addAll(author.followers());
+        } else {
+            feedPageCache.invalidateTimelines();
+        }
+        meterRegistry.counter("timeline.fanout", "path", pull ? "pull" : "push").increment();
+
+        TimelineEntry entry = new TimelineEntry(post.getId(), post.getUserId(), post.getCreatedAt());
+        for (int from = 0; from < owners.size(); from += FAN_OUT_BATCH_SIZE) {
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Timeline.class);
+            for (String owner : owners.subList(from, Math.min(from + FAN_OUT_BATCH_SIZE, owners.size()))) {
+                ops.upsert(byOwner(owner), pushEntries(List.of(entry)));
+            }
+            ops.execute();
+        }
+        logger.debug("Post {} by {} ({} followers) written to {} timelines via {}",
+                post.getId(), post.getUserId(), author.followerCount(), owners.size(), pull ? "pull" : "push");
+        return new HashSet<>(owners);
+    }
+
+    /** Merges the followed author's recent posts into the follower's timeline. */
+    public void onFollow(String followerId, String followedId) {
+        // Pull first so a repeated follow never leaves duplicate entries behind
+        removeAuthor(followerId, followedId);
+        feedPageCache.invalidateOwners(List.of(followerId));
+        if (!findPullAuthors(List.of(followedId)).isEmpty()) {
+            return; // merged in at read time instead
+        }
+        List<TimelineEntry> entries = postRepository
+                .findTimelineEntriesByUserId(followedId, PageRequest.of(0, TIMELINE_CAP))
+                .stream()
+                .map(this::toEntry)
+                .collect(Collectors.toList());
+        if (!entries.isEmpty()) {
+            mongoTemplate.upsert(byOwner(followerId), pushEntries(entries), Timeline.class);
+            feedPageCache.invalidateOwners(List.of(followerId));
+        }
+    }
+
+    public void onUnfollow(String followerId, String followedId) {
+        removeAuthor(followerId, followedId);
+        feedPageCache.invalidateOwners(List.of(followerId));
+    }
+
+    /**
+     * Recomputes a timeline from scratch out of the user's own posts and the pushed authors
+     * they follow.
+     */
+    public Timeline rebuild(String userId) {
+        Set<String> authors = new HashSet<>(getFollowing(userId));
+        authors.removeAll(findPullAuthors(authors));
+        authors.add(userId);
+
+        List<TimelineEntry> entries = postRepository
+                .findTimelineEntriesByUserIdIn(authors, PageRequest.of(0, TIMELINE_CAP))
+                .stream()
+                .map(this::toEntry)
+                .collect(Collectors.toList());
+        return timelineRepository.save(new Timeline(userId, entries));
+    }
+
+    public FeedPage<Post> getTimelinePage(String userId, String cursor, Integer limit) {
+        FeedCursor after = cursor == null || cursor.isBlank() ? null : FeedCursor.decode(cursor);
+        return readTimeline(userId, after, PostService.resolvePageSize(limit));
+    }
+
+    /** The newest posts of a user's timeline, used as the candidate pool for ranking. */
+    public List<Post> getCandidates(String userId, int size) {
+        return readTimeline(userId, null, size).getItems();
+    }
+
+    private FeedPage<Post> readTimeline(String userId, FeedCursor after, int pageSize) {
+        List<TimelineEntry> pushed = readPushedEntries(userId, after, pageSize + 1);
+
+        // Each pulled author contributes its own sorted keyset page; at most pageSize + 1 rows each
+        Set<String> pullAuthors = findPullAuthors(getFollowing(userId));
+        List<List<TimelineEntry>> sources = new ArrayList<>(pullAuthors.size() + 1);
+        sources.add(pushed);
+        Map<String, Post> loaded = new HashMap<>();
+        Pageable authorPage = PageRequest.of(0, pageSize + 1);
+        for (String authorId : pullAuthors) {
+            List<Post> posts = after == null
+                    ? postRepository.findAuthorFirstPage(authorId, authorPage)
+                    : postRepository.findAuthorPageAfter(authorId, after.getCreatedAt(), after.getId(), authorPage);
+            List<TimelineEntry> entries = new ArrayList<>(posts.size());
+            for (Post post : posts) {
+                loaded.put(post.getId(), post);
+                entries.add(toEntry(post));
+            }
+            sources.add(entries);
+        }
+        meterRegistry.counter("timeline.read", "path", pullAuthors.isEmpty() ? "push" : "hybrid").increment();
+        meterRegistry.summary("timeline.read.pulled.authors").record(pullAuthors.size());
+
+        List<TimelineEntry> window = mergeNewestFirst(sources, pageSize + 1);
+        String nextCursor = null;
+        if (window.size() > pageSize) {
+            window = window.subList(0, pageSize);
+            TimelineEntry last = window.get(pageSize - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getPostId()).encode();
+        }
+
+        // Deleted posts simply drop out here; their stale entries age out of the cap
+        List<String> missing = window.stream()
+                .map(TimelineEntry::getPostId)
+                .filter(postId -> !loaded.containsKey(postId))
+                .collect(Collectors.toList());
+        for (Post post : postRepository.findFeedPostsByIdIn(missing)) {
+            loaded.put(post.getId(), post);
+        }
+        List<Post> posts = new ArrayList<>(window.size());
+        for (TimelineEntry entry : window) {
+            Post post = loaded.get(entry.getPostId());
+            if (post != null) {
+                posts.add(post);
+            }
+        }
+        return new FeedPage<>(posts, nextCursor);
+    }
+
+    /**
+     * The page of the stored timeline after the cursor, cut out on the server: the entries are
+     * kept newest first, so filtering on the cursor and slicing returns just this page rather
+     * than the whole capped array. A missing timeline is rebuilt and cut in memory once.
+     */
+    private List<TimelineEntry> readPushedEntries(String userId, FeedCursor after, int limit) {
+        Object entries = "$entries";
+        if (after != null) {
+            Object createdAt = mongoTemplate.getConverter().convertToMongoType(after.getCreatedAt());
+            Document olderThanCursor = new Document("$or", List.of(
+                    new Document("$lt", List.of("$$e.createdAt", createdAt)),
+                    new Document("$and", List.of(
+                            new Document("$eq", List.of("$$e.createdAt", createdAt)),
+                            new Document("$lt", List.of("$$e.postId", after.getId()))))));
+            entries = new Document("$filter",
+                    new Document("input", "$entries").append("as", "e").append("cond", olderThanCursor));
+        }
+        Document page = new Document("$slice", List.of(entries, limit));
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("_id").is(userId)),
+                Aggregation.project().and(context -> page).as("entries"));
+        Timeline timeline = mongoTemplate.aggregate(aggregation, Timeline.class, Timeline.class).getUniqueMappedResult();
+        if (timeline != null) {
+            return timeline.getEntries() == null ? new ArrayList<>() : new ArrayList<>(timeline.getEntries());
+        }
+
+        List<TimelineEntry> rebuilt = new ArrayList<>(limit);
+        for (TimelineEntry entry : rebuild(userId).getEntries()) {
+            if (after == null || isAfter(entry, after)) {
+                rebuilt.add(entry);
+                if (rebuilt.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return rebuilt;
+    }
+
+    /**
+     * K-way merge of lists that are each already sorted newest first. Post ids seen twice
+     * (an author who crossed the threshold after being fanned out) are kept once.
+     */
+    static List<TimelineEntry> mergeNewestFirst(List<List<TimelineEntry>> sources, int limit) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, sources.size()),
+                (a, b) -> NEWEST_FIRST.compare(sources.get(a[0]).get(a[1]), sources.get(b[0]).get(b[1])));
+        for (int i = 0; i < sources.size(); i++) {
+            if (!sources.get(i).isEmpty()) {
+                heads.add(new int[] {i, 0});
+            }
+        }
+
+        List<TimelineEntry> merged = new ArrayList<>(limit);
+        Set<String> seen = new HashSet<>();
+        while (!heads.isEmpty() && merged.size() < limit) {
+            int[] head = heads.poll();
+            List<TimelineEntry> source = sources.get(head[0]);
+            TimelineEntry entry = source.get(head[1]);
+            if (seen.add(entry.getPostId())) {
+                merged.add(entry);
+            }
+            if (head[1] + 1 < source.size()) {
+                heads.add(new int[] {head[0], head[1] + 1});
+            }
+        }
+        return merged;
+    }
+
+    /** The subset of the given users whose follower count is at or above the threshold. */
+    private Set<String> findPullAuthors(Collection<String> userIds) {
+        if (userIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        // "followers.N exists" is true exactly when the array has more than N elements
+        Query query = Query.query(Criteria.where("_id").in(userIds)
+                .and("followers." + (followerThreshold - 1)).exists(true));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, User.class).stream()
+                .map(User::getId)
+                .collect(Collectors.toSet());
+    }
+
+    private Set<String> getFollowing(String userId) {
+        Query query = byOwner(userId);
+        query.fields().include("following");
+        User user = mongoTemplate.findOne(query, User.class);
+        return user == null || user.getFollowing() == null ? Collections.emptySet() : user.getFollowing();
+    }
+
+    private record FollowerCount(int followerCount, List<String> followers) {
+    }
+
+    // The follower count via $size, and the follower ids only when they are pushed to, i.e. below the threshold
+    private FollowerCount countFollowers(String userId) {
+        Document size = new Document("$size", new Document("$ifNull", List.of("$followers", List.of())));
+        Document belowThreshold = new Document("$lt", List.of(size, followerThreshold));
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("_id").is(userId)),
+                Aggregation.project()
+                        .and(context -> size).as("followerCount")
+                        .and(context -> new Document("$cond", List.of(belowThreshold, "$followers", List.of())))
+                        .as("followers"));
+        Document result = mongoTemplate.aggregate(aggregation, User.class, Document.class).getUniqueMappedResult();
+        if (result == null) {
+            return new FollowerCount(0, List.of());
+        }
+        List<String> followers = result.getList("followers", String.class);
+        return new FollowerCount(result.getInteger("followerCount", 0), followers == null ? List.of() : followers);
+    }
+
+    private void removeAuthor(String ownerId, String authorId) {
+        mongoTemplate.updateFirst(byOwner(ownerId),
+                new Update().pull("entries", new Document("authorId", authorId)), Timeline.class);
+    }
+
+    private static boolean isAfter(TimelineEntry entry, FeedCursor cursor) {
+        int byTime = entry.getCreatedAt().compareTo(cursor.getCreatedAt());
+        return byTime < 0 || (byTime == 0 && entry.getPostId().compareTo(cursor.getId()) < 0);
+    }
+
+    private static Query byOwner(String ownerId) {
+        return Query.query(Criteria.where("_id").is(ownerId));
+    }
+
+    private static Update pushEntries(List<TimelineEntry> entries) {
+        Update update = new Update();
+        update.push("entries")
+                .sort(Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by(Sort.Direction.DESC, "postId")))
+                .slice(TIMELINE_CAP)
+                .each(entries.toArray());
+        return update;
+    }
+
+    private TimelineEntry toEntry(Post post) {
+        return new TimelineEntry(post.getId(), post.getUserId(), post.getCreatedAt());
+    }
+}
@@ -0,0 +1,61 @@
+package com.skillnest.backend.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * "Trending this hour / today" from like and comment events, kept in memory per instance
+ * in sliding-window heavy-hitter sketches instead of aggregating the likes and comments
+ * collections on every request.
+ */
+@Service
+public class TrendingService {
+
+    public static final int MAX_TRENDING = 50;
+
+    private final Map<String, SlidingWindowTopK> windows;
+    private final long likeWeight;
+    private final long commentWeight;
+
+    public TrendingService(
+            @Value("${trending.capacity-per-bucket:500}") int capacity,
+            @Value("${trending.like-weight:1}") long likeWeight,
+            @Value("${trending.comment-weight:2}") long commentWeight) {
+        this.windows = Map.of(
+                "hour", new SlidingWindowTopK(Duration.ofHours(1).toMillis(), 12, capacity),
+                "day", new SlidingWindowTopK(Duration.ofDays(1).toMillis(), 24, capacity));
+        this.likeWeight = likeWeight;
+        this.commentWeight = commentWeight;
+    }
+
+    public void onLike(String postId) {
+        record(postId, likeWeight);
+    }
+
+    public void onComment(String postId) {
+        record(postId, commentWeight);
+    }
+
+    /** Ids of the top posts in the window ("hour" or "day"), most active first. */
+    public List<String> getTrendingPostIds(String window, int limit) {
+        SlidingWindowTopK sketch = windows.get(window);
+        if (sketch == null) {
+            throw new IllegalArgumentException("Unknown trending window: " + window);
+        }
+        return sketch.top(Math.min(limit, MAX_TRENDING), System.currentTimeMillis()).stream()
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private void record(String postId, long weight) {
+        long now = System.currentTimeMillis();
+        for (SlidingWindowTopK sketch : windows.values()) {
+            sketch.offer(postId, weight, now);
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.skillnest.backend.service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.skillnest.backend.model.UploadBlob;
+import com.skillnest.backend.model.UploadName;
+
+/**
+ * Mark-and-sweep collection of uploads nothing refers to any more. Reference counting in the
+ * {@link UploadStore} frees a blob once its names go, but a name is only released by code
+ * that remembers to, so names outlive posts, showcases, documents and resumes deleted by
+ * older code or by hand, and files can be left behind by a crash between Mongo and the disk.
+ *
+ * Mark streams the reference fields of every collection that holds upload URLs into one set
+ * of live names. Sweep then pages through upload_names, the legacy files at the top of the
+ * upload directory and the local blob tree, and removes what is unreferenced and older than
+ * the grace period; the grace period is what keeps an upload whose post is still being saved
+ * from being taken. Work is paced by a pause between pages and a cap on deletes per second
+ * so a large sweep never competes with serving. In dry-run mode nothing is removed and the
+ * report says what would have been.
+ */
+@Service
+public class UploadCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadCollector.class);
+
+    private static final int SAMPLE_SIZE = 50;
+
+    // Collection -> fields that hold upload URLs, nested ones included (post media carry their variants and posters)
+    private static final Map<String, List<String>> REFERENCES = Map.of(
+            "posts", List.of("mediaUrls", "media"),
+            "users", List.of("resume", "profileImage", "profileImageOriginal", "coverImage"),
+            "showcases", List.of("filePath"),
+            "documents", List.of("filePath"),
+            "upload_sessions", List.of("url"),
+            "deletion_jobs", List.of("mediaUrls"));
+
+    /**
+     * What one run removed, or in a dry run would have. Bytes add up each unreferenced name's
+     * size, so a blob shared by several such names is counted once per name.
+     */
+    public record Report(boolean dryRun, Instant startedAt, Instant finishedAt, long liveReferences,
+            long namesScanned, long orphanNames, long legacyFilesScanned, long orphanLegacyFiles,
+            long blobFilesScanned, long orphanBlobFiles, long orphanBytes, List<String> samples) {
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final UploadStore uploadStore;
+    private final Path blobRoot;
+    private final boolean dryRun;
+    private final long graceHours;
+    private final int pageSize;
+    private final long pagePauseMillis;
+    private final long deleteIntervalMillis;
+    private volatile Report lastReport;
+
+    public UploadCollector(
+            MongoTemplate mongoTemplate,
+            UploadStore uploadStore,
+            @Value("${upload.gc.dry-run:true}") boolean dryRun,
+            @Value("${upload.gc.grace-hours:48}") long graceHours,
+            @Value("${upload.gc.page-size:500}") int pageSize,
+            @Value("${upload.gc.page-pause-millis:200}") long pagePauseMillis,
+            @Value("${upload.gc.max-deletes-per-second:50}") int maxDeletesPerSecond) {
+        this.mongoTemplate = mongoTemplate;
+        this.uploadStore = uploadStore;
+        this.blobRoot = uploadStore.root().resolve(LocalBlobStore.DIRECTORY);
+        this.dryRun = dryRun;
+        this.graceHours = graceHours;
+        this.pageSize = pageSize;
+        this.pagePauseMillis = pagePauseMillis;
+        this.deleteIntervalMillis = 1000L / Math.max(1, maxDeletesPerSecond);
+    }
+
+    @Scheduled(cron = "${upload.gc.cron:0 30 3 * * *}")
+    public void scheduled() {
+        Report report = collect(dryRun);
+        logger.info("Upload GC{}: {} live references; {} of {} names, {} of {} legacy files and {} of {} blob files "
+                        + "unreferenced ({} bytes), e.g. {}",
+                report.dryRun() ? " (dry run)" : "", report.liveReferences(),
+                report.orphanNames(), report.namesScanned(),
+                report.orphanLegacyFiles(), report.legacyFilesScanned(),
+                report.orphanBlobFiles(), report.blobFilesScanned(),
+                report.orphanBytes(), report.samples());
+    }
+
+    /** One full mark and sweep. Runs one at a time; a second caller waits for the first. */
+    public synchronized Report collect(boolean dryRun) {
+        Sweep sweep = new Sweep(dryRun, LocalDateTime.now().minusHours(graceHours));
+        Set<String> live = mark();
+        try {
+            sweepNames(live, sweep);
+            sweepLegacyFiles(live, sweep);
+            sweepBlobFiles(sweep);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Upload GC interrupted; the rest is left for the next run");
+        } catch (IOException e) {
+            logger.warn("Upload GC stopped walking the upload directory", e);
+        }
+        Report report = sweep.report(live.size());
+        lastReport = report;
+        return report;
+    }
+
+    /** The report of the most recent run, real or dry, since startup; null before the first. */
+    public Report lastReport() {
+        return lastReport;
+    }
+
+    // Every name some document refers to, by the last segment of its URL or legacy absolute path
+    private Set<String> mark() {
+        Set<String> live = new HashSet<>();
+        REFERENCES.forEach((collection, fields) -> {
+            Query query = new Query();
+            fields.forEach(field -> query.fields().include(field));
+            try (Stream<Document> documents = mongoTemplate.stream(query, Document.class, collection)) {
+                documents.forEach(document -> {
+                    document.remove("_id");
+                    collectNames(document, live);
+                });
+            }
+        });
+        return live;
+    }
+
+    private void sweepNames(Set<String> live, Sweep sweep) throws InterruptedException {
+        String after = null;
+        while (true) {
+            Query page = new Query().with(Sort.by("_id")).limit(pageSize);
+            if (after != null) {
+                page.addCriteria(Criteria.where("_id").gt(after));
+            }
+            List<UploadName> names = mongoTemplate.find(page, UploadName.class);
+            for (UploadName name : names) {
+                sweep.namesScanned++;
+                boolean old = name.getCreatedAt() == null || name.getCreatedAt().isBefore(sweep.cutoff);
+                if (old && !live.contains(name.getId())) {
+                    sweep.orphanNames++;
+                    sweep.orphan(name.getId(), name.getSize());
+                    if (!sweep.dryRun) {
+                        uploadStore.delete(name.getId());
+                        pace();
+                    }
+                }
+            }
+            if (names.size() < pageSize) {
+                return;
+            }
+            after = names.get(names.size() - 1).getId();
+            Thread.sleep(pagePauseMillis);
+        }
+    }
+
+    // Pre-store files still at the top of the upload directory; dot directories and the blob tree are skipped
+    private void sweepLegacyFiles(Set<String> live, Sweep sweep) throws IOException, InterruptedException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(uploadStore.root(), Files::isRegularFile)) {
+            int inPage = 0;
+            for (Path file : files) {
+                String name = UploadStore.nameOf(file.getFileName().toString());
+                if (name == null) {
+                    continue;
+                }
+                sweep.legacyFilesScanned++;
+                BasicFileAttributes attributes = attributes(file);
+                if (attributes != null && !live.contains(name) && isOld(attributes, sweep)
+                        && mongoTemplate.findById(name, UploadName.class) == null) {
+                    sweep.orphanLegacyFiles++;
+                    sweep.orphan(file.toString(), attributes.size());
+                    if (!sweep.dryRun) {
+                        Files.deleteIfExists(file);
+                        pace();
+                    }
+                }
+                if (++inPage == pageSize) {
+                    inPage = 0;
+                    Thread.sleep(pagePauseMillis);
+                }
+            }
+        }
+    }
+
+    // Blob files no upload_blobs entry accounts for, left by a crash between the write and the record
+    private void sweepBlobFiles(Sweep sweep) throws IOException, InterruptedException {
+        if (!Files.isDirectory(blobRoot)) {
+            return; // blobs live in GridFS or S3
+        }
+        try (Stream<Path> walk = Files.walk(blobRoot)) {
+            Iterator<Path> files = walk.filter(Files::isRegularFile).iterator();
+            List<Path> page = new ArrayList<>(pageSize);
+            while (files.hasNext()) {
+                page.add(files.next());
+                if (page.size() == pageSize || !files.hasNext()) {
+                    sweepBlobPage(page, sweep);
+                    page.clear();
+                    Thread.sleep(pagePauseMillis);
+                }
+            }
+        }
+    }
+
+    private void sweepBlobPage(List<Path> page, Sweep sweep) throws IOException, InterruptedException {
+        List<String> hashes = page.stream().map(file -> file.getFileName().toString()).toList();
+        Query known = Query.query(Criteria.where("_id").in(hashes));
+        known.fields().include("_id");
+        Set<String> recorded = new HashSet<>();
+        mongoTemplate.find(known, UploadBlob.class).forEach(blob -> recorded.add(blob.getId()));
+
+        for (Path file : page) {
+            sweep.blobFilesScanned++;
+            BasicFileAttributes attributes = attributes(file);
+            if (attributes != null && !recorded.contains(file.getFileName().toString()) && isOld(attributes, sweep)) {
+                sweep.orphanBlobFiles++;
+                sweep.orphan(file.toString(), attributes.size());
+                if (!sweep.dryRun) {
+                    Files.deleteIfExists(file);
+                    pace();
+                }
+            }
+        }
+    }
+
+    private void pace() throws InterruptedException {
+        Thread.sleep(deleteIntervalMillis);
+    }
+
+    // Null when the file went away since it was listed, e.g. reaped meanwhile
+    private static BasicFileAttributes attributes(Path file) throws IOException {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private static boolean isOld(BasicFileAttributes attributes, Sweep sweep) {
+        return attributes.lastModifiedTime().toInstant()
+                .isBefore(sweep.cutoff.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    // Only strings with a path separator are references; kinds, statuses and data URIs are not
+    private static void collectNames(Object value, Set<String> live) {
+        if (value instanceof String reference) {
+            if ((reference.indexOf('/') >= 0 || reference.indexOf('\\') >= 0) && !reference.startsWith("data:")) {
+                String name = UploadStore.nameOf(reference);
+                if (name != null) {
+                    live.add(name);
+                }
+            }
+        } else if (value instanceof Document document) {
+            document.values().forEach(nested -> collectNames(nested, live));
+        } else if (value instanceof List<?> list) {
+            list.forEach(nested -> collectNames(nested, live));
+        }
+    }
+
+    private static final class Sweep {
+
+        final boolean dryRun;
+        final LocalDateTime cutoff;
+        final Instant startedAt = Instant.now();
+        final List<String> samples = new ArrayList<>();
+        long namesScanned;
+        long orphanNames;
+        long legacyFilesScanned;
+        long orphanLegacyFiles;
+        long blobFilesScanned;
+        long orphanBlobFiles;
+        long orphanBytes;
+
+        Sweep(boolean dryRun, LocalDateTime cutoff) {
+            this.dryRun = dryRun;
+            this.cutoff = cutoff;
+        }
+
+        void orphan(String what, long size) {
+            orphanBytes += size;
+            if (samples.size() < SAMPLE_SIZE) {
+                samples.add(what);
+            }
+        }
+
+        Report report(long liveReferences) {
+            return new Report(dryRun, startedAt, Instant.now(), liveReferences, namesScanned, orphanNames,
+                    legacyFilesScanned, orphanLegacyFiles, blobFilesScanned, orphanBlobFiles, orphanBytes,
+                    List.copyOf(samples));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.skillnest.backend.service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+// GET /actuator/uploadgc (admins only, see SecurityConfig): the last collector report, nightly run or dry run.
+// A full mark and sweep is far too slow for a request thread, so when there is no report yet, or the last is
+// older than upload.gc.report-max-age-minutes, a dry run is started in the background; GET again for its report.
+@Component
+@Endpoint(id = "uploadgc")
+public class UploadCollectorEndpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadCollectorEndpoint.class);
+
+    /** The last report, null before the first run, and whether a dry run is under way. */
+    public record Status(UploadCollector.Report lastReport, boolean dryRunRunning) {
+    }
+
+    private final UploadCollector uploadCollector;
+    private final long maxAgeMinutes;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "upload-gc-report");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public UploadCollectorEndpoint(
+            UploadCollector uploadCollector,
+            @Value("${upload.gc.report-max-age-minutes:60}") long maxAgeMinutes) {
+        this.uploadCollector = uploadCollector;
+        this.maxAgeMinutes = maxAgeMinutes;
+    }
+
+    @ReadOperation
+    public Status report() {
+        UploadCollector.Report last = uploadCollector.lastReport();
+        boolean stale = last == null || last.finishedAt().isBefore(Instant.now().minus(maxAgeMinutes, ChronoUnit.MINUTES));
+        if (stale && running.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    uploadCollector.collect(true);
+                } catch (RuntimeException e) {
+                    logger.warn("Upload GC dry run failed", e);
+                } finally {
+                    running.set(false);
+                }
+            });
+        }
+        return new Status(last, running.get());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
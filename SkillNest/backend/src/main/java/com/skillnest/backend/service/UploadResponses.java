@@ -0,0 +1,104 @@
+package com.skillnest.backend.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Responses for files from the {@link UploadStore}. The body is the file's Resource;
+ * Spring MVC answers a Range header on it with 206 and ResourceRegions (multipart/byteranges
+ * for several ranges, 416 for unsatisfiable ones) and copies to the socket through a small
+ * fixed buffer, so a download costs the same heap whatever the file size. This adds the
+ * conditional side: ETag / Last-Modified validation and If-Range. Only images, video and
+ * PDF are served inline; everything else is an octet-stream attachment.
+ */
+public final class UploadResponses {
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofHours(1)).cachePublic();
+    private static final String NOSNIFF_HEADER = "X-Content-Type-Options";
+
+    private UploadResponses() {
+    }
+
+    public static ResponseEntity<Resource> of(UploadStore.StoredFile file, WebRequest request) throws IOException {
+        long lastModified = file.lastModified().toEpochMilli();
+        if (request.checkNotModified(file.etag(), lastModified)) {
+            return notModified(file.etag());
+        }
+
+        // Content-Length is left to the converter, which knows whether a range is being sent
+        MediaType type = mediaType(file.contentType());
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .header(NOSNIFF_HEADER, "nosniff")
+                .eTag(file.etag())
+                .lastModified(lastModified)
+                .cacheControl(CACHE_CONTROL);
+        if (rendersInline(type)) {
+            response.contentType(type);
+        } else {
+            // An uploaded HTML or SVG page served inline would run script on this origin
+            response.contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            ContentDisposition.attachment().filename(file.name(), StandardCharsets.UTF_8).build().toString());
+        }
+        if (request.getHeader(HttpHeaders.RANGE) != null
+                && !rangeStillValid(request.getHeader(HttpHeaders.IF_RANGE), file.etag(), lastModified)) {
+            // Spring does not split an InputStreamResource into ranges, so a stale If-Range gets the whole file
+            return response.contentLength(file.size()).body(new InputStreamResource(file.resource().getInputStream()));
+        }
+        return response.body(file.resource());
+    }
+
+    /** The 304 for a request already found to be fresh, for callers that validate before they have the file. */
+    public static ResponseEntity<Resource> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CACHE_CONTROL)
+                .build();
+    }
+
+    // A Range only applies if the client's copy, named by If-Range, is still the current one
+    private static boolean rangeStillValid(String ifRange, String etag, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals("\"" + etag + "\""); // weak tags never match for ranges
+        }
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.IF_RANGE, ifRange);
+            return headers.getFirstDate(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // Images other than SVG, video and PDF; the recorded type is the client's claim, which nosniff makes the browser honour
+    private static boolean rendersInline(MediaType type) {
+        return ("image".equals(type.getType()) && !"svg+xml".equals(type.getSubtype()))
+                || "video".equals(type.getType())
+                || MediaType.APPLICATION_PDF.equalsTypeAndSubtype(type);
+    }
+
+    // The recorded type came from the uploading client and may be missing or malformed
+    private static MediaType mediaType(String contentType) {
+        try {
+            return contentType != null ? MediaType.parseMediaType(contentType) : MediaType.APPLICATION_OCTET_STREAM;
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.skillnest.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.skillnest.backend.model.UploadBlob;
+import com.skillnest.backend.model.UploadName;
+
+/**
+ * Content-addressed store behind every "/uploads/<name>" URL. Bytes are hashed with SHA-256
+ * while they stream to a temp file and kept once per hash in the {@link BlobStore}; the
+ * upload_names collection maps each logical name to its blob and upload_blobs counts the
+ * names per blob. A blob whose count drops to zero is reaped after a grace period.
+ *
+ * Reaping marks the blob's record before the bytes are deleted and removes it only after,
+ * and retain never matches a marked record. An upload of the same content meanwhile waits
+ * for the reap to finish and then counts against a fresh record, so its bytes are written
+ * again instead of being skipped as already present and deleted from under it.
+ * Files written before the store existed still sit directly in the upload directory and
+ * are resolved by name until {@link UploadStoreMigration} adopts them.
+ */
+@Service
+public class UploadStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadStore.class);
+
+    public static final String URL_PREFIX = "/uploads/";
+    private static final int REAP_BATCH = 500;
+    // A mark older than this is a reaper that died between marking and removing; the next run finishes it
+    private static final long REAP_LEASE_MINUTES = 5;
+    private static final int RETAIN_ATTEMPTS = 100;
+    private static final long RETAIN_WAIT_MILLIS = 50;
+
+    /** What a stream was stored as: its URL, content hash and length, all taken in the one pass that wrote it. */
+    public record Stored(String url, String hash, long size) {
+    }
+
+    /** A name's bytes, what to serve them as, and the validators for conditional requests. */
+    public record StoredFile(String name, Resource resource, String contentType, long size, String etag, Instant lastModified) {
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final BlobStore blobStore;
+    private final Path root;
+    private final Path tempRoot;
+    private final long reapGraceMinutes;
+
+    public UploadStore(
+            MongoTemplate mongoTemplate,
+            BlobStore blobStore,
+            @Value("${file.upload-dir}") String uploadDir,
+            @Value("${upload.store.reap-grace-minutes:60}") long reapGraceMinutes) throws IOException {
+        this.mongoTemplate = mongoTemplate;
+        this.blobStore = blobStore;
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.tempRoot = root.resolve(".tmp");
+        this.reapGraceMinutes = reapGraceMinutes;
+        Files.createDirectories(tempRoot);
+    }
+
+    /**
+     * Stores an upload under a fresh "<uuid>_<original name>" and returns its URL. The servlet
+     * container has already spooled the part into this store's temp directory, so transferTo
+     * renames that file instead of copying it, and it is then moved into place as is.
+     */
+    public String store(MultipartFile file) throws IOException {
+        Path temp = Files.createTempFile(tempRoot, "upload-", ".part");
+        try {
+            file.transferTo(temp.toFile()); // the File overload is the one that hands the part a rename
+            String name = newName(file.getOriginalFilename());
+            register(name, hash(temp), Files.size(temp), temp, file.getContentType());
+            return URL_PREFIX + name;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public String store(String originalFilename, InputStream in, String contentType) throws IOException {
+        return ingest(originalFilename, in, contentType).url();
+    }
+
+    /** Stores a raw stream, such as a request body, writing it to disk once while it is hashed and counted. */
+    public Stored ingest(String originalFilename, InputStream in, String contentType) throws IOException {
+        return write(newName(originalFilename), in, contentType);
+    }
+
+    /** Stores content under the given name, releasing whatever the name pointed at before. */
+    public String storeAs(String name, InputStream in, String contentType) throws IOException {
+        checkName(name);
+        return write(name, in, contentType).url();
+    }
+
+    /**
+     * Stores a file already complete on this node's disk, such as a finished resumable upload,
+     * whose SHA-256 the caller computed. The file may be moved into the store rather than copied.
+     */
+    public String storeFile(String originalFilename, Path file, String hash, long size, String contentType) throws IOException {
+        String name = newName(originalFilename);
+        register(name, hash, size, file, contentType);
+        return URL_PREFIX + name;
+    }
+
+    /** The file behind an upload URL or bare name, registered or legacy. */
+    public Optional<StoredFile> find(String urlOrName) {
+        String name = nameOf(urlOrName);
+        if (name == null) {
+            return Optional.empty();
+        }
+        UploadName entry = mongoTemplate.findById(name, UploadName.class);
+        if (entry != null) {
+            Resource blob = blobStore.get(entry.getHash(), entry.getSize());
+            if (!blob.exists()) {
+                return Optional.empty();
+            }
+            // The name is re-pointed on overwrite, so its own timestamp is the right Last-Modified, not the blob's
+            Instant lastModified = entry.getCreatedAt() == null
+                    ? Instant.EPOCH
+                    : entry.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant();
+            return Optional.of(new StoredFile(name, blob, entry.getContentType(), entry.getSize(),
+                    Etags.blob(entry.getHash()), lastModified));
+        }
+        Path legacy = root.resolve(name);
+        if (!Files.isRegularFile(legacy)) {
+            return Optional.empty();
+        }
+        try {
+            long size = Files.size(legacy);
+            Instant lastModified = Files.getLastModifiedTime(legacy).toInstant();
+            return Optional.of(new StoredFile(name, new FileSystemResource(legacy), Files.probeContentType(legacy), size,
+                    Etags.file(size, lastModified.toEpochMilli()), lastModified));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /** Whether a URL points into this store, as opposed to a data URI or an external image such as a Google avatar. */
+    public static boolean isUploadUrl(String url) {
+        return url != null && url.startsWith(URL_PREFIX) && nameOf(url) != null;
+    }
+
+    /** Drops a name. Its blob goes once no other name refers to it; a legacy file goes at once. */
+    public void delete(String urlOrName) {
+        String name = nameOf(urlOrName);
+        if (name == null) {
+            return;
+        }
+        UploadName removed = mongoTemplate.findAndRemove(byId(name), UploadName.class);
+        if (removed != null) {
+            release(removed.getHash());
+            return;
+        }
+        try {
+            Files.deleteIfExists(root.resolve(name));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to delete file: " + name, e);
+        }
+    }
+
+    /**
+     * Moves a pre-store file from the top of the upload directory into the blob layout under
+     * its own name; true when its bytes were already stored. A crash part-way can only
+     * over-count the blob (a leak), never under-count it.
+     */
+    boolean adopt(Path legacy) throws IOException {
+        String name = legacy.getFileName().toString();
+        UploadName existing = mongoTemplate.findById(name, UploadName.class);
+        if (existing != null) {
+            blobStore.put(existing.getHash(), legacy); // an earlier run registered it but did not get to the move
+            Files.deleteIfExists(legacy);
+            return false;
+        }
+        String hash = hash(legacy);
+        long size = Files.size(legacy);
+        String contentType = Files.probeContentType(legacy); // blobs have no extension to probe
+        boolean duplicate = blobStore.exists(hash);
+        retain(hash, size);
+        mongoTemplate.insert(new UploadName(name, hash, contentType, size));
+        blobStore.put(hash, legacy);
+        Files.deleteIfExists(legacy);
+        return duplicate;
+    }
+
+    Path root() {
+        return root;
+    }
+
+    // Blobs unreferenced for the whole grace period. The conditional mark loses to any concurrent
+    // retain, so a blob that just got a new name is kept; once marked, retain waits for the remove.
+    @Scheduled(fixedDelayString = "${upload.store.reap-millis:600000}")
+    public void reap() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(reapGraceMinutes);
+        Criteria unreferenced = Criteria.where("refCount").lte(0).and("zeroSince").lte(cutoff);
+        List<UploadBlob> candidates = mongoTemplate.find(Query.query(unreferenced).limit(REAP_BATCH), UploadBlob.class);
+        int reaped = 0;
+        for (UploadBlob blob : candidates) {
+            LocalDateTime now = LocalDateTime.now();
+            Query markable = Query.query(Criteria.where("_id").is(blob.getId())
+                    .and("refCount").lte(0).and("zeroSince").lte(cutoff)
+                    .orOperator(Criteria.where("reapingSince").exists(false),
+                            Criteria.where("reapingSince").lt(now.minusMinutes(REAP_LEASE_MINUTES))));
+            if (mongoTemplate.updateFirst(markable, new Update().set("reapingSince", now), UploadBlob.class)
+                    .getModifiedCount() == 0) {
+                continue;
+            }
+            try {
+                blobStore.delete(blob.getId());
+            } catch (IOException e) {
+                logger.warn("Could not delete unreferenced blob {}", blob.getId(), e);
+                continue; // still marked, so the bytes stay unusable until a later run gets them deleted
+            }
+            mongoTemplate.remove(byId(blob.getId()), UploadBlob.class);
+            reaped++;
+        }
+        if (reaped > 0) {
+            logger.info("Reaped {} unreferenced upload blobs", reaped);
+        }
+    }
+
+    private Stored write(String name, InputStream in, String contentType) throws IOException {
+        Path temp = Files.createTempFile(tempRoot, "upload-", ".part");
+        try {
+            MessageDigest sha256 = sha256();
+            long size;
+            try (InputStream digesting = new DigestInputStream(in, sha256);
+                    OutputStream out = Files.newOutputStream(temp)) {
+                size = digesting.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(sha256.digest());
+            register(name, hash, size, temp, contentType);
+            return new Stored(URL_PREFIX + name, hash, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Points the name at the blob, counting the reference before the bytes are placed so a reaper never sees it at zero
+    private void register(String name, String hash, long size, Path source, String contentType) throws IOException {
+        retain(hash, size);
+        blobStore.put(hash, source);
+        UploadName previous = mongoTemplate.findAndReplace(byId(name),
+                new UploadName(name, hash, contentType, size),
+                FindAndReplaceOptions.options().upsert());
+        if (previous != null) {
+            release(previous.getHash());
+        }
+    }
+
+    // A record being reaped does not match, so the upsert collides with its _id until the reaper has removed it
+    private void retain(String hash, long size) {
+        Query notReaping = Query.query(Criteria.where("_id").is(hash).and("reapingSince").exists(false));
+        Update update = new Update()
+                .inc("refCount", 1)
+                .unset("zeroSince")
+                .setOnInsert("size", size)
+                .setOnInsert("createdAt", LocalDateTime.now());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                mongoTemplate.upsert(notReaping, update, UploadBlob.class);
+                return;
+            } catch (DuplicateKeyException e) {
+                if (attempt == RETAIN_ATTEMPTS) {
+                    throw new IllegalStateException("Blob " + hash + " is still being reaped", e);
+                }
+                try {
+                    Thread.sleep(RETAIN_WAIT_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted waiting for blob " + hash + " to be reaped", interrupted);
+                }
+            }
+        }
+    }
+
+    private void release(String hash) {
+        UploadBlob blob = mongoTemplate.findAndModify(byId(hash), new Update().inc("refCount", -1),
+                FindAndModifyOptions.options().returnNew(true), UploadBlob.class);
+        if (blob != null && blob.getRefCount() <= 0) {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(hash).and("refCount").lte(0)),
+                    new Update().set("zeroSince", LocalDateTime.now()), UploadBlob.class);
+        }
+    }
+
+    // Last path segment of a URL, a legacy absolute path or a bare name; null when unusable
+    static String nameOf(String urlOrName) {
+        if (urlOrName == null) {
+            return null;
+        }
+        String name = urlOrName.substring(Math.max(urlOrName.lastIndexOf('/'), urlOrName.lastIndexOf('\\')) + 1);
+        return name.isEmpty() || name.startsWith(".") ? null : name;
+    }
+
+    private static void checkName(String name) {
+        if (nameOf(name) == null || !name.equals(nameOf(name))) {
+            throw new IllegalArgumentException("Invalid upload name: " + name);
+        }
+    }
+
+    private static String newName(String originalFilename) {
+        return UUID.randomUUID() + "_" + cleanName(originalFilename);
+    }
+
+    private static String cleanName(String originalFilename) {
+        String name = nameOf(originalFilename);
+        return name == null ? "file" : name;
+    }
+
+    /** Hex SHA-256 of a file, read in one sequential pass. */
+    static String hash(Path file) throws IOException {
+        MessageDigest sha256 = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), sha256)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(sha256.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("_id").is(id));
+    }
+}
@@ -0,0 +1,57 @@
+package com.skillnest.backend.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-time adoption of the "<uuid>_<name>" files written straight into the upload directory
+ * before {@link UploadStore}. Each keeps its name and URL; byte-identical copies collapse
+ * into one blob. Once every file is adopted this is a directory listing at startup.
+ */
+@Component
+public class UploadStoreMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadStoreMigration.class);
+
+    private final UploadStore uploadStore;
+
+    public UploadStoreMigration(UploadStore uploadStore) {
+        this.uploadStore = uploadStore;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        List<Path> legacy;
+        try (Stream<Path> files = Files.list(uploadStore.root())) {
+            legacy = files.filter(Files::isRegularFile)
+                    .filter(file -> UploadStore.nameOf(file.getFileName().toString()) != null)
+                    .toList();
+        }
+        int duplicates = 0;
+        long savedBytes = 0;
+        for (Path file : legacy) {
+            long size = Files.size(file);
+            try {
+                if (uploadStore.adopt(file)) {
+                    duplicates++;
+                    savedBytes += size;
+                }
+            } catch (IOException e) {
+                logger.warn("Could not move {} into the upload store; it is still served from its old path", file, e);
+            }
+        }
+        if (!legacy.isEmpty()) {
+            logger.info("Moved {} uploads into the content-addressed store; {} were duplicates ({} bytes freed)",
+                    legacy.size(), duplicates, savedBytes);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.skillnest.backend.service;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import com.skillnest.backend.model.User;
+
+/**
+ * The unique index on users.email. It is built here rather than declared on User because
+ * Mongo will not build a unique index over existing duplicates, and auto index creation
+ * would then stop startup with a bare E11000. Duplicates are looked for first; if there are
+ * any, each address is logged with the accounts sharing it and the index is left off until
+ * they have been merged, so the app still starts. Runs before the {@link IndexVerifier}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class UserEmailIndex implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserEmailIndex.class);
+
+    // Same name and options auto index creation used, so existing deployments keep their index
+    static final String INDEX_NAME = "email";
+    private static final int REPORTED = 50;
+
+    /** An address held by more than one account. */
+    public record Duplicate(String email, List<String> userIds) {
+    }
+
+    private final MongoTemplate mongoTemplate;
+
+    public UserEmailIndex(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<Duplicate> duplicates = findDuplicates();
+        if (!duplicates.isEmpty()) {
+            logger.error("Unique index on users.email not created: {}{} email addresses are shared by several accounts. "
+                            + "Merge or rename them and restart: {}",
+                    duplicates.size(), duplicates.size() == REPORTED ? "+" : "", duplicates);
+            return;
+        }
+        mongoTemplate.indexOps(User.class).ensureIndex(new Index("email", Sort.Direction.ASC).unique().named(INDEX_NAME));
+    }
+
+    List<Duplicate> findDuplicates() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("email").ne(null)),
+                Aggregation.group("email").count().as("count").push("_id").as("ids"),
+                Aggregation.match(Criteria.where("count").gt(1)),
+                Aggregation.sort(Sort.by("_id")),
+                Aggregation.limit(REPORTED));
+        return mongoTemplate.aggregate(aggregation, User.class, Document.class).getMappedResults().stream()
+                .map(group -> new Duplicate(group.getString("_id"),
+                        group.getList("ids", Object.class).stream().map(String::valueOf).toList()))
+                .toList();
+    }
+}
@@ -0,0 +1,120 @@
+package com.skillnest.backend.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.skillnest.backend.model.User;
+
+/**
+ * One-time move of profile and cover images stored as base64 data URIs on the user document
+ * into the upload store. Only users that still hold a data URI are read, so once everyone is
+ * migrated this is a single empty query at startup. A user whose image cannot be decoded
+ * keeps it and is logged; the next start tries again.
+ */
+@Component
+public class UserImageMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImageMigration.class);
+
+    private static final String DATA_URI = "^data:";
+
+    private final MongoTemplate mongoTemplate;
+    private final ProfileImageService profileImageService;
+
+    public UserImageMigration(MongoTemplate mongoTemplate, ProfileImageService profileImageService) {
+        this.mongoTemplate = mongoTemplate;
+        this.profileImageService = profileImageService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Query pending = Query.query(new Criteria().orOperator(
+                Criteria.where("profileImage").regex(DATA_URI),
+                Criteria.where("coverImage").regex(DATA_URI)));
+        pending.fields().include("_id").include("profileImage").include("coverImage");
+
+        int migrated = 0;
+        try (Stream<Document> users = mongoTemplate.stream(pending, Document.class, mongoTemplate.getCollectionName(User.class))) {
+            for (Document user : (Iterable<Document>) users::iterator) {
+                if (migrate(user)) {
+                    migrated++;
+                }
+            }
+        }
+        if (migrated > 0) {
+            logger.info("Moved the data URI images of {} users into the upload store", migrated);
+        }
+    }
+
+    private boolean migrate(Document user) {
+        Object id = user.get("_id");
+        String profileImage = user.getString("profileImage");
+        String coverImage = user.getString("coverImage");
+        Update update = new Update();
+        List<String> stored = new ArrayList<>();
+        try {
+            if (isDataUri(profileImage)) {
+                ProfileImageService.ProfileImage image = profileImageService.storeProfileImage(
+                        "profile" + extension(profileImage), decode(profileImage), contentType(profileImage));
+                stored.add(image.avatarUrl());
+                stored.add(image.originalUrl());
+                update.set("profileImage", image.avatarUrl()).set("profileImageOriginal", image.originalUrl());
+            }
+            if (isDataUri(coverImage)) {
+                String coverUrl = profileImageService.storeCoverImage(
+                        "cover" + extension(coverImage), decode(coverImage), contentType(coverImage));
+                stored.add(coverUrl);
+                update.set("coverImage", coverUrl);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not move the images of user {} out of the document", id, e);
+            stored.forEach(profileImageService::release);
+            return false;
+        }
+
+        // Only if neither image changed meanwhile; the version bump turns over the profile ETag,
+        // so clients drop the copy holding the data URI
+        Query unchanged = Query.query(Criteria.where("_id").is(id)
+                .and("profileImage").is(profileImage)
+                .and("coverImage").is(coverImage));
+        if (mongoTemplate.updateFirst(unchanged, update.inc("version", 1), User.class).getModifiedCount() == 0) {
+            stored.forEach(profileImageService::release);
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean isDataUri(String value) {
+        return value != null && value.startsWith("data:");
+    }
+
+    // data:<type>;base64,<payload>
+    private static String contentType(String dataUri) {
+        int end = dataUri.indexOf(';');
+        return end > "data:".length() ? dataUri.substring("data:".length(), end) : null;
+    }
+
+    private static String extension(String dataUri) {
+        String contentType = contentType(dataUri);
+        return contentType != null && contentType.startsWith("image/") ? "." + contentType.substring("image/".length()) : "";
+    }
+
+    private static ByteArrayInputStream decode(String dataUri) {
+        return new ByteArrayInputStream(Base64.getMimeDecoder().decode(dataUri.substring(dataUri.indexOf(',') + 1)));
+    }
+}
@@ -1,22 +1,23 @@
 package com.skillnest.backend.service;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
-import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -28,107 +29,149 @@ public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
-    private final Path fileStorageLocation;
+    private final UploadStore uploadStore;
+    private final ProfileImageService profileImageService;
 
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    public UserService(@Value("${file.upload-dir}") String uploadDir) throws IOException {
-        this.fileStorageLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
-        if (Files.notExists(fileStorageLocation)) {
-            Files.createDirectories(fileStorageLocation);
-        }
+    private TimelineService timelineService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private FeedPageCache feedPageCache;
+
+    @Autowired
+    public UserService(UploadStore uploadStore, ProfileImageService profileImageService) {
+        this.uploadStore = uploadStore;
+        this.profileImageService = profileImageService;
     }
 
     public Optional<User> findById(String id) {
         return userRepository.findById(id);
     }
 
+    /** ETag of a user's profile from a version-only read; empty when the user does not exist. */
+    public Optional<String> getProfileEtag(String id) {
+        return userRepository.findVersionById(id).map(user -> Etags.user(id, user.getVersion()));
+    }
+
     public User updateUser(String id, User updatedUser) {
-        return userRepository.findById(id).map(existing -> {
-            if (updatedUser.getName() != null) {
-                existing.setName(updatedUser.getName());
-            }
-            if (updatedUser.getHeadline() != null) {
-                existing.setHeadline(updatedUser.getHeadline());
-            }
-            if (updatedUser.getBio() != null) {
-                existing.setBio(updatedUser.getBio());
-            }
-            if (updatedUser.getTagline() != null) {
-                existing.setTagline(updatedUser.getTagline());
-            }
-            if (updatedUser.getGender() != null) {
-                existing.setGender(updatedUser.getGender());
-            }
-            if (updatedUser.getCountry() != null) {
-                existing.setCountry(updatedUser.getCountry());
-            }
-            if (updatedUser.getState() != null) {
-                existing.setState(updatedUser.getState());
-            }
-            if (updatedUser.getCity() != null) {
-                existing.setCity(updatedUser.getCity());
-            }
-            if (updatedUser.getRole() != null) {
-                existing.setRole(updatedUser.getRole());
-            }
-            if (updatedUser.getInstitution() != null) {
-                existing.setInstitution(updatedUser.getInstitution());
-            }
-            if (updatedUser.getLanguage() != null) {
-                existing.setLanguage(updatedUser.getLanguage());
-            }
-            if (updatedUser.getInternship() != null) {
-                existing.setInternship(updatedUser.getInternship());
-            }
-            if (updatedUser.getFieldOfStudy() != null) {
-                existing.setFieldOfStudy(updatedUser.getFieldOfStudy());
-            }
-            return userRepository.save(existing);
-        }).orElseThrow(() -> new RuntimeException("User not found"));
+        Update update = new Update();
+        setIfPresent(update, "name", updatedUser.getName());
+        setIfPresent(update, "headline", updatedUser.getHeadline());
+        setIfPresent(update, "bio", updatedUser.getBio());
+        setIfPresent(update, "tagline", updatedUser.getTagline());
+        setIfPresent(update, "gender", updatedUser.getGender());
+        setIfPresent(update, "country", updatedUser.getCountry());
+        setIfPresent(update, "state", updatedUser.getState());
+        setIfPresent(update, "city", updatedUser.getCity());
+        setIfPresent(update, "role", updatedUser.getRole());
+        setIfPresent(update, "institution", updatedUser.getInstitution());
+        setIfPresent(update, "language", updatedUser.getLanguage());
+        setIfPresent(update, "internship", updatedUser.getInternship());
+        setIfPresent(update, "fieldOfStudy", updatedUser.getFieldOfStudy());
+        if (update.getUpdateObject().isEmpty()) {
+            return reload(id); // nothing to change, so no new version either
+        }
+        User user = modify(id, update, true);
+        feedPageCache.invalidateAuthor(id); // name and country are on every feed card
+        return user;
     }
 
     public User uploadResume(String id, MultipartFile file) throws IOException {
-        return userRepository.findById(id).map(user -> {
-            try {
-                String filename = UUID.randomUUID() + "_" + file.getOriginalFilename();
-                Path targetLocation = fileStorageLocation.resolve(filename);
-                Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-                user.setResume("/uploads/" + filename);
-                return userRepository.save(user);
-            } catch (IOException e) {
-                throw new RuntimeException("Failed to upload resume", e);
-            }
-        }).orElseThrow(() -> new RuntimeException("User not found"));
+        if (!mongoTemplate.exists(byId(id), User.class)) {
+            throw new NoSuchElementException("User not found");
+        }
+        String resume = uploadStore.store(file);
+        User previous;
+        try {
+            previous = modify(id, new Update().set("resume", resume), false);
+        } catch (NoSuchElementException e) {
+            uploadStore.delete(resume); // deleted meanwhile
+            throw e;
+        }
+        if (previous.getResume() != null) {
+            uploadStore.delete(previous.getResume());
+        }
+        return reload(id);
+    }
+
+    public User updateProfileImage(String id, MultipartFile file) {
+        if (!mongoTemplate.exists(byId(id), User.class)) {
+            throw new NoSuchElementException("User not found");
+        }
+        ProfileImageService.ProfileImage image;
+        try (InputStream in = file.getInputStream()) {
+            image = profileImageService.storeProfileImage(file.getOriginalFilename(), in, file.getContentType());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to upload profile image", e);
+        }
+        User previous;
+        try {
+            previous = modify(id, new Update()
+                    .set("profileImage", image.avatarUrl())
+                    .set("profileImageOriginal", image.originalUrl()), false);
+        } catch (NoSuchElementException e) {
+            profileImageService.release(image.avatarUrl());
+            profileImageService.release(image.originalUrl());
+            throw e;
+        }
+        feedPageCache.invalidateAuthor(id);
+        profileImageService.release(previous.getProfileImage());
+        profileImageService.release(previous.getProfileImageOriginal());
+        return reload(id);
+    }
+
+    public User deleteProfileImage(String id) {
+        User previous = modify(id, new Update().unset("profileImage").unset("profileImageOriginal"), false);
+        feedPageCache.invalidateAuthor(id);
+        profileImageService.release(previous.getProfileImage());
+        profileImageService.release(previous.getProfileImageOriginal());
+        return reload(id);
+    }
+
+    public User updateCoverImage(String id, MultipartFile file) {
+        if (!mongoTemplate.exists(byId(id), User.class)) {
+            throw new NoSuchElementException("User not found");
+        }
+        String coverUrl;
+        try (InputStream in = file.getInputStream()) {
+            coverUrl = profileImageService.storeCoverImage(file.getOriginalFilename(), in, file.getContentType());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to upload cover image", e);
+        }
+        User previous;
+        try {
+            previous = modify(id, new Update().set("coverImage", coverUrl), false);
+        } catch (NoSuchElementException e) {
+            profileImageService.release(coverUrl);
+            throw e;
+        }
+        profileImageService.release(previous.getCoverImage());
+        return reload(id);
+    }
+
+    public User deleteCoverImage(String id) {
+        User previous = modify(id, new Update().unset("coverImage"), false);
+        profileImageService.release(previous.getCoverImage());
+        return reload(id);
     }
 
     public User deleteResume(String id) throws IOException {
-        return userRepository.findById(id).map(user -> {
-            if (user.getResume() == null) {
-                return user; // No resume to delete
-            }
-            try {
-                String resumePath = user.getResume().replace("/uploads/", "");
-                Path filePath = fileStorageLocation.resolve(resumePath);
-                if (Files.exists(filePath)) {
-                    Files.delete(filePath);
-                    logger.info("Deleted resume file: {}", filePath);
-                }
-                user.setResume(null);
-                return userRepository.save(user);
-            } catch (IOException e) {
-                throw new RuntimeException("Failed to delete resume file", e);
-            }
-        }).orElseThrow(() -> new RuntimeException("User not found"));
+        User previous = modify(id, new Update().unset("resume"), false);
+        if (previous.getResume() != null) {
+            uploadStore.delete(previous.getResume());
+            logger.info("Deleted resume file: {}", previous.getResume());
+        }
+        return reload(id);
     }
 
     public User updateSkills(String userId, List<String> newSkills) {
-        return userRepository.findById(userId).map(user -> {
-            user.setSkills(newSkills);
-            return userRepository.save(user);
-        }).orElseThrow(() -> new RuntimeException("User not found"));
+        return modify(userId, new Update().set("skills", newSkills), true);
     }
 
     public void follow(String followerId, String followedId) {
@@ -139,21 +182,22 @@ public class UserService {
             throw new IllegalArgumentException("Cannot follow yourself");
         }
 
-        User follower = userRepository.findById(followerId)
-                .orElseThrow(() -> new RuntimeException("Follower not found"));
-        User followed = userRepository.findById(followedId)
-                .orElseThrow(() -> new RuntimeException("User to follow not found"));
-
-        if (follower.getFollowing().contains(followedId)) {
+        if (!mongoTemplate.exists(byId(followedId), User.class)) {
+            throw new RuntimeException("User to follow not found");
+        }
+        // Conditional so that of two concurrent follows only one counts, and only a real change bumps the version
+        Query notYetFollowing = Query.query(Criteria.where("_id").is(followerId).and("following").ne(followedId));
+        if (mongoTemplate.updateFirst(notYetFollowing,
+                new Update().addToSet("following", followedId).inc("version", 1), User.class).getModifiedCount() == 0) {
+            if (!mongoTemplate.exists(byId(followerId), User.class)) {
+                throw new RuntimeException("Follower not found");
+            }
             logger.info("User {} already following {}", followerId, followedId);
             return;
         }
-
-        follower.getFollowing().add(followedId);
-        followed.getFollowers().add(followerId);
-
-        userRepository.save(follower);
-        userRepository.save(followed);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(followedId).and("followers").ne(followerId)),
+                new Update().addToSet("followers", followerId).inc("version", 1), User.class);
+        timelineService.onFollow(followerId, followedId);
         logger.info("User {} followed {}", followerId, followedId);
     }
 
@@ -162,21 +206,21 @@ public class UserService {
             throw new IllegalArgumentException("Invalid user IDs");
         }
 
-        User follower = userRepository.findById(followerId)
-                .orElseThrow(() -> new RuntimeException("Follower not found"));
-        User followed = userRepository.findById(followedId)
-                .orElseThrow(() -> new RuntimeException("User to unfollow not found"));
-
-        if (!follower.getFollowing().contains(followedId)) {
+        if (!mongoTemplate.exists(byId(followedId), User.class)) {
+            throw new RuntimeException("User to unfollow not found");
+        }
+        Query following = Query.query(Criteria.where("_id").is(followerId).and("following").is(followedId));
+        if (mongoTemplate.updateFirst(following,
+                new Update().pull("following", followedId).inc("version", 1), User.class).getModifiedCount() == 0) {
+            if (!mongoTemplate.exists(byId(followerId), User.class)) {
+                throw new RuntimeException("Follower not found");
+            }
             logger.info("User {} not following {}", followerId, followedId);
             return;
         }
-
-        follower.getFollowing().remove(followedId);
-        followed.getFollowers().remove(followerId);
-
-        userRepository.save(follower);
-        userRepository.save(followed);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(followedId).and("followers").is(followerId)),
+                new Update().pull("followers", followerId).inc("version", 1), User.class);
+        timelineService.onUnfollow(followerId, followedId);
         logger.info("User {} unfollowed {}", followerId, followedId);
     }
 
@@ -200,4 +244,30 @@ public class UserService {
         counts.put("followingCount", user.getFollowing().size());
         return counts;
     }
-}
\ No newline at end of file
+
+    // Profile edits $set just their own fields and bump the version in the same update, so they neither fail on
+    // a version a concurrent write moved on (as save() would) nor overwrite follows made in between.
+    // Returns the user as it is after the update, or as it was before so replaced uploads can be released.
+    private User modify(String id, Update update, boolean returnNew) {
+        User user = mongoTemplate.findAndModify(byId(id), update.inc("version", 1),
+                FindAndModifyOptions.options().returnNew(returnNew), User.class);
+        if (user == null) {
+            throw new NoSuchElementException("User not found");
+        }
+        return user;
+    }
+
+    private User reload(String id) {
+        return userRepository.findById(id).orElseThrow(() -> new NoSuchElementException("User not found"));
+    }
+
+    private static void setIfPresent(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
+        }
+    }
+
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("_id").is(id));
+    }
+}
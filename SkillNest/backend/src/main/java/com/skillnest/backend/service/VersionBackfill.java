@@ -0,0 +1,43 @@
+package com.skillnest.backend.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.client.result.UpdateResult;
+
+/**
+ * Gives users and posts written before the @Version field existed a starting version.
+ * Without one, Spring Data treats a loaded document as new and save() would try to
+ * insert it again. Runs once every singleton is created, which is before the web server
+ * starts, so no request can race it on a still-unversioned document.
+ */
+@Component
+public class VersionBackfill implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(VersionBackfill.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public VersionBackfill(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String collection : List.of("users", "posts")) {
+            UpdateResult result = mongoTemplate.updateMulti(Query.query(Criteria.where("version").exists(false)),
+                    new Update().set("version", 0L), collection);
+            if (result.getModifiedCount() > 0) {
+                logger.info("Initialised version on {} {}", result.getModifiedCount(), collection);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.skillnest.backend.TestcontainersConfiguration;
+import com.skillnest.backend.model.User;
+import com.skillnest.backend.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+class AuthorHydrationTests {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	private final List<String> userIds = new ArrayList<>();
+	private final List<String> calls = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		userRepository.deleteAllById(userIds);
+	}
+
+	@Test
+	void aPageOfRowsCostsOneQueryForItsDistinctAuthors() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		AuthorHydrationService service = new AuthorHydrationService(recording(userRepository), registry);
+		User ada = newUser("Ada");
+		User grace = newUser("Grace");
+		User linus = newUser("Linus");
+		// Repeated authors, a row without one and an author that no longer exists
+		List<String> rows = Arrays.asList(ada.getId(), grace.getId(), null, ada.getId(), linus.getId(),
+				grace.getId(), "000000000000000000000000");
+
+		Map<String, User> authors = service.loadAuthors(rows, row -> row);
+
+		assertEquals(List.of("findAuthorSummariesByIdIn"), calls);
+		assertEquals(3, authors.size());
+		assertEquals("Grace", authors.get(grace.getId()).getName());
+		assertEquals(linus.getEmail(), authors.get(linus.getId()).getEmail());
+		assertNull(authors.get(ada.getId()).getBio(), "only the summary fields are loaded");
+		// Six rows with an author used to be six findByIds; now they are one query
+		assertEquals(5.0, registry.get("author.hydration.lookups.saved").counter().count());
+	}
+
+	@Test
+	void rowsWithoutAuthorsCostNothing() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		AuthorHydrationService service = new AuthorHydrationService(recording(userRepository), registry);
+
+		assertTrue(service.loadAuthors(Arrays.<String>asList(null, null), row -> row).isEmpty());
+		assertTrue(calls.isEmpty());
+		assertEquals(0.0, registry.get("author.hydration.lookups.saved").counter().count());
+	}
+
+	// The real repository, noting the name of every method called on it
+	private UserRepository recording(UserRepository target) {
+		return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+				new Class<?>[] { UserRepository.class }, (proxy, method, args) -> {
+					calls.add(method.getName());
+					try {
+						return method.invoke(target, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+				});
+	}
+
+	private User newUser(String name) {
+		User user = new User();
+		user.setName(name);
+		user.setBio("Not part of the summary");
+		user.setEmail(name.toLowerCase() + "-" + System.nanoTime() + "@hydration.test");
+		User saved = userRepository.save(user);
+		userIds.add(saved.getId());
+		return saved;
+	}
+}
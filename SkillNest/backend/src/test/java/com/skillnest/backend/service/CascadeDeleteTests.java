@@ -0,0 +1,180 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.skillnest.backend.TestcontainersConfiguration;
+import com.skillnest.backend.model.CommentBucket;
+import com.skillnest.backend.model.DeletionJob;
+import com.skillnest.backend.model.Notification;
+import com.skillnest.backend.model.Post;
+import com.skillnest.backend.model.PostLike;
+import com.skillnest.backend.model.User;
+import com.skillnest.backend.repository.PostRepository;
+import com.skillnest.backend.repository.UserRepository;
+
+// The scheduled poll is pushed out of the way so each test drives the worker itself
+@SpringBootTest(properties = {
+		"file.upload-dir=target/cascade-test-uploads",
+		"cascade.delete.poll-millis=3600000"
+})
+@Import(TestcontainersConfiguration.class)
+class CascadeDeleteTests {
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private LikeCommentService likeCommentService;
+
+	@Autowired
+	private CascadeDeleteWorker cascadeDeleteWorker;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Value("${file.upload-dir}")
+	private String uploadDir;
+
+	private final List<String> userIds = new ArrayList<>();
+	private final List<String> postIds = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		mongoTemplate.remove(Query.query(Criteria.where("targetId").in(postIds)), DeletionJob.class);
+		postRepository.deleteAllById(postIds);
+		userRepository.deleteAllById(userIds);
+	}
+
+	@Test
+	void deleteReturnsAtOnceAndTheWorkerRemovesEverythingElse() throws Exception {
+		User author = newUser("author");
+		User reader = newUser("reader");
+		Path media = Files.createDirectories(Path.of(uploadDir)).resolve("cascade-" + System.nanoTime() + ".jpg");
+		Files.writeString(media, "jpeg");
+		String postId = newPost(author, List.of("/uploads/" + media.getFileName()));
+		likeCommentService.likePost(postId, reader.getId());
+		likeCommentService.addComment(postId, reader.getId(), "bye");
+
+		postService.deletePost(postId, author.getId());
+
+		assertFalse(postRepository.existsById(postId));
+		assertEquals(1, count(postId, CommentBucket.class)); // left for the worker
+		assertEquals(DeletionJob.PENDING, job(postId).getStatus());
+
+		cascadeDeleteWorker.poll();
+
+		assertEquals(DeletionJob.DONE, job(postId).getStatus());
+		assertEquals(0, count(postId, CommentBucket.class));
+		assertEquals(0, count(postId, PostLike.class));
+		assertEquals(0, count(postId, Notification.class));
+		assertFalse(Files.exists(media));
+	}
+
+	@Test
+	void onlyTheAuthorDeletesAndEditsOnlyRemoveThePostsOwnMedia() throws Exception {
+		User author = newUser("author");
+		User stranger = newUser("stranger");
+		Path media = Files.createDirectories(Path.of(uploadDir)).resolve("foreign-" + System.nanoTime() + ".jpg");
+		Files.writeString(media, "jpeg");
+		String foreignUrl = "/uploads/" + media.getFileName();
+		String victimId = newPost(author, List.of(foreignUrl));
+		String postId = newPost(stranger, List.of());
+
+		ResponseStatusException denied = assertThrows(ResponseStatusException.class,
+				() -> postService.deletePost(victimId, stranger.getId()));
+		assertEquals(HttpStatus.FORBIDDEN, denied.getStatusCode());
+		assertTrue(postRepository.existsById(victimId));
+		assertNull(job(victimId));
+
+		Post edit = new Post("Mine", "still mine", "public", false, stranger.getId(), null);
+		postService.updatePost(postId, edit, null, List.of(foreignUrl));
+		assertTrue(Files.exists(media));
+		assertEquals(List.of(foreignUrl), postRepository.findById(victimId).get().getMediaUrls());
+
+		Post takeover = new Post("Mine", "now", "public", false, stranger.getId(), null);
+		assertThrows(ResponseStatusException.class, () -> postService.updatePost(victimId, takeover, null, null));
+		Files.delete(media);
+	}
+
+	@Test
+	void expiredLeaseIsTakenOverAndLiveLeaseIsLeftAlone() {
+		User author = newUser("author");
+		String crashedPostId = newPost(author, List.of());
+		String busyPostId = newPost(author, List.of());
+		likeCommentService.addComment(crashedPostId, author.getId(), "orphan");
+		likeCommentService.addComment(busyPostId, author.getId(), "in progress");
+		mongoTemplate.insert(runningJob(crashedPostId, LocalDateTime.now().minusMinutes(5)));
+		mongoTemplate.insert(runningJob(busyPostId, LocalDateTime.now().plusMinutes(5)));
+
+		cascadeDeleteWorker.poll();
+
+		assertEquals(DeletionJob.DONE, job(crashedPostId).getStatus());
+		assertFalse(postRepository.existsById(crashedPostId));
+		assertEquals(0, count(crashedPostId, CommentBucket.class));
+		assertEquals(DeletionJob.RUNNING, job(busyPostId).getStatus());
+		assertTrue(postRepository.existsById(busyPostId));
+		mongoTemplate.remove(Query.query(Criteria.where("postId").is(busyPostId)), CommentBucket.class);
+	}
+
+	// A job whose node died mid-run: it still holds a lease, possibly expired
+	private static DeletionJob runningJob(String postId, LocalDateTime leaseUntil) {
+		DeletionJob job = new DeletionJob(CascadeDeleteWorker.POST, postId, List.of());
+		job.setStatus(DeletionJob.RUNNING);
+		job.setLeaseOwner("crashed-node");
+		job.setLeaseUntil(leaseUntil);
+		job.setAttempts(1);
+		return job;
+	}
+
+	private DeletionJob job(String postId) {
+		return mongoTemplate.findOne(Query.query(Criteria.where("targetId").is(postId)), DeletionJob.class);
+	}
+
+	private long count(String postId, Class<?> entityClass) {
+		return mongoTemplate.count(Query.query(Criteria.where("postId").is(postId)), entityClass);
+	}
+
+	private String newPost(User author, List<String> mediaUrls) {
+		Post post = new Post("Doomed", "delete me", "public", false, author.getId(), mediaUrls);
+		String postId = postRepository.save(post).getId();
+		postIds.add(postId);
+		return postId;
+	}
+
+	private User newUser(String name) {
+		User user = new User();
+		user.setName(name);
+		user.setEmail(name + "-" + System.nanoTime() + "@cascade.test");
+		User saved = userRepository.save(user);
+		userIds.add(saved.getId());
+		return saved;
+	}
+}
@@ -0,0 +1,253 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.skillnest.backend.TestcontainersConfiguration;
+import com.skillnest.backend.model.Comment;
+import com.skillnest.backend.model.CommentBucket;
+import com.skillnest.backend.model.FeedPage;
+import com.skillnest.backend.model.Post;
+import com.skillnest.backend.repository.PostRepository;
+
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+class CommentBucketTests {
+
+	private static final Logger logger = LoggerFactory.getLogger(CommentBucketTests.class);
+
+	private static final int COMMENTS = 5_000;
+	private static final int PAGE_READS = 1_000;
+	private static final int PAGE_SIZE = 10;
+	private static final String LEGACY_POSTS = "bench_legacy_posts";
+	private static final String LEGACY_COMMENTS = "bench_legacy_comments";
+
+	@Autowired
+	private CommentBucketStore commentBucketStore;
+
+	@Autowired
+	private LikeCommentService likeCommentService;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	private final List<String> postIds = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		for (String postId : postIds) {
+			mongoTemplate.remove(Query.query(Criteria.where("postId").is(postId)), CommentBucket.class);
+		}
+		postRepository.deleteAllById(postIds);
+		mongoTemplate.dropCollection(LEGACY_POSTS);
+		mongoTemplate.dropCollection(LEGACY_COMMENTS);
+		mongoTemplate.dropCollection("comments");
+	}
+
+	@Test
+	void pagesWalkEveryCommentNewestFirstAcrossBucketsAndHoles() {
+		String postId = newPost();
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 3 * CommentBucketStore.BUCKET_SIZE + 7; i++) {
+			ids.add(likeCommentService.addComment(postId, "author", "comment " + i).getId());
+		}
+		// Empty a whole bucket and punch holes in others
+		Set<String> deleted = new HashSet<>(ids.subList(CommentBucketStore.BUCKET_SIZE, 2 * CommentBucketStore.BUCKET_SIZE));
+		deleted.add(ids.get(3));
+		deleted.add(ids.get(ids.size() - 1));
+		for (String id : deleted) {
+			likeCommentService.deleteComment(id, "author");
+		}
+
+		List<String> seen = new ArrayList<>();
+		String cursor = null;
+		do {
+			FeedPage<Comment> page = likeCommentService.getCommentPage(postId, cursor, 7);
+			page.getItems().forEach(comment -> seen.add(comment.getId()));
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		List<String> expected = new ArrayList<>(ids);
+		expected.removeAll(deleted);
+		Collections.reverse(expected);
+		assertEquals(expected, seen);
+		assertEquals(expected.size(), likeCommentService.getCommentCount(postId));
+		assertFalse(mongoTemplate.findById(postId, Document.class, "posts").containsKey("commentIds"));
+	}
+
+	@Test
+	void editAndDeleteFindTheCommentInsideItsBucket() {
+		String postId = newPost();
+		Comment comment = likeCommentService.addComment(postId, "author", "first");
+
+		Comment edited = likeCommentService.editComment(comment.getId(), "author", "second");
+		likeCommentService.deleteComment(comment.getId(), "author");
+
+		assertEquals("second", edited.getContent());
+		assertTrue(commentBucketStore.find(comment.getId()).isEmpty());
+		assertNull(likeCommentService.getCommentPage(postId, null, null).getNextCursor());
+		assertEquals(0, likeCommentService.getCommentCount(postId));
+	}
+
+	@Test
+	void failedAppendGivesTheCountBackAndDeleteOutlivesItsPost() {
+		String postId = newPost();
+		// A bucket the $push cannot go into
+		mongoTemplate.insert(new Document("_id", CommentBucketStore.bucketId(postId, 0)).append("postId", postId)
+				.append("seq", 0L).append("count", 0).append("comments", "not an array"), "comment_buckets");
+
+		assertThrows(RuntimeException.class, () -> likeCommentService.addComment(postId, "author", "lost"));
+		assertEquals(0, likeCommentService.getCommentCount(postId));
+
+		String otherPostId = newPost();
+		Comment comment = likeCommentService.addComment(otherPostId, "author", "outlives its post");
+		postRepository.deleteById(otherPostId);
+		likeCommentService.deleteComment(comment.getId(), "author");
+		assertTrue(commentBucketStore.find(comment.getId()).isEmpty());
+	}
+
+	@Test
+	void legacyCommentsMoveOnceUnderRacingAndRepeatedRunsAndStayUntilTheDropStep() throws Exception {
+		String postId = newPost();
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < CommentBucketStore.BUCKET_SIZE + 5; i++) {
+			ids.add(insertLegacyComment(postId, "legacy " + i));
+		}
+
+		// Two nodes starting together: separate leases, so only one of them migrates at a time
+		Thread other = new Thread(() -> migration(false).run(null));
+		other.start();
+		migration(false).run(null);
+		other.join();
+
+		// A node that died after appending but before marking, and a comment an old node wrote meanwhile
+		mongoTemplate.updateMulti(new Query(), new Update().unset("migrated"), "comments");
+		ids.add(insertLegacyComment(postId, "written during the deploy"));
+		migration(false).run(null);
+
+		List<String> seen = new ArrayList<>();
+		commentBucketStore.page(postId, null, 1_000).getItems().forEach(comment -> seen.add(comment.getId()));
+		Collections.reverse(seen);
+		assertEquals(ids, seen);
+		assertEquals(ids.size(), likeCommentService.getCommentCount(postId));
+		assertTrue(mongoTemplate.collectionExists("comments"));
+
+		migration(true).run(null);
+		assertFalse(mongoTemplate.collectionExists("comments"));
+		assertEquals(ids.size(), commentBucketStore.count(postId));
+	}
+
+	/**
+	 * Inserts and newest-page reads against the bucketed layout and against the previous one
+	 * (a document per comment plus a $push onto the post's commentIds array), both on the
+	 * same server. Prints the throughput; asserts only what the layouts store.
+	 */
+	@Test
+	void bucketedLayoutAgainstCommentPerDocument() {
+		String postId = newPost();
+		mongoTemplate.indexOps(LEGACY_COMMENTS).ensureIndex(new Index()
+				.on("postId", Sort.Direction.ASC).on("createdAt", Sort.Direction.DESC).on("_id", Sort.Direction.DESC));
+		mongoTemplate.insert(new Document("_id", new ObjectId(postId)).append("commentIds", new ArrayList<>()), LEGACY_POSTS);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < COMMENTS; i++) {
+			Document comment = new Document("postId", postId).append("userId", "author")
+					.append("content", "comment " + i).append("createdAt", LocalDateTime.now());
+			mongoTemplate.insert(comment, LEGACY_COMMENTS);
+			mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(postId)),
+					new Update().push("commentIds", comment.get("_id")).inc("commentCount", 1), LEGACY_POSTS);
+		}
+		long legacyInsertNanos = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		for (int i = 0; i < COMMENTS; i++) {
+			Query post = Query.query(Criteria.where("_id").is(postId));
+			post.fields().include("commentSeq");
+			Post allocated = mongoTemplate.findAndModify(post,
+					new Update().inc("commentSeq", 1).inc("commentCount", 1).inc("commentVersion", 1),
+					FindAndModifyOptions.options().returnNew(true), Post.class);
+			commentBucketStore.append(postId, allocated.getCommentSeq() - 1, "author", "comment " + i);
+		}
+		long bucketInsertNanos = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		for (int i = 0; i < PAGE_READS; i++) {
+			Query page = Query.query(Criteria.where("postId").is(postId))
+					.with(Sort.by(Sort.Direction.DESC, "createdAt", "_id")).limit(PAGE_SIZE + 1);
+			assertEquals(PAGE_SIZE + 1, mongoTemplate.find(page, Document.class, LEGACY_COMMENTS).size());
+		}
+		long legacyReadNanos = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		for (int i = 0; i < PAGE_READS; i++) {
+			assertEquals(PAGE_SIZE, commentBucketStore.page(postId, null, PAGE_SIZE).getItems().size());
+		}
+		long bucketReadNanos = System.nanoTime() - start;
+
+		long buckets = mongoTemplate.count(Query.query(Criteria.where("postId").is(postId)), CommentBucket.class);
+		int legacyPostBytes = mongoTemplate.findById(postId, Document.class, LEGACY_POSTS).toJson().length();
+		int postBytes = mongoTemplate.findById(postId, Document.class, "posts").toJson().length();
+
+		logger.info("Comment inserts/s: legacy {}, bucketed {}; newest-page reads/s: legacy {}, bucketed {}; "
+				+ "post document ~{} bytes legacy vs ~{} bytes bucketed ({} buckets)",
+				perSecond(COMMENTS, legacyInsertNanos), perSecond(COMMENTS, bucketInsertNanos),
+				perSecond(PAGE_READS, legacyReadNanos), perSecond(PAGE_READS, bucketReadNanos),
+				legacyPostBytes, postBytes, buckets);
+		assertEquals((COMMENTS + CommentBucketStore.BUCKET_SIZE - 1) / CommentBucketStore.BUCKET_SIZE, buckets);
+		assertEquals(COMMENTS, commentBucketStore.count(postId));
+		assertTrue(postBytes < legacyPostBytes);
+	}
+
+	private String newPost() {
+		Post post = new Post("Buckets", "comment on me", "public", false, "author", List.of());
+		String postId = postRepository.save(post).getId();
+		postIds.add(postId);
+		return postId;
+	}
+
+	private CommentBucketMigration migration(boolean dropLegacy) {
+		return new CommentBucketMigration(mongoTemplate, commentBucketStore, new MigrationLease(mongoTemplate),
+				dropLegacy, 300);
+	}
+
+	private String insertLegacyComment(String postId, String content) {
+		Document comment = new Document("postId", postId).append("userId", "author")
+				.append("content", content).append("createdAt", LocalDateTime.now());
+		mongoTemplate.insert(comment, "comments");
+		return comment.getObjectId("_id").toHexString();
+	}
+
+	private static long perSecond(int operations, long nanos) {
+		return Math.round(operations * 1e9 / nanos);
+	}
+}
@@ -0,0 +1,124 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skillnest.backend.TestcontainersConfiguration;
+import com.skillnest.backend.model.CommentBucket;
+import com.skillnest.backend.model.Post;
+import com.skillnest.backend.model.User;
+import com.skillnest.backend.repository.PostRepository;
+import com.skillnest.backend.repository.UserRepository;
+
+// The comment endpoints as a client walks them: follow nextCursor until it is absent
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestcontainersConfiguration.class)
+class CommentPagingTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private LikeCommentService likeCommentService;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	private String userId;
+	private String postId;
+
+	@AfterEach
+	void cleanUp() {
+		if (postId != null) {
+			mongoTemplate.remove(Query.query(Criteria.where("postId").is(postId)), CommentBucket.class);
+			postRepository.deleteById(postId);
+		}
+		if (userId != null) {
+			userRepository.deleteById(userId);
+		}
+	}
+
+	@Test
+	void aCommentPostedMidwayNeitherRepeatsNorSkipsOlderOnes() throws Exception {
+		newPost();
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < 2 * CommentBucketStore.BUCKET_SIZE + 3; i++) {
+			ids.add(likeCommentService.addComment(postId, userId, "comment " + i).getId());
+		}
+
+		List<String> seen = new ArrayList<>();
+		JsonNode page = page(null);
+		page.get("items").forEach(item -> seen.add(item.get("id").asText()));
+		// Lands on top; an offset-based second page would start one comment late
+		String late = likeCommentService.addComment(postId, userId, "late").getId();
+		while (page.hasNonNull("nextCursor")) {
+			page = page(page.get("nextCursor").asText());
+			page.get("items").forEach(item -> seen.add(item.get("id").asText()));
+		}
+
+		Collections.reverse(ids);
+		assertEquals(ids, seen);
+		assertEquals(late, page(null).get("items").get(0).get("id").asText());
+		mockMvc.perform(get("/api/auth/posts/" + postId + "/comments/count"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.count").value(ids.size() + 1));
+	}
+
+	@Test
+	void aBadCursorIsABadRequestAndAMissingPostHasNoCount() throws Exception {
+		newPost();
+
+		mockMvc.perform(get("/api/auth/posts/" + postId + "/comments").param("cursor", "%%%"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/auth/posts/000000000000000000000000/comments/count"))
+				.andExpect(status().isNotFound());
+	}
+
+	private JsonNode page(String cursor) throws Exception {
+		var request = get("/api/auth/posts/" + postId + "/comments").param("limit", "6");
+		if (cursor != null) {
+			request.param("cursor", cursor);
+		}
+		String body = mockMvc.perform(request)
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	private void newPost() {
+		User user = new User();
+		user.setName("commenter");
+		user.setEmail("commenter-" + System.nanoTime() + "@comments.test");
+		userId = userRepository.save(user).getId();
+		postId = postRepository.save(new Post("Thread", "talk below", "public", false, userId, List.of())).getId();
+	}
+}
@@ -0,0 +1,190 @@
+package com.skillnest.backend.service;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.skillnest.backend.TestcontainersConfiguration;
+import com.skillnest.backend.model.CommentBucket;
+import com.skillnest.backend.model.Notification;
+import com.skillnest.backend.model.Post;
+import com.skillnest.backend.model.PostLike;
+import com.skillnest.backend.model.Timeline;
+import com.skillnest.backend.model.User;
+import com.skillnest.backend.repository.UserRepository;
+
+// Each endpoint: a matching If-None-Match is a 304 with no body, and the next write makes the same tag a 200 again
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(TestcontainersConfiguration.class)
+class ConditionalGetTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private LikeCommentService likeCommentService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	private final List<String> userIds = new ArrayList<>();
+	private String postId;
+
+	@AfterEach
+	void cleanUp() {
+		if (postId != null) {
+			mongoTemplate.remove(Query.query(Criteria.where("postId").is(postId)), PostLike.class);
+			mongoTemplate.remove(Query.query(Criteria.where("postId").is(postId)), CommentBucket.class);
+			mongoTemplate.remove(Query.query(Criteria.where("postId").is(postId)), Notification.class);
+			mongoTemplate.remove(Query.query(Criteria.where("_id").is(postId)), Post.class);
+		}
+		mongoTemplate.remove(Query.query(Criteria.where("_id").in(userIds)), Timeline.class);
+		userRepository.deleteAllById(userIds);
+	}
+
+	@Test
+	void profileRevalidatesUntilItIsEdited() throws Exception {
+		User user = newUser("profile");
+		String url = "/api/auth/users/" + user.getId();
+
+		String etag = revalidate(url);
+
+		User edit = new User();
+		edit.setName("profile, renamed");
+		userService.updateUser(user.getId(), edit);
+
+		assertChanged(url, etag);
+	}
+
+	@Test
+	void commentsRevalidateUntilOneIsAdded() throws Exception {
+		User author = newUser("author");
+		postId = newPost(author);
+		String url = "/api/auth/posts/" + postId + "/comments";
+
+		String etag = revalidate(url);
+
+		likeCommentService.addComment(postId, author.getId(), "first");
+
+		assertChanged(url, etag);
+	}
+
+	@Test
+	void eachCommentPageHasItsOwnTagAndACommentersRenameChangesIt() throws Exception {
+		User author = newUser("author");
+		User commenter = newUser("commenter");
+		postId = newPost(author);
+		for (int i = 0; i < 3; i++) {
+			likeCommentService.addComment(postId, commenter.getId(), "comment " + i);
+		}
+		String url = "/api/auth/posts/" + postId + "/comments?limit=2";
+
+		String etag = revalidate(url);
+		assertNotEquals(etag, revalidate("/api/auth/posts/" + postId + "/comments?limit=3"));
+
+		User edit = new User();
+		edit.setName("commenter, renamed");
+		userService.updateUser(commenter.getId(), edit);
+
+		assertChanged(url, etag);
+	}
+
+	@Test
+	void feedPageRevalidatesUntilAPostOnItIsLiked() throws Exception {
+		User author = newUser("author");
+		User reader = newUser("reader");
+		postId = newPost(author);
+		String url = "/api/auth/posts?userId=" + reader.getId() + "&limit=5";
+
+		String etag = revalidate(url);
+
+		likeCommentService.likePost(postId, reader.getId());
+
+		assertChanged(url, etag);
+	}
+
+	@Test
+	void cachedFeedPageIsReRenderedAndReTaggedWhenItsAuthorRenamesThemselves() throws Exception {
+		User author = newUser("author");
+		User reader = newUser("reader");
+		postId = newPost(author);
+		String url = "/api/auth/posts?userId=" + reader.getId() + "&limit=5";
+
+		String etag = revalidate(url); // the first page is now cached
+
+		User edit = new User();
+		edit.setName("author, renamed");
+		userService.updateUser(author.getId(), edit);
+
+		String renamed = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("author, renamed")))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(etag, renamed);
+	}
+
+	// A full GET, then the same GET with its tag: 304, the tag repeated, nothing else
+	private String revalidate(String url) throws Exception {
+		String etag = mockMvc.perform(get(url))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, etag))
+				.andExpect(content().string(""));
+		return etag;
+	}
+
+	private void assertChanged(String url, String staleEtag) throws Exception {
+		String etag = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, staleEtag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(staleEtag, etag);
+	}
+
+	private String newPost(User author) {
+		Post post = new Post();
+		post.setUserId(author.getId());
+		post.setTitle("Conditional");
+		post.setContent("revalidate me");
+		post.setVisibility("public");
+		return postService.createPost(post, null).getId();
+	}
+
+	private User newUser(String name) {
+		User user = new User();
+		user.setName(name);
+		user.setEmail(name + "-" + System.nanoTime() + "@etag.test");
+		User saved = userRepository.save(user);
+		userIds.add(saved.getId());
+		return saved;
+	}
+}
@@ -0,0 +1,65 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.skillnest.backend.TestcontainersConfiguration;
+import com.skillnest.backend.model.Post;
+
+// Default weights: a like counts 1, a comment 2
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+class EngagementBackfillTests {
+
+	@Autowired
+	private EngagementBackfill engagementBackfill;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	private final List<ObjectId> postIds = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		mongoTemplate.remove(Query.query(Criteria.where("_id").in(postIds)), "posts");
+	}
+
+	@Test
+	void postsWithoutAScoreGetOneFromTheirLikesAndComments() {
+		ObjectId counted = insert(new Document("likeCount", 3).append("commentCount", 2));
+		ObjectId legacy = insert(new Document("likedBy", List.of("a", "b")).append("commentIds", List.of("c")));
+		ObjectId untouched = insert(new Document("likeCount", 10).append("engagementScore", 4.0));
+		ObjectId quiet = insert(new Document());
+
+		engagementBackfill.run(null);
+
+		assertEquals(7.0, score(counted));
+		assertEquals(4.0, score(legacy));
+		assertEquals(4.0, score(untouched));
+		assertEquals(0.0, score(quiet));
+	}
+
+	private ObjectId insert(Document post) {
+		ObjectId id = new ObjectId();
+		mongoTemplate.insert(post.append("_id", id).append("title", "backfill test"), "posts");
+		postIds.add(id);
+		return id;
+	}
+
+	private double score(ObjectId id) {
+		return mongoTemplate.findById(id.toHexString(), Post.class).getEngagementScore();
+	}
+}
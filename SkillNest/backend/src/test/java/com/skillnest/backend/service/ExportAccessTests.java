@@ -0,0 +1,47 @@
+package com.skillnest.backend.service;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.skillnest.backend.TestcontainersConfiguration;
+import com.skillnest.backend.security.JwtUtil;
+
+// The exports live under the otherwise public /api/auth/**; only admin.user-ids may stream them
+@SpringBootTest(properties = "admin.user-ids=export-test-admin")
+@AutoConfigureMockMvc
+@Import(TestcontainersConfiguration.class)
+class ExportAccessTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Test
+	void onlyAdminsCanStreamTheExports() throws Exception {
+		for (String url : new String[] { "/api/auth/posts", "/api/auth/users" }) {
+			mockMvc.perform(get(url).param("format", "ndjson")).andExpect(status().isForbidden());
+			mockMvc.perform(get(url).param("format", "ndjson").header("Authorization", bearer("export-test-user")))
+					.andExpect(status().isForbidden());
+			mockMvc.perform(get(url).param("format", "ndjson").header("Authorization", bearer("export-test-admin")))
+					.andExpect(status().isOk());
+		}
+	}
+
+	@Test
+	void theRegularFeedStaysPublic() throws Exception {
+		mockMvc.perform(get("/api/auth/posts").param("limit", "1")).andExpect(status().isOk());
+	}
+
+	private String bearer(String userId) {
+		return "Bearer " + jwtUtil.generateToken(userId);
+	}
+}
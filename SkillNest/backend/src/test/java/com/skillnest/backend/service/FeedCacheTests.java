@@ -0,0 +1,155 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.skillnest.backend.TestcontainersConfiguration;
+import com.skillnest.backend.dto.FeedPostView;
+import com.skillnest.backend.model.CommentBucket;
+import com.skillnest.backend.model.FeedPage;
+import com.skillnest.backend.model.Notification;
+import com.skillnest.backend.model.Post;
+import com.skillnest.backend.model.PostLike;
+import com.skillnest.backend.model.Timeline;
+import com.skillnest.backend.model.User;
+import com.skillnest.backend.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+class FeedCacheTests {
+
+	@Autowired
+	private FeedViewService feedViewService;
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private LikeCommentService likeCommentService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	private final List<String> userIds = new ArrayList<>();
+	private String postId;
+
+	@AfterEach
+	void cleanUp() {
+		if (postId != null) {
+			mongoTemplate.remove(Query.query(Criteria.where("postId").is(postId)), PostLike.class);
+			mongoTemplate.remove(Query.query(Criteria.where("postId").is(postId)), CommentBucket.class);
+			mongoTemplate.remove(Query.query(Criteria.where("postId").is(postId)), Notification.class);
+			mongoTemplate.remove(Query.query(Criteria.where("_id").is(postId)), Post.class);
+		}
+		mongoTemplate.remove(Query.query(Criteria.where("_id").in(userIds)), Timeline.class);
+		userRepository.deleteAllById(userIds);
+	}
+
+	@Test
+	void everyWriteIsVisibleOnTheNextFirstPage() {
+		User author = newUser("author");
+		User reader = newUser("reader");
+
+		// Warm both caches before any write
+		feedViewService.getFeed(reader.getId(), null, 10);
+		feedViewService.getTimeline(author.getId(), null, 10);
+
+		Post post = new Post();
+		post.setUserId(author.getId());
+		post.setTitle("Cached");
+		post.setContent("first version");
+		post.setVisibility("public");
+		postId = postService.createPost(post, null).getId();
+		assertEquals(postId, first(feedViewService.getFeed(reader.getId(), null, 10)).id());
+		assertEquals(postId, first(feedViewService.getTimeline(author.getId(), null, 10)).id());
+
+		likeCommentService.likePost(postId, reader.getId());
+		FeedPostView liked = first(feedViewService.getFeed(reader.getId(), null, 10));
+		assertEquals(1, liked.likeCount());
+		assertTrue(liked.likedByMe());
+		assertFalse(first(feedViewService.getFeed(author.getId(), null, 10)).likedByMe());
+
+		likeCommentService.addComment(postId, reader.getId(), "nice");
+		assertEquals(1, first(feedViewService.getTimeline(author.getId(), null, 10)).commentCount());
+
+		Post edit = new Post();
+		edit.setTitle("Edited");
+		edit.setContent("second version");
+		edit.setVisibility("public");
+		edit.setUserId(author.getId());
+		postService.updatePost(postId, edit, null, null);
+		assertEquals("Edited", first(feedViewService.getFeed(reader.getId(), null, 10)).title());
+		assertEquals("Edited", first(feedViewService.getTimeline(author.getId(), null, 10)).title());
+
+		postService.deletePost(postId, author.getId());
+		assertTrue(feedViewService.getFeed(reader.getId(), null, 10).getItems().stream()
+				.noneMatch(view -> view.id().equals(postId)));
+		assertTrue(feedViewService.getTimeline(author.getId(), null, 10).getItems().stream()
+				.noneMatch(view -> view.id().equals(postId)));
+	}
+
+	@Test
+	void pageReadBeforeAWriteIsNotCached() {
+		FeedPageCache cache = new FeedPageCache(new SimpleMeterRegistry(), 10, 60_000, System::currentTimeMillis);
+		FeedPage<FeedPostView> stale = new FeedPage<>(List.of(view("p1")), null);
+
+		long generation = cache.generation();
+		cache.invalidatePost("p1"); // a like lands while the page is being read
+		cache.put(FeedPageCache.GLOBAL, 10, stale, generation);
+
+		assertNull(cache.get(FeedPageCache.GLOBAL, 10));
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedAndCountsIt() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		FeedPageCache cache = new FeedPageCache(registry, 2, 60_000, System::currentTimeMillis);
+		cache.put("a", 10, new FeedPage<>(List.of(view("p1")), null), cache.generation());
+		cache.put("b", 10, new FeedPage<>(List.of(view("p2")), null), cache.generation());
+		cache.get("a", 10);
+		cache.put("c", 10, new FeedPage<>(List.of(view("p3")), null), cache.generation());
+
+		assertNull(cache.get("b", 10));
+		assertEquals(2, cache.size());
+		assertEquals(1.0, registry.get("feed.cache.evictions").tag("cause", "size").counter().count());
+		assertEquals(1.0, registry.get("feed.cache.requests").tag("result", "hit").counter().count());
+		assertEquals(1.0, registry.get("feed.cache.requests").tag("result", "miss").counter().count());
+	}
+
+	private static FeedPostView first(FeedPage<FeedPostView> page) {
+		assertFalse(page.getItems().isEmpty());
+		return page.getItems().get(0);
+	}
+
+	private static FeedPostView view(String id) {
+		return new FeedPostView(id, "t", "c", List.of(), null, null, "u", 0, 0, false, null);
+	}
+
+	private User newUser(String name) {
+		User user = new User();
+		user.setName(name);
+		user.setEmail(name + "-" + System.nanoTime() + "@cache.test");
+		User saved = userRepository.save(user);
+		userIds.add(saved.getId());
+		return saved;
+	}
+}
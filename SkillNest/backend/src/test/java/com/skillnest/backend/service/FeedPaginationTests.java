@@ -0,0 +1,105 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import com.skillnest.backend.TestcontainersConfiguration;
+import com.skillnest.backend.model.FeedPage;
+import com.skillnest.backend.model.Post;
+import com.skillnest.backend.repository.PostRepository;
+
+// The test's posts are dated far ahead of any real one, so they are the head of the feed
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+class FeedPaginationTests {
+
+	private static final LocalDateTime TIED = LocalDateTime.now().plusYears(100).truncatedTo(ChronoUnit.MILLIS);
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	private final List<String> postIds = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		postRepository.deleteAllById(postIds);
+	}
+
+	@Test
+	void postsSharingATimestampArePagedWithoutRepeatsOrGaps() {
+		for (int i = 0; i < 7; i++) {
+			newPost(TIED);
+		}
+		List<String> expected = postIds.stream().sorted(Comparator.reverseOrder()).toList();
+
+		assertEquals(expected, readOurPosts(3));
+	}
+
+	@Test
+	void aPostArrivingMidwayDoesNotShiftTheNextPage() {
+		for (int i = 0; i < 4; i++) {
+			newPost(TIED);
+		}
+		List<String> tied = postIds.stream().sorted(Comparator.reverseOrder()).toList();
+
+		FeedPage<Post> first = postService.getFeedPage(null, 2);
+		String newer = newPost(TIED.plusSeconds(1)); // would push an offset-based page two back by one
+		FeedPage<Post> second = postService.getFeedPage(first.getNextCursor(), 2);
+
+		assertEquals(tied.subList(0, 2), ids(first));
+		assertEquals(tied.subList(2, 4), ids(second));
+		assertEquals(newer, ids(postService.getFeedPage(null, 1)).get(0));
+	}
+
+	@Test
+	void aTamperedCursorIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> postService.getFeedPage("not a cursor", 5));
+		String cursor = new FeedCursor(TIED, "abc").encode();
+		FeedCursor decoded = FeedCursor.decode(cursor);
+		assertEquals(TIED, decoded.getCreatedAt());
+		assertEquals("abc", decoded.getId());
+	}
+
+	// Follows next cursors until every post of this test has come by, keeping only ours
+	private List<String> readOurPosts(int pageSize) {
+		List<String> seen = new ArrayList<>();
+		String cursor = null;
+		do {
+			FeedPage<Post> page = postService.getFeedPage(cursor, pageSize);
+			ids(page).stream().filter(postIds::contains).forEach(seen::add);
+			cursor = page.getNextCursor();
+		} while (seen.size() < postIds.size() && cursor != null);
+		return seen;
+	}
+
+	private static List<String> ids(FeedPage<Post> page) {
+		return page.getItems().stream().map(Post::getId).toList();
+	}
+
+	private String newPost(LocalDateTime createdAt) {
+		Post post = new Post();
+		post.setUserId("pagination-test");
+		post.setTitle("Tied");
+		post.setContent("same second as its neighbours");
+		post.setVisibility("public");
+		post.setCreatedAt(createdAt);
+		String id = postRepository.save(post).getId();
+		postIds.add(id);
+		return id;
+	}
+}
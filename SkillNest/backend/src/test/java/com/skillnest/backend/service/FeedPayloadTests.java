@@ -0,0 +1,130 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.skillnest.backend.dto.FeedPostView;
+import com.skillnest.backend.model.Post;
+import com.skillnest.backend.model.User;
+
+// One feed page of the same posts, serialized the way the endpoint used to (a HashMap per row
+// carrying the whole likedBy array) and as the record DTOs it serves now
+class FeedPayloadTests {
+
+	private static final Logger logger = LoggerFactory.getLogger(FeedPayloadTests.class);
+
+	private static final int PAGE = 20;
+	private static final int LIKERS = 50;
+	private static final int ROUNDS = 2_000;
+
+	// Configured like Spring Boot's: java.time types as ISO strings
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+	@Test
+	void theDtoPageIsSmallerThanTheMapPageAndCarriesTheSameCard() throws Exception {
+		User author = new User();
+		author.setId("author-1");
+		author.setName("Ada");
+		author.setEmail("ada@example.com");
+		author.setCountry("LK");
+		author.setProfileImage("/uploads/ada-avatar.jpg");
+		List<Post> posts = new ArrayList<>();
+		List<List<String>> likers = new ArrayList<>();
+		for (int i = 0; i < PAGE; i++) {
+			posts.add(post(i, author.getId()));
+			List<String> likedBy = new ArrayList<>();
+			for (int j = 0; j < LIKERS; j++) {
+				likedBy.add(String.format("%024x", i * LIKERS + j));
+			}
+			likers.add(likedBy);
+		}
+
+		Supplier<Object> maps = () -> {
+			List<Map<String, Object>> page = new ArrayList<>();
+			for (int i = 0; i < posts.size(); i++) {
+				page.add(mapEntry(posts.get(i), author, likers.get(i)));
+			}
+			return page;
+		};
+		Supplier<Object> views = () -> posts.stream().map(post -> FeedPostView.of(post, author, false)).toList();
+
+		byte[] mapJson = objectMapper.writeValueAsBytes(maps.get());
+		byte[] viewJson = objectMapper.writeValueAsBytes(views.get());
+
+		assertTrue(viewJson.length < mapJson.length, viewJson.length + " >= " + mapJson.length);
+		JsonNode mapCard = objectMapper.readTree(mapJson).get(0);
+		JsonNode viewCard = objectMapper.readTree(viewJson).get(0);
+		for (String field : List.of("id", "title", "content", "mediaUrls", "createdAt", "userId", "likeCount", "commentCount")) {
+			assertEquals(mapCard.get(field), viewCard.get(field), field);
+		}
+		assertEquals(mapCard.get("user"), viewCard.get("user"));
+		assertFalse(viewCard.has("likedBy"));
+
+		logger.info("Feed page of {}: maps {} bytes in {} µs, records {} bytes in {} µs", PAGE,
+				mapJson.length, micros(maps), viewJson.length, micros(views));
+	}
+
+	// Average time to build and serialize the page, after a warm-up round of the same length
+	private long micros(Supplier<Object> page) throws Exception {
+		long start = 0;
+		for (int round = 0; round < 2 * ROUNDS; round++) {
+			if (round == ROUNDS) {
+				start = System.nanoTime();
+			}
+			objectMapper.writeValueAsBytes(page.get());
+		}
+		return (System.nanoTime() - start) / 1_000 / ROUNDS;
+	}
+
+	// The row PostController.getAllPosts built before the record DTOs
+	private static Map<String, Object> mapEntry(Post post, User user, List<String> likedBy) {
+		Map<String, Object> map = new HashMap<>();
+		map.put("id", post.getId());
+		map.put("title", post.getTitle());
+		map.put("content", post.getContent());
+		map.put("mediaUrls", post.getMediaUrls());
+		map.put("createdAt", post.getCreatedAt());
+		map.put("userId", post.getUserId());
+		map.put("likeCount", likedBy.size());
+		map.put("commentCount", post.getCommentCount());
+		map.put("likedBy", likedBy);
+		Map<String, Object> userMap = new HashMap<>();
+		userMap.put("id", user.getId());
+		userMap.put("name", user.getName());
+		userMap.put("profileImage", user.getProfileImage());
+		userMap.put("country", user.getCountry());
+		userMap.put("username", user.getEmail().split("@")[0]);
+		userMap.put("isMember", true);
+		map.put("user", userMap);
+		return map;
+	}
+
+	private static Post post(int i, String userId) {
+		Post post = new Post();
+		post.setId(String.format("%024x", 1_000_000 + i));
+		post.setTitle("Post " + i);
+		post.setContent("Notes from week " + i + " of the course.");
+		post.setMediaUrls(List.of("/uploads/post-" + i + ".jpg"));
+		post.setCreatedAt(LocalDateTime.of(2024, 5, 1, 12, 0).minusMinutes(i));
+		post.setUserId(userId);
+		post.setLikeCount(LIKERS);
+		post.setCommentCount(3);
+		return post;
+	}
+}
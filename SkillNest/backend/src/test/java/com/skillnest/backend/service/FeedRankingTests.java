@@ -0,0 +1,85 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.skillnest.backend.model.Post;
+
+class FeedRankingTests {
+
+	private static final Logger logger = LoggerFactory.getLogger(FeedRankingTests.class);
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+	private final FeedSignalConfig config = new FeedSignalConfig();
+	private final List<FeedScoringSignal> signals = List.of(
+			config.recencySignal(1.0, 12),
+			config.engagementSignal(0.5),
+			config.affinitySignal(0.5, 0.3));
+
+	private static Post post(String id, String author, int hoursOld, double engagement) {
+		Post post = new Post();
+		post.setId(id);
+		post.setUserId(author);
+		post.setCreatedAt(NOW.minusHours(hoursOld));
+		post.setEngagementScore(engagement);
+		return post;
+	}
+
+	@Test
+	void engagementAndAffinityOutweighSmallAgeDifferences() {
+		FeedRankingContext context = new FeedRankingContext("viewer", NOW, Set.of("friend"), Map.of("friend", 5.0));
+		Post stranger = post("stranger", "someone", 1, 0);
+		Post friend = post("friend", "friend", 2, 0);
+		Post viral = post("viral", "someone", 3, 200);
+
+		List<Post> ranked = FeedRankingService.rank(List.of(stranger, friend, viral), context, signals);
+
+		assertEquals(List.of("viral", "friend", "stranger"), ranked.stream().map(Post::getId).toList());
+	}
+
+	@Test
+	void ranksThousandCandidatePage() {
+		Random random = new Random(42);
+		List<Post> candidates = new ArrayList<>();
+		Map<String, Double> affinity = new HashMap<>();
+		for (int i = 0; i < 1000; i++) {
+			String author = "author" + random.nextInt(100);
+			candidates.add(post("p" + i, author, random.nextInt(72), random.nextInt(50)));
+			affinity.put(author, (double) random.nextInt(10));
+		}
+		FeedRankingContext context = new FeedRankingContext("viewer", NOW, Set.of("author1", "author2"), affinity);
+
+		for (int i = 0; i < 200; i++) {
+			FeedRankingService.rank(candidates, context, signals); // warm up
+		}
+		int runs = 500;
+		long start = System.nanoTime();
+		List<Post> ranked = null;
+		for (int i = 0; i < runs; i++) {
+			ranked = FeedRankingService.rank(candidates, context, signals);
+		}
+		logger.info("Ranked 1000 candidates in {} µs on average", (System.nanoTime() - start) / 1_000 / runs);
+
+		assertEquals(1000, ranked.size());
+		for (int i = 1; i < ranked.size(); i++) {
+			assertTrue(score(ranked.get(i - 1), context) >= score(ranked.get(i), context));
+		}
+	}
+
+	private double score(Post post, FeedRankingContext context) {
+		return signals.stream().mapToDouble(signal -> signal.score(post, context)).sum();
+	}
+}
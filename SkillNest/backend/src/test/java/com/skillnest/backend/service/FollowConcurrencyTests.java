@@ -0,0 +1,130 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.skillnest.backend.TestcontainersConfiguration;
+import com.skillnest.backend.model.Timeline;
+import com.skillnest.backend.model.User;
+import com.skillnest.backend.repository.UserRepository;
+
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+class FollowConcurrencyTests {
+
+	private static final int FOLLOWERS = 50;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	private final List<String> userIds = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		mongoTemplate.remove(Query.query(Criteria.where("_id").in(userIds)), Timeline.class);
+		userRepository.deleteAllById(userIds);
+	}
+
+	@Test
+	void parallelFollowsOfOneAccountAllLandWithoutLockingFailures() throws Exception {
+		User author = newUser("popular");
+		long versionBefore = author.getVersion();
+		List<String> followers = new ArrayList<>();
+		for (int i = 0; i < FOLLOWERS; i++) {
+			followers.add(newUser("fan" + i).getId());
+		}
+
+		// Every follower follows twice, so repeats race the first follow as well
+		List<String> calls = new ArrayList<>(followers);
+		calls.addAll(followers);
+		Collections.shuffle(calls);
+		run(calls, followerId -> userService.follow(followerId, author.getId()));
+
+		User followed = userRepository.findById(author.getId()).orElseThrow();
+		assertEquals(FOLLOWERS, followed.getFollowers().size());
+		assertEquals(versionBefore + FOLLOWERS, followed.getVersion());
+		for (String followerId : followers) {
+			assertTrue(userRepository.findById(followerId).orElseThrow().getFollowing().contains(author.getId()));
+		}
+
+		run(calls, followerId -> userService.unfollow(followerId, author.getId()));
+
+		assertTrue(userRepository.findById(author.getId()).orElseThrow().getFollowers().isEmpty());
+	}
+
+	@Test
+	void profileEditsRacingFollowsNeitherFailNorUndoThem() throws Exception {
+		User author = newUser("edited");
+		long versionBefore = author.getVersion();
+		List<String> followers = new ArrayList<>();
+		for (int i = 0; i < FOLLOWERS; i++) {
+			followers.add(newUser("fan" + i).getId());
+		}
+
+		run(followers, followerId -> {
+			userService.follow(followerId, author.getId());
+			User edit = new User();
+			edit.setHeadline("edited by " + followerId);
+			userService.updateUser(author.getId(), edit);
+			userService.updateSkills(author.getId(), List.of(followerId));
+		});
+
+		User edited = userRepository.findById(author.getId()).orElseThrow();
+		assertEquals(FOLLOWERS, edited.getFollowers().size());
+		assertEquals(versionBefore + 3 * FOLLOWERS, edited.getVersion());
+	}
+
+	private interface Call {
+		void run(String followerId) throws Exception;
+	}
+
+	private static void run(List<String> followerIds, Call call) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(16);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (String followerId : followerIds) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				call.run(followerId);
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		pool.shutdown();
+	}
+
+	private User newUser(String name) {
+		User user = new User();
+		user.setName(name);
+		user.setEmail(name + "-" + System.nanoTime() + "@follow.test");
+		User saved = userRepository.save(user);
+		userIds.add(saved.getId());
+		return saved;
+	}
+}
@@ -0,0 +1,108 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.skillnest.backend.TestcontainersConfiguration;
+
+// Larger than one 255 KiB GridFS chunk, so a range starts several chunks in
+@SpringBootTest(properties = {
+		"file.upload-dir=target/gridfs-blob-store-test-uploads",
+		"upload.store.backend=gridfs"
+})
+@AutoConfigureMockMvc
+@Import(TestcontainersConfiguration.class)
+class GridFsBlobStoreTests {
+
+	private static final int SIZE = 1024 * 1024;
+
+	@TempDir
+	Path dir;
+
+	@Autowired
+	private GridFsBlobStore store;
+
+	@Autowired
+	private UploadStore uploadStore;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	private String key;
+	private String url;
+
+	@AfterEach
+	void cleanUp() {
+		if (key != null) {
+			store.delete(key);
+		}
+		if (url != null) {
+			uploadStore.delete(url);
+		}
+	}
+
+	@Test
+	void putThenReadWholeAndFromAnOffset() throws Exception {
+		byte[] content = content(5);
+		key = "gridfs-test-" + System.nanoTime();
+		Path source = dir.resolve("blob");
+		Files.write(source, content);
+
+		store.put(key, source);
+
+		assertTrue(store.exists(key));
+		assertArrayEquals(content, store.get(key, SIZE).getContentAsByteArray());
+		try (InputStream in = store.get(key, SIZE).getInputStream()) {
+			in.skipNBytes(700_000);
+			assertArrayEquals(Arrays.copyOfRange(content, 700_000, SIZE), in.readAllBytes());
+		}
+
+		store.delete(key);
+		assertFalse(store.exists(key));
+		assertThrows(NoSuchFileException.class, () -> store.get(key, SIZE).getInputStream().read());
+	}
+
+	@Test
+	void rangeRequestIsServedFromTheBucket() throws Exception {
+		byte[] content = content(6);
+		url = uploadStore.store(new MockMultipartFile("file", "clip.mp4", "video/mp4", content));
+
+		MvcResult result = mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=600000-600999"))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 600000-600999/" + SIZE))
+				.andReturn();
+
+		assertArrayEquals(Arrays.copyOfRange(content, 600_000, 601_000), result.getResponse().getContentAsByteArray());
+	}
+
+	private static byte[] content(long seed) {
+		byte[] content = new byte[SIZE];
+		new Random(seed).nextBytes(content);
+		content[0] = (byte) System.nanoTime(); // a fresh blob per run
+		return content;
+	}
+}
@@ -0,0 +1,184 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+
+class ImageVariantCacheTests {
+
+	private static final Logger logger = LoggerFactory.getLogger(ImageVariantCacheTests.class);
+	private static final int[] SIZES = {48, 96, 160, 320, 480, 640, 960, 1280, 1600, 2048};
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void concurrentRequestsForOneVariantRenderItOnce() throws Exception {
+		ImageVariantCache cache = newCache(64);
+		UploadStore.StoredFile photo = image("photo.png", 3000, 2000);
+		ImageVariantCache.Spec spec = new ImageVariantCache.Spec(320, 0, null);
+
+		int threads = 16;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Path>> results = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			results.add(pool.submit(() -> {
+				start.await();
+				try (ImageVariantCache.Variant variant = cache.get(photo, spec)) {
+					return variant.path();
+				}
+			}));
+		}
+		start.countDown();
+		for (Future<Path> result : results) {
+			BufferedImage variant = ImageIO.read(result.get().toFile());
+			assertEquals(320, variant.getWidth());
+			assertEquals(213, variant.getHeight());
+		}
+		pool.shutdown();
+
+		assertEquals(1, cache.renderCount());
+	}
+
+	@Test
+	void coverCropsToTheRequestedBoxAndNothingIsUpscaled() throws Exception {
+		ImageVariantCache cache = newCache(64);
+		UploadStore.StoredFile photo = image("wide.png", 1600, 900);
+
+		BufferedImage avatar = ImageIO.read(get(cache, photo, new ImageVariantCache.Spec(96, 96, "cover")).toFile());
+		BufferedImage lightbox = ImageIO.read(get(cache, photo, new ImageVariantCache.Spec(2048, 2048, "contain")).toFile());
+
+		assertEquals(96, avatar.getWidth());
+		assertEquals(96, avatar.getHeight());
+		assertEquals(1600, lightbox.getWidth());
+		assertEquals(900, lightbox.getHeight());
+	}
+
+	@Test
+	void leastRecentlyUsedVariantsAreEvictedOverTheCap() throws Exception {
+		ImageVariantCache cache = newCache(1);
+		UploadStore.StoredFile noise = image("noise.png", 1200, 1200);
+
+		Path first = get(cache, noise, new ImageVariantCache.Spec(820, 0, null));
+		Path second = get(cache, noise, new ImageVariantCache.Spec(821, 0, null));
+		get(cache, noise, new ImageVariantCache.Spec(820, 0, null)); // first is now the most recent
+		Path third = get(cache, noise, new ImageVariantCache.Spec(822, 0, null));
+
+		assertTrue(cache.sizeInBytes() <= 1024 * 1024);
+		assertTrue(Files.exists(first));
+		assertFalse(Files.exists(second));
+		assertTrue(Files.exists(third));
+
+		// A restart picks the surviving entries up again instead of rendering them
+		ImageVariantCache restarted = newCache(1);
+		get(restarted, noise, new ImageVariantCache.Spec(822, 0, null));
+		assertEquals(0, restarted.renderCount());
+	}
+
+	@Test
+	void aVariantBeingServedIsNotEvictedUntilItIsClosed() throws Exception {
+		ImageVariantCache cache = newCache(1);
+		UploadStore.StoredFile noise = image("served.png", 1200, 1200);
+
+		ImageVariantCache.Variant served = cache.get(noise, new ImageVariantCache.Spec(820, 0, null));
+		get(cache, noise, new ImageVariantCache.Spec(821, 0, null));
+		get(cache, noise, new ImageVariantCache.Spec(822, 0, null));
+		assertTrue(Files.exists(served.path()));
+		assertEquals(Files.size(served.path()), served.size());
+
+		served.close();
+		get(cache, noise, new ImageVariantCache.Spec(823, 0, null));
+		assertFalse(Files.exists(served.path()));
+	}
+
+	@Test
+	void requestedSizesSnapUpToTheAllowedList() throws Exception {
+		ImageVariantCache cache = newCache(64);
+
+		assertEquals(new ImageVariantCache.Spec(320, 0, "contain"), cache.snap(new ImageVariantCache.Spec(301, 0, null)));
+		assertEquals(new ImageVariantCache.Spec(96, 96, "cover"), cache.snap(new ImageVariantCache.Spec(90, 93, "cover")));
+		assertEquals(new ImageVariantCache.Spec(2048, 0, "contain"), cache.snap(new ImageVariantCache.Spec(2047, 0, null)));
+	}
+
+	@Test
+	void sourcesOverThePixelBudgetAreRefusedAndNothingIsRendered() throws Exception {
+		ImageVariantCache cache = new ImageVariantCache(dir.resolve("cache").toString(), 64, SIZES, 2, 5_000, 1_000_000);
+		UploadStore.StoredFile poster = image("poster.png", 2000, 1000);
+
+		assertThrows(IllegalArgumentException.class, () -> cache.get(poster, new ImageVariantCache.Spec(320, 0, null)));
+		assertEquals(0, cache.renderCount());
+	}
+
+	// Cold (render) vs warm (cache hit) latency for a phone-sized photo; a hit has to cost a small fraction of a render
+	@Test
+	void benchmarkColdAndWarmVariantLatency() throws Exception {
+		ImageVariantCache cache = newCache(256);
+		UploadStore.StoredFile photo = image("phone.png", 4032, 3024);
+
+		int widths = 10;
+		long start = System.nanoTime();
+		for (int i = 0; i < widths; i++) {
+			get(cache, photo, new ImageVariantCache.Spec(300 + i, 0, null));
+		}
+		long coldNanos = (System.nanoTime() - start) / widths;
+
+		int hits = 10_000;
+		start = System.nanoTime();
+		for (int i = 0; i < hits; i++) {
+			get(cache, photo, new ImageVariantCache.Spec(300 + i % widths, 0, null));
+		}
+		long warmNanos = (System.nanoTime() - start) / hits;
+
+		logger.info("4032x3024 variant: cold {} ms per render, warm {} µs per hit", coldNanos / 1_000_000, warmNanos / 1_000);
+		assertEquals(widths, cache.renderCount());
+		assertTrue(warmNanos * 10 < coldNanos, "warm " + warmNanos + " ns vs cold " + coldNanos + " ns");
+	}
+
+	private ImageVariantCache newCache(long maxMegabytes) throws Exception {
+		return new ImageVariantCache(dir.resolve("cache").toString(), maxMegabytes, SIZES, 2, 5_000, 24_000_000);
+	}
+
+	// Released straight away; the file stays on disk unless a later add evicts it
+	private static Path get(ImageVariantCache cache, UploadStore.StoredFile source, ImageVariantCache.Spec spec)
+			throws Exception {
+		try (ImageVariantCache.Variant variant = cache.get(source, spec)) {
+			return variant.path();
+		}
+	}
+
+	private UploadStore.StoredFile image(String name, int width, int height) throws Exception {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Random random = new Random(7);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				image.setRGB(x, y, random.nextInt());
+			}
+		}
+		Path file = dir.resolve(name);
+		ImageIO.write(image, "png", file.toFile());
+		return new UploadStore.StoredFile(name, new FileSystemResource(file), "image/png", Files.size(file),
+				Etags.blob(name.replace('.', '-')), Instant.now());
+	}
+}
@@ -0,0 +1,68 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.skillnest.backend.TestcontainersConfiguration;
+
+// In fail mode the context itself only starts if every repository query outside the ignore list uses an index
+@SpringBootTest(properties = "index.verifier.mode=fail")
+@Import(TestcontainersConfiguration.class)
+class IndexVerifierTests {
+
+	@Autowired
+	private ApplicationContext applicationContext;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private QueryCaptureListener captureListener;
+
+	@Test
+	void aCollScanAnywhereInTheWinningPlanIsFound() {
+		Document fetchOverIndex = new Document("stage", "FETCH")
+				.append("inputStage", new Document("stage", "IXSCAN").append("indexName", "userId_1"));
+		Document orOverCollScan = new Document("stage", "SUBPLAN").append("inputStage", new Document("stage", "OR")
+				.append("inputStages", List.of(new Document("stage", "IXSCAN"), new Document("stage", "COLLSCAN"))));
+
+		assertFalse(IndexVerifier.hasCollScan(explained(fetchOverIndex, List.of())));
+		assertTrue(IndexVerifier.hasCollScan(explained(orOverCollScan, List.of())));
+	}
+
+	@Test
+	void aCollScanAmongTheRejectedPlansIsIgnored() {
+		Document fetchOverIndex = new Document("stage", "FETCH")
+				.append("inputStage", new Document("stage", "IXSCAN"));
+
+		assertFalse(IndexVerifier.hasCollScan(explained(fetchOverIndex, List.of(new Document("stage", "COLLSCAN")))));
+	}
+
+	@Test
+	void failModeNamesTheQueriesThatScanTheCollection() {
+		IndexVerifier strict = new IndexVerifier(applicationContext, mongoTemplate, captureListener, "fail", Set.of());
+
+		IllegalStateException e = assertThrows(IllegalStateException.class, () -> strict.run(null));
+
+		assertTrue(e.getMessage().contains("SearchRepository.searchMembers"), e.getMessage());
+	}
+
+	// The part of an explain() reply the verifier walks
+	private static Document explained(Document winningPlan, List<Document> rejectedPlans) {
+		return new Document("queryPlanner", new Document("winningPlan", winningPlan)
+				.append("rejectedPlans", rejectedPlans))
+				.append("ok", 1.0);
+	}
+}
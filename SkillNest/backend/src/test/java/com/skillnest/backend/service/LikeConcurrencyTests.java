@@ -0,0 +1,111 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.skillnest.backend.TestcontainersConfiguration;
+import com.skillnest.backend.model.Affinity;
+import com.skillnest.backend.model.Notification;
+import com.skillnest.backend.model.Post;
+import com.skillnest.backend.model.PostLike;
+import com.skillnest.backend.model.User;
+import com.skillnest.backend.repository.PostRepository;
+import com.skillnest.backend.repository.UserRepository;
+
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+class LikeConcurrencyTests {
+
+	private static final int USERS = 200;
+	private static final int LIKES_PER_USER = 10;
+
+	@Autowired
+	private LikeCommentService likeCommentService;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	private final List<String> userIds = new ArrayList<>();
+	private String postId;
+
+	@AfterEach
+	void cleanUp() {
+		if (postId != null) {
+			mongoTemplate.remove(Query.query(Criteria.where("postId").is(postId)), PostLike.class);
+			mongoTemplate.remove(Query.query(Criteria.where("postId").is(postId)), Notification.class);
+			postRepository.deleteById(postId);
+		}
+		mongoTemplate.remove(Query.query(Criteria.where("userId").in(userIds)), Affinity.class);
+		userRepository.deleteAllById(userIds);
+	}
+
+	@Test
+	void parallelLikesAreCountedExactlyOnce() throws Exception {
+		User author = newUser("author");
+		Post post = new Post("Stress", "like me", "public", false, author.getId(), List.of());
+		postId = postRepository.save(post).getId();
+
+		List<LikeRequest> calls = new ArrayList<>();
+		for (int i = 0; i < USERS; i++) {
+			String likerId = newUser("liker" + i).getId();
+			for (int j = 0; j < LIKES_PER_USER; j++) {
+				calls.add(new LikeRequest(likerId));
+			}
+		}
+		Collections.shuffle(calls);
+
+		ExecutorService pool = Executors.newFixedThreadPool(32);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (LikeRequest call : calls) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				return likeCommentService.likePost(postId, call.userId);
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		pool.shutdown();
+
+		assertEquals(USERS, postRepository.findById(postId).orElseThrow().getLikeCount());
+		assertEquals(USERS, mongoTemplate.count(Query.query(Criteria.where("postId").is(postId)), PostLike.class));
+		assertEquals(USERS, mongoTemplate.count(
+				Query.query(Criteria.where("postId").is(postId).and("type").is("LIKE")), Notification.class));
+	}
+
+	private User newUser(String name) {
+		User user = new User();
+		user.setName(name);
+		user.setEmail(name + "-" + System.nanoTime() + "@stress.test");
+		User saved = userRepository.save(user);
+		userIds.add(saved.getId());
+		return saved;
+	}
+
+	private record LikeRequest(String userId) {
+	}
+}
@@ -0,0 +1,73 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.skillnest.backend.TestcontainersConfiguration;
+import com.skillnest.backend.model.PostLike;
+
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+class LikeMigrationTests {
+
+	@Autowired
+	private LikeMigration likeMigration;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	private final ObjectId postId = new ObjectId();
+
+	@AfterEach
+	void cleanUp() {
+		mongoTemplate.remove(byPost(), PostLike.class);
+		mongoTemplate.remove(Query.query(Criteria.where("_id").is(postId)), "posts");
+	}
+
+	@Test
+	void embeddedLikesMoveIntoTheLikesCollectionOnce() {
+		// The shape posts had before the likes collection, with a repeated liker
+		mongoTemplate.insert(new Document("_id", postId)
+				.append("title", "Legacy")
+				.append("likedBy", List.of("u1", "u2", "u1", "u3")), "posts");
+		// A run that died after inserting one of the likes
+		mongoTemplate.insert(new PostLike(postId.toHexString(), "u2"));
+
+		likeMigration.run(null);
+
+		assertMigrated();
+
+		likeMigration.run(null);
+
+		assertMigrated();
+	}
+
+	private void assertMigrated() {
+		List<String> likers = mongoTemplate.find(byPost(), PostLike.class).stream()
+				.map(PostLike::getUserId)
+				.sorted()
+				.collect(Collectors.toList());
+		assertEquals(List.of("u1", "u2", "u3"), likers);
+		Document post = mongoTemplate.findById(postId, Document.class, "posts");
+		assertEquals(3, post.get("likeCount", Number.class).intValue());
+		assertFalse(post.containsKey("likedBy"));
+	}
+
+	private Query byPost() {
+		return Query.query(Criteria.where("postId").is(postId.toHexString()));
+	}
+}
@@ -0,0 +1,84 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.skillnest.backend.dto.FeedMediaView;
+import com.skillnest.backend.model.MediaVariant;
+import com.skillnest.backend.model.PostMedia;
+
+class MediaVariantTests {
+
+	private static final int[] WIDTHS = {1280, 320, 640};
+	private static final long MAX_PIXELS = 24_000_000;
+
+	@TempDir
+	Path uploads;
+
+	@Test
+	void phonePhotoGetsEveryNarrowerWidthAndTheFeedPicksTheCardSize() throws Exception {
+		Path original = uploads.resolve("photo.png");
+		ImageIO.write(new BufferedImage(4032, 3024, BufferedImage.TYPE_INT_ARGB), "png", original.toFile());
+		PostMedia media = new PostMedia("/uploads/photo.png", PostMedia.IMAGE);
+
+		new MediaVariantRenderer(WIDTHS, null, MAX_PIXELS).render(media, original, uploads);
+
+		assertEquals(PostMedia.READY, media.getStatus());
+		assertEquals(4032, media.getWidth());
+		List<MediaVariant> variants = media.getVariants();
+		assertEquals(List.of(320, 640, 1280), variants.stream().map(MediaVariant::getWidth).toList());
+		assertEquals(480, variants.get(1).getHeight());
+		for (MediaVariant variant : variants) {
+			Path file = uploads.resolve(variant.getUrl().substring("/uploads/".length()));
+			BufferedImage written = ImageIO.read(file.toFile());
+			assertEquals(variant.getWidth(), written.getWidth());
+			assertTrue(Files.size(file) < Files.size(original));
+		}
+		assertEquals("/uploads/photo_w640.jpg", FeedMediaView.of(media).url());
+	}
+
+	@Test
+	void smallImagesAreServedAsUploaded() throws Exception {
+		Path original = uploads.resolve("icon.png");
+		ImageIO.write(new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB), "png", original.toFile());
+		PostMedia media = new PostMedia("/uploads/icon.png", PostMedia.IMAGE);
+
+		new MediaVariantRenderer(WIDTHS, null, MAX_PIXELS).render(media, original, uploads);
+
+		assertTrue(media.getVariants().isEmpty());
+		assertEquals("/uploads/icon.png", FeedMediaView.of(media).url());
+	}
+
+	@Test
+	void imagesOverThePixelCapAreRefusedFromTheirHeader() throws Exception {
+		Path original = uploads.resolve("wide.png");
+		ImageIO.write(new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB), "png", original.toFile());
+		PostMedia media = new PostMedia("/uploads/wide.png", PostMedia.IMAGE);
+
+		assertThrows(IllegalArgumentException.class,
+				() -> new MediaVariantRenderer(WIDTHS, null, 1_000_000).render(media, original, uploads));
+		assertEquals(PostMedia.PENDING, media.getStatus());
+	}
+
+	@Test
+	void pendingImageIsAPlaceholderAndPendingVideoPlaysTheOriginal() {
+		FeedMediaView image = FeedMediaView.of(new PostMedia("/uploads/a.jpg", PostMedia.IMAGE));
+		FeedMediaView video = FeedMediaView.of(new PostMedia("/uploads/b.mp4", PostMedia.VIDEO));
+
+		assertTrue(image.processing());
+		assertNull(image.url());
+		assertEquals("/uploads/b.mp4", video.url());
+	}
+}
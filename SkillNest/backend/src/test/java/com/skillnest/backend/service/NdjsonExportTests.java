@@ -0,0 +1,91 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.skillnest.backend.model.Post;
+
+class NdjsonExportTests {
+
+	private static final int ROWS = 1_000_000;
+	private static final long MAX_RETAINED_GROWTH = 32L * 1024 * 1024;
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+	private static Post post(int i) {
+		Post post = new Post();
+		post.setId(String.format("%024x", i));
+		post.setUserId("user" + (i % 1000));
+		post.setTitle("Post " + i);
+		post.setContent("Synthetic content for export row " + i);
+		post.setMediaUrls(List.of("/uploads/" + i + ".png"));
+		post.setCreatedAt(LocalDateTime.of(2025, 1, 1, 0, 0).plusSeconds(i));
+		return post;
+	}
+
+	@Test
+	void writesOneJsonObjectPerLine() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ObjectWriter writer = objectMapper.writerFor(Post.class);
+
+		long written = ExportService.writeNdjson(IntStream.range(0, 3).mapToObj(NdjsonExportTests::post), writer, out);
+
+		String[] lines = out.toString().split("\n", -1);
+		assertEquals(3, written);
+		assertEquals(4, lines.length);
+		assertEquals("", lines[3]);
+		assertEquals("Post 1", objectMapper.readTree(lines[1]).get("title").asText());
+	}
+
+	@Test
+	void heapStaysFlatOverAMillionRows() throws IOException {
+		long baseline = retainedHeap();
+		HeapSamplingStream out = new HeapSamplingStream();
+		Stream<Post> rows = IntStream.range(0, ROWS).mapToObj(NdjsonExportTests::post);
+
+		long written = ExportService.writeNdjson(rows, objectMapper.writerFor(Post.class), out);
+
+		assertEquals(ROWS, written);
+		assertEquals(ROWS, out.lines);
+		assertTrue(out.maxRetained - baseline < MAX_RETAINED_GROWTH,
+				"retained heap grew by " + (out.maxRetained - baseline) / (1024 * 1024) + " MB");
+	}
+
+	private static long retainedHeap() {
+		System.gc();
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	// Discards output, counting lines and sampling live heap every 100k rows
+	private static class HeapSamplingStream extends OutputStream {
+		long lines;
+		long maxRetained;
+
+		@Override
+		public void write(int b) {
+			if (b == '\n' && ++lines % 100_000 == 0) {
+				maxRetained = Math.max(maxRetained, retainedHeap());
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			for (int i = off; i < off + len; i++) {
+				write(b[i]);
+			}
+		}
+	}
+}
@@ -0,0 +1,273 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.skillnest.backend.TestcontainersConfiguration;
+import com.skillnest.backend.model.Post;
+import com.skillnest.backend.model.UploadSession;
+import com.skillnest.backend.security.JwtUtil;
+
+@SpringBootTest(properties = "file.upload-dir=target/resumable-upload-test-uploads")
+@AutoConfigureMockMvc
+@Import(TestcontainersConfiguration.class)
+class ResumableUploadTests {
+
+	private static final int SIZE = 3 * 1024 * 1024;
+	private static final int CHUNK = 1024 * 1024;
+	private static final String OWNER = "resumable-test-owner";
+	private static final String STRANGER = "resumable-test-stranger";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ResumableUploadService resumableUploadService;
+
+	@Autowired
+	private UploadStore uploadStore;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private PostService postService;
+
+	private byte[] content;
+	private final List<String> urls = new ArrayList<>();
+
+	@BeforeEach
+	void content() {
+		content = new byte[SIZE];
+		new Random(11).nextBytes(content);
+		content[0] = (byte) System.nanoTime(); // a fresh blob per run
+	}
+
+	@AfterEach
+	void cleanUp() {
+		urls.forEach(uploadStore::delete);
+	}
+
+	@Test
+	void chunksResumeAtTheServerOffsetAndFinishIntoTheStore() throws Exception {
+		String location = mockMvc.perform(post("/api/auth/uploads")
+						.header("Authorization", bearer(OWNER))
+						.header("Upload-Length", SIZE)
+						.header("Upload-Metadata", "filename " + base64("talk.mp4".getBytes(StandardCharsets.UTF_8))
+								+ ",filetype " + base64("video/mp4".getBytes(StandardCharsets.UTF_8))
+								+ ",sha256 " + base64(MessageDigest.getInstance("SHA-256").digest(content))))
+				.andExpect(status().isCreated())
+				.andReturn().getResponse().getHeader("Location");
+
+		chunk(location, 0)
+				.andExpect(status().isNoContent())
+				.andExpect(header().string("Upload-Offset", String.valueOf(CHUNK)));
+		// A client that lost the response and resends the first chunk is told where to continue
+		chunk(location, 0).andExpect(status().isConflict());
+		mockMvc.perform(head(location).header("Authorization", bearer(OWNER)))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Upload-Offset", String.valueOf(CHUNK)))
+				.andExpect(header().string("Upload-Length", String.valueOf(SIZE)));
+		mockMvc.perform(post(location + "/finish").header("Authorization", bearer(OWNER)))
+				.andExpect(status().isConflict());
+
+		chunk(location, CHUNK).andExpect(status().isNoContent());
+		chunk(location, 2 * CHUNK).andExpect(header().string("Upload-Offset", String.valueOf(SIZE)));
+		mockMvc.perform(post(location + "/finish").header("Authorization", bearer(OWNER)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.contentType").value("video/mp4"))
+				.andExpect(jsonPath("$.size").value(SIZE));
+
+		String id = location.substring(location.lastIndexOf('/') + 1);
+		ResumableUploadService.Finished finished = resumableUploadService.claim(id, OWNER);
+		urls.add(finished.url());
+		assertArrayEquals(content, uploadStore.find(finished.url()).orElseThrow().resource().getContentAsByteArray());
+		assertThrows(IllegalArgumentException.class, () -> resumableUploadService.claim(id, OWNER));
+	}
+
+	@Test
+	void onlyTheUploaderCanWriteFinishOrClaimAnUpload() throws Exception {
+		mockMvc.perform(post("/api/auth/uploads").header("Upload-Length", SIZE))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(post("/api/auth/uploads").header("Authorization", "Bearer not-a-token").header("Upload-Length", SIZE))
+				.andExpect(status().isForbidden());
+
+		UploadSession session = resumableUploadService.create(OWNER, "slides.pdf", "application/pdf", SIZE, null);
+		String location = "/api/auth/uploads/" + session.getId();
+		mockMvc.perform(patch(location)
+						.header("Authorization", bearer(STRANGER))
+						.header("Upload-Offset", 0)
+						.contentType("application/offset+octet-stream")
+						.content(Arrays.copyOfRange(content, 0, CHUNK)))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(head(location).header("Authorization", bearer(STRANGER))).andExpect(status().isNotFound());
+		assertEquals(0, resumableUploadService.get(session.getId(), OWNER).getOffset());
+
+		resumableUploadService.append(session.getId(), OWNER, 0, new ByteArrayInputStream(content));
+		mockMvc.perform(post(location + "/finish").header("Authorization", bearer(STRANGER)))
+				.andExpect(status().isNotFound());
+		resumableUploadService.finish(session.getId(), OWNER);
+
+		assertThrows(IllegalArgumentException.class, () -> resumableUploadService.claim(session.getId(), STRANGER));
+		urls.add(resumableUploadService.claim(session.getId(), OWNER).url());
+	}
+
+	@Test
+	void anotherUsersIdInThePathDoesNotClaimTheirUpload() throws Exception {
+		UploadSession session = resumableUploadService.create(OWNER, "cv.pdf", "application/pdf", SIZE, null);
+		resumableUploadService.append(session.getId(), OWNER, 0, new ByteArrayInputStream(content));
+		resumableUploadService.finish(session.getId(), OWNER);
+
+		for (String url : List.of("/api/auth/users/" + OWNER + "/showcases", "/api/auth/users/" + OWNER + "/documents")) {
+			mockMvc.perform(multipart(url)
+							.param("uploadId", session.getId())
+							.param("title", "Mine now").param("description", "-").param("visibility", "public")
+							.param("type", "document").param("name", "Mine now")
+							.header("Authorization", bearer(STRANGER)))
+					.andExpect(status().isForbidden());
+		}
+		mockMvc.perform(multipart("/api/auth/posts")
+						.param("uploadIds", session.getId())
+						.param("title", "Mine now").param("content", "-").param("visibility", "public")
+						.param("addToPortfolio", "false").param("userId", OWNER))
+				.andExpect(status().isUnauthorized());
+
+		urls.add(resumableUploadService.claim(session.getId(), OWNER).url());
+	}
+
+	@Test
+	void aPostWithOneBadUploadIdReleasesTheUploadsItAlreadyClaimed() throws Exception {
+		UploadSession session = resumableUploadService.create(OWNER, "demo.mp4", "video/mp4", SIZE, null);
+		resumableUploadService.append(session.getId(), OWNER, 0, new ByteArrayInputStream(content));
+		String url = resumableUploadService.finish(session.getId(), OWNER).url();
+
+		Post post = new Post();
+		post.setUserId(OWNER);
+		post.setContent("two clips");
+		assertThrows(IllegalArgumentException.class,
+				() -> postService.createPost(post, null, List.of(session.getId(), "no-such-upload")));
+
+		assertTrue(uploadStore.find(url).isEmpty());
+	}
+
+	@Test
+	void aChunkCutShortKeepsTheBytesThatArrived() throws Exception {
+		UploadSession session = resumableUploadService.create(OWNER, "notes.pdf", "application/pdf", SIZE, null);
+
+		long offset = resumableUploadService.append(session.getId(), OWNER, 0, new DroppingStream(content, 300_000));
+		assertEquals(300_000, offset);
+
+		offset = resumableUploadService.append(session.getId(), OWNER, offset,
+				new ByteArrayInputStream(Arrays.copyOfRange(content, (int) offset, SIZE)));
+		assertEquals(SIZE, offset);
+		resumableUploadService.finish(session.getId(), OWNER);
+		String url = resumableUploadService.claim(session.getId(), OWNER).url();
+		urls.add(url);
+
+		assertArrayEquals(content, uploadStore.find(url).orElseThrow().resource().getContentAsByteArray());
+	}
+
+	@Test
+	void aChunkThatRunsPastTheLengthIsRefusedButWhatFitIsKept() throws Exception {
+		UploadSession session = resumableUploadService.create(OWNER, "clip.mp4", "video/mp4", SIZE, null);
+		byte[] tooLong = Arrays.copyOf(content, SIZE + 10);
+
+		assertThrows(ResponseStatusException.class,
+				() -> resumableUploadService.append(session.getId(), OWNER, 0, new ByteArrayInputStream(tooLong)));
+
+		assertEquals(SIZE, resumableUploadService.get(session.getId(), OWNER).getOffset());
+		resumableUploadService.finish(session.getId(), OWNER);
+		urls.add(resumableUploadService.claim(session.getId(), OWNER).url());
+	}
+
+	@Test
+	void aChecksumMismatchStartsTheUploadOver() throws Exception {
+		byte[] declared = MessageDigest.getInstance("SHA-256").digest(content);
+		content[SIZE / 2] ^= 1; // one bit flipped on the way
+		UploadSession session = resumableUploadService.create(OWNER, "cv.pdf", "application/pdf", SIZE,
+				HexFormat.of().formatHex(declared));
+		resumableUploadService.append(session.getId(), OWNER, 0, new ByteArrayInputStream(content));
+
+		mockMvc.perform(post("/api/auth/uploads/" + session.getId() + "/finish").header("Authorization", bearer(OWNER)))
+				.andExpect(status().isUnprocessableEntity());
+
+		assertEquals(0, resumableUploadService.get(session.getId(), OWNER).getOffset());
+		resumableUploadService.cancel(session.getId(), OWNER);
+	}
+
+	private ResultActions chunk(String location, int offset) throws Exception {
+		return mockMvc.perform(patch(location)
+				.header("Authorization", bearer(OWNER))
+				.header("Upload-Offset", offset)
+				.contentType("application/offset+octet-stream")
+				.content(Arrays.copyOfRange(content, offset, Math.min(SIZE, offset + CHUNK))));
+	}
+
+	private String bearer(String userId) {
+		return "Bearer " + jwtUtil.generateToken(userId);
+	}
+
+	private static String base64(byte[] value) {
+		return Base64.getEncoder().encodeToString(value);
+	}
+
+	// A request body whose connection drops after a number of bytes
+	private static final class DroppingStream extends InputStream {
+
+		private final InputStream in;
+		private int left;
+
+		DroppingStream(byte[] content, int dropAfter) {
+			this.in = new ByteArrayInputStream(content);
+			this.left = dropAfter;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] one = new byte[1];
+			return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			if (left == 0) {
+				throw new IOException("Connection reset");
+			}
+			int read = in.read(buffer, offset, Math.min(length, left));
+			left -= read;
+			return read;
+		}
+	}
+}
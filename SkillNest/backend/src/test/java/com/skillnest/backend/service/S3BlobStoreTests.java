@@ -0,0 +1,220 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Runs the S3 store against an in-process stand-in for MinIO: a path-style bucket that keeps
+ * objects in memory and, like the real thing, rejects any request whose SigV4 signature or
+ * payload hash does not match what actually arrived on the wire.
+ */
+class S3BlobStoreTests {
+
+	private static final String ACCESS_KEY = "minio-test";
+	private static final String SECRET_KEY = "minio-test-secret";
+	private static final Pattern AUTHORIZATION = Pattern.compile(
+			"AWS4-HMAC-SHA256 Credential=([^/]+)/(\\d{8})/([^/]+)/s3/aws4_request, SignedHeaders=([^,]+), Signature=([0-9a-f]{64})");
+
+	@TempDir
+	Path dir;
+
+	private HttpServer server;
+	private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+	private final List<String> rejected = new CopyOnWriteArrayList<>();
+	private final List<String> ranges = new CopyOnWriteArrayList<>();
+	private S3BlobStore store;
+
+	@BeforeEach
+	void start() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", this::handle);
+		server.start();
+		store = new S3BlobStore("http://127.0.0.1:" + server.getAddress().getPort(), "uploads", "blobs/", "us-east-1",
+				ACCESS_KEY, SECRET_KEY);
+	}
+
+	@AfterEach
+	void stop() {
+		server.stop(0);
+	}
+
+	@Test
+	void blobsRoundTripThroughASignedBucket() throws Exception {
+		byte[] content = "video bytes".getBytes(StandardCharsets.UTF_8);
+		String key = sha256Hex(content);
+		Path source = Files.write(dir.resolve("upload.part"), content);
+
+		assertFalse(store.exists(key));
+		store.put(key, source);
+		store.put(key, source); // already there: only a HEAD
+
+		assertTrue(objects.containsKey("/uploads/blobs/" + key));
+		assertTrue(store.exists(key));
+		try (InputStream in = store.get(key, content.length).getInputStream()) {
+			assertArrayEquals(content, in.readAllBytes());
+		}
+		assertEquals(content.length, store.get(key, content.length).contentLength());
+
+		store.delete(key);
+		assertFalse(store.exists(key));
+		assertThrows(NoSuchFileException.class, () -> store.get(key, content.length).getInputStream().read());
+		store.delete(key); // deleting a missing blob is fine
+		assertEquals(List.of(), rejected);
+	}
+
+	@Test
+	void aSkipBeforeReadingAsksTheBucketForJustTheTail() throws Exception {
+		byte[] content = "0123456789abcdefghij".getBytes(StandardCharsets.UTF_8);
+		String key = sha256Hex(content);
+		store.put(key, Files.write(dir.resolve("video.part"), content));
+
+		// What Spring MVC does for "Range: bytes=12-": skip to the start, then read
+		try (InputStream in = store.get(key, content.length).getInputStream()) {
+			assertEquals(12, in.skip(12));
+			assertArrayEquals("cdefghij".getBytes(StandardCharsets.UTF_8), in.readAllBytes());
+		}
+		try (InputStream in = store.get(key, content.length).getInputStream()) {
+			assertArrayEquals(content, in.readAllBytes());
+		}
+
+		assertEquals(List.of("bytes=12-"), ranges);
+		assertEquals(List.of(), rejected);
+	}
+
+	@Test
+	void anEndpointWithAPathKeepsItOnce() throws Exception {
+		S3BlobStore prefixed = new S3BlobStore("http://127.0.0.1:" + server.getAddress().getPort() + "/s3/", "uploads",
+				"blobs/", "us-east-1", ACCESS_KEY, SECRET_KEY);
+		byte[] content = "behind a proxy".getBytes(StandardCharsets.UTF_8);
+		String key = sha256Hex(content);
+
+		prefixed.put(key, Files.write(dir.resolve("proxied.part"), content));
+
+		assertEquals(List.of("/s3/uploads/blobs/" + key), List.copyOf(objects.keySet()));
+		assertTrue(prefixed.exists(key));
+		assertEquals(List.of(), rejected);
+	}
+
+	@Test
+	void wrongCredentialsAreRefused() throws Exception {
+		S3BlobStore wrong = new S3BlobStore("http://127.0.0.1:" + server.getAddress().getPort(), "uploads", "blobs/",
+				"us-east-1", ACCESS_KEY, "not-the-secret");
+
+		assertThrows(java.io.IOException.class, () -> wrong.exists("ab"));
+		assertEquals(1, rejected.size());
+	}
+
+	private void handle(HttpExchange exchange) throws java.io.IOException {
+		byte[] body = exchange.getRequestBody().readAllBytes();
+		String path = exchange.getRequestURI().getRawPath();
+		if (!authorized(exchange, body)) {
+			rejected.add(exchange.getRequestMethod() + " " + path);
+			exchange.sendResponseHeaders(403, -1);
+			exchange.close();
+			return;
+		}
+		byte[] object = objects.get(path);
+		switch (exchange.getRequestMethod()) {
+			case "PUT" -> {
+				objects.put(path, body);
+				exchange.sendResponseHeaders(200, -1);
+			}
+			case "HEAD" -> exchange.sendResponseHeaders(object == null ? 404 : 200, -1);
+			case "GET" -> {
+				String range = exchange.getRequestHeaders().getFirst("Range");
+				if (object == null) {
+					exchange.sendResponseHeaders(404, -1);
+				} else if (range != null) {
+					ranges.add(range);
+					int start = Integer.parseInt(range.substring("bytes=".length(), range.length() - 1));
+					exchange.sendResponseHeaders(206, object.length - start);
+					exchange.getResponseBody().write(object, start, object.length - start);
+				} else {
+					exchange.sendResponseHeaders(200, object.length);
+					exchange.getResponseBody().write(object);
+				}
+			}
+			case "DELETE" -> {
+				objects.remove(path);
+				exchange.sendResponseHeaders(204, -1);
+			}
+			default -> exchange.sendResponseHeaders(405, -1);
+		}
+		exchange.close();
+	}
+
+	// Recomputes the signature from the request as received, the way the server side of SigV4 does
+	private boolean authorized(HttpExchange exchange, byte[] body) {
+		Matcher auth = AUTHORIZATION.matcher(String.valueOf(exchange.getRequestHeaders().getFirst("Authorization")));
+		if (!auth.matches() || !ACCESS_KEY.equals(auth.group(1))) {
+			return false;
+		}
+		String payloadHash = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+		if (!payloadHash.equals(sha256Hex(body))) {
+			return false;
+		}
+		StringBuilder canonical = new StringBuilder()
+				.append(exchange.getRequestMethod()).append('\n')
+				.append(exchange.getRequestURI().getRawPath()).append('\n')
+				.append('\n');
+		for (String header : auth.group(4).split(";")) {
+			canonical.append(header).append(':').append(exchange.getRequestHeaders().getFirst(header).trim()).append('\n');
+		}
+		canonical.append('\n').append(auth.group(4)).append('\n').append(payloadHash);
+		String scope = auth.group(2) + "/" + auth.group(3) + "/s3/aws4_request";
+		String stringToSign = "AWS4-HMAC-SHA256\n" + exchange.getRequestHeaders().getFirst("x-amz-date") + "\n" + scope
+				+ "\n" + sha256Hex(canonical.toString().getBytes(StandardCharsets.UTF_8));
+		byte[] key = hmac(("AWS4" + SECRET_KEY).getBytes(StandardCharsets.UTF_8), auth.group(2));
+		key = hmac(key, auth.group(3));
+		key = hmac(key, "s3");
+		key = hmac(key, "aws4_request");
+		return HexFormat.of().formatHex(hmac(key, stringToSign)).equals(auth.group(5));
+	}
+
+	private static byte[] hmac(byte[] key, String data) {
+		try {
+			Mac mac = Mac.getInstance("HmacSHA256");
+			mac.init(new SecretKeySpec(key, "HmacSHA256"));
+			return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String sha256Hex(byte[] data) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
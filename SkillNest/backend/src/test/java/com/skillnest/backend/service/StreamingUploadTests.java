@@ -0,0 +1,200 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skillnest.backend.TestcontainersConfiguration;
+import com.skillnest.backend.security.JwtUtil;
+
+// A real Tomcat, so the multipart path pays for spooling exactly as it does in production
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"file.upload-dir=target/streaming-upload-test-uploads",
+		"spring.servlet.multipart.max-file-size=25MB",
+		"spring.servlet.multipart.max-request-size=25MB"
+})
+@Import(TestcontainersConfiguration.class)
+class StreamingUploadTests {
+
+	private static final Logger logger = LoggerFactory.getLogger(StreamingUploadTests.class);
+
+	private static final int MB = 1024 * 1024;
+	private static final String OWNER = "streaming-test-owner";
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private ResumableUploadService resumableUploadService;
+
+	@Autowired
+	private UploadStore uploadStore;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	private final HttpClient http = HttpClient.newHttpClient();
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	void aRawBodyIsStoredInOnePassAndClaimable() throws Exception {
+		byte[] content = content(5 * MB, 3);
+		HttpResponse<String> response = stream(content, "talk.mp4", "video/mp4", sha256(content));
+		assertEquals(201, response.statusCode());
+		JsonNode body = mapper.readTree(response.body());
+		assertEquals(content.length, body.get("size").asLong());
+
+		ResumableUploadService.Finished claimed = resumableUploadService.claim(body.get("uploadId").asText(), OWNER);
+		assertEquals("video/mp4", claimed.contentType());
+		assertArrayEquals(content, uploadStore.find(claimed.url()).orElseThrow().resource().getContentAsByteArray());
+		uploadStore.delete(claimed.url());
+	}
+
+	@Test
+	void aBodyThatDoesNotMatchItsChecksumIsNotKept() throws Exception {
+		byte[] content = content(MB, 5);
+		byte[] declared = sha256(content);
+		content[100] ^= 1;
+
+		HttpResponse<String> response = stream(content, "cv.pdf", "application/pdf", declared);
+
+		assertEquals(422, response.statusCode());
+	}
+
+	@Test
+	void aBodyWithoutATokenIsRefused() throws Exception {
+		HttpResponse<String> response = http.send(HttpRequest.newBuilder(uri("/api/auth/uploads/stream"))
+						.header("Content-Type", "application/pdf")
+						.POST(HttpRequest.BodyPublishers.ofByteArray(content(MB, 9)))
+						.build(),
+				HttpResponse.BodyHandlers.ofString());
+
+		assertEquals(401, response.statusCode());
+	}
+
+	// Throughput of concurrent 20MB uploads through multipart and the raw stream, logged; each upload must succeed
+	@Test
+	void benchmarkConcurrentTwentyMegabyteUploads() throws Exception {
+		int clients = 8;
+		int perClient = 3;
+		byte[] content = content(20 * MB, 7);
+		String userId = "bench-" + System.nanoTime();
+
+		HttpResponse<String> warmup = stream(content, "warmup.bin", "application/octet-stream", null);
+		resumableUploadService.cancel(mapper.readTree(warmup.body()).get("uploadId").asText(), OWNER);
+		double multipart = run(clients, perClient, content, i -> {
+			HttpResponse<String> response = multipart(userId, content, "doc-" + i + ".pdf");
+			assertEquals(200, response.statusCode(), response.body());
+			String docId = mapper.readTree(response.body()).get("id").asText();
+			http.send(HttpRequest.newBuilder(uri("/api/auth/users/" + userId + "/documents/" + docId)).DELETE().build(),
+					HttpResponse.BodyHandlers.discarding());
+		});
+		double streamed = run(clients, perClient, content, i -> {
+			HttpResponse<String> response = stream(content, "doc-" + i + ".pdf", "application/pdf", null);
+			assertEquals(201, response.statusCode(), response.body());
+			resumableUploadService.cancel(mapper.readTree(response.body()).get("uploadId").asText(), OWNER);
+		});
+
+		logger.info("{} clients x {} uploads of 20MB: multipart {} MB/s, raw stream {} MB/s",
+				clients, perClient, Math.round(multipart), Math.round(streamed));
+	}
+
+	private interface Upload {
+		void run(int i) throws Exception;
+	}
+
+	private static double run(int clients, int perClient, byte[] content, Upload upload) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(clients);
+		List<Future<?>> results = new ArrayList<>();
+		long start = System.nanoTime();
+		for (int c = 0; c < clients; c++) {
+			int client = c;
+			results.add(pool.submit(() -> {
+				for (int i = 0; i < perClient; i++) {
+					upload.run(client * perClient + i);
+				}
+				return null;
+			}));
+		}
+		for (Future<?> result : results) {
+			result.get();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		pool.shutdown();
+		return (double) clients * perClient * content.length / MB / seconds;
+	}
+
+	private HttpResponse<String> stream(byte[] content, String filename, String contentType, byte[] sha256) throws Exception {
+		String metadata = "filename " + base64(filename.getBytes(StandardCharsets.UTF_8))
+				+ (sha256 == null ? "" : ",sha256 " + base64(sha256));
+		return http.send(HttpRequest.newBuilder(uri("/api/auth/uploads/stream"))
+						.header("Authorization", "Bearer " + jwtUtil.generateToken(OWNER))
+						.header("Content-Type", contentType)
+						.header("Upload-Metadata", metadata)
+						.POST(HttpRequest.BodyPublishers.ofByteArray(content))
+						.build(),
+				HttpResponse.BodyHandlers.ofString());
+	}
+
+	private HttpResponse<String> multipart(String userId, byte[] content, String filename) throws Exception {
+		String boundary = "bench" + System.nanoTime();
+		ByteArrayOutputStream body = new ByteArrayOutputStream(content.length + 1024);
+		for (String[] field : new String[][] {
+				{"type", "document"}, {"name", filename}, {"description", "benchmark"}, {"visibility", "private"}}) {
+			body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + field[0] + "\"\r\n\r\n"
+					+ field[1] + "\r\n").getBytes(StandardCharsets.UTF_8));
+		}
+		body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"" + filename
+				+ "\"\r\nContent-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+		body.write(content);
+		body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+		return http.send(HttpRequest.newBuilder(uri("/api/auth/users/" + userId + "/documents"))
+						.header("Content-Type", "multipart/form-data; boundary=" + boundary)
+						.POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+						.build(),
+				HttpResponse.BodyHandlers.ofString());
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://localhost:" + port + path);
+	}
+
+	private static byte[] content(int size, long seed) {
+		byte[] content = new byte[size];
+		new Random(seed).nextBytes(content);
+		content[0] = (byte) System.nanoTime(); // a fresh blob per run
+		return content;
+	}
+
+	private static byte[] sha256(byte[] content) throws Exception {
+		return MessageDigest.getInstance("SHA-256").digest(content);
+	}
+
+	private static String base64(byte[] value) {
+		return Base64.getEncoder().encodeToString(value);
+	}
+}
@@ -0,0 +1,160 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.skillnest.backend.TestcontainersConfiguration;
+import com.skillnest.backend.model.FeedPage;
+import com.skillnest.backend.model.Post;
+import com.skillnest.backend.model.Timeline;
+import com.skillnest.backend.model.TimelineEntry;
+import com.skillnest.backend.model.User;
+import com.skillnest.backend.repository.PostRepository;
+import com.skillnest.backend.repository.TimelineRepository;
+import com.skillnest.backend.repository.UserRepository;
+
+// A threshold of two followers, so both the push and the pull path are cheap to reach
+@SpringBootTest(properties = "timeline.fanout.follower-threshold=2")
+@Import(TestcontainersConfiguration.class)
+class TimelineFanOutTests {
+
+	@Autowired
+	private PostService postService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private PostRepository postRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TimelineRepository timelineRepository;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	private final List<String> userIds = new ArrayList<>();
+	private final List<String> postIds = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		mongoTemplate.remove(Query.query(Criteria.where("_id").in(userIds)), Timeline.class);
+		postRepository.deleteAllById(postIds);
+		userRepository.deleteAllById(userIds);
+	}
+
+	@Test
+	void aPostIsPushedIntoEveryFollowersTimeline() {
+		User author = newUser("author");
+		User reader = newUser("reader");
+		userService.follow(reader.getId(), author.getId());
+
+		String postId = newPost(author);
+
+		assertTrue(stored(reader.getId()).contains(postId));
+		assertTrue(stored(author.getId()).contains(postId));
+		assertEquals(List.of(postId), page(reader.getId()));
+	}
+
+	@Test
+	void aPostOfAnAuthorAtTheThresholdIsMergedInAtReadTime() {
+		User author = newUser("celebrity");
+		User reader = newUser("reader");
+		User other = newUser("other");
+		userService.follow(reader.getId(), author.getId());
+		userService.follow(other.getId(), author.getId());
+
+		String postId = newPost(author);
+
+		assertFalse(stored(reader.getId()).contains(postId));
+		assertTrue(stored(author.getId()).contains(postId));
+		assertEquals(List.of(postId), page(reader.getId()));
+	}
+
+	@Test
+	void followingBackfillsTheAuthorsPostsAndUnfollowingRemovesThem() {
+		User author = newUser("author");
+		User reader = newUser("reader");
+		String older = newPost(author);
+		String newer = newPost(author);
+
+		userService.follow(reader.getId(), author.getId());
+		userService.follow(reader.getId(), author.getId()); // a repeat leaves no duplicates
+
+		assertEquals(List.of(newer, older), stored(reader.getId()));
+		assertEquals(List.of(newer, older), page(reader.getId()));
+
+		userService.unfollow(reader.getId(), author.getId());
+
+		assertTrue(stored(reader.getId()).isEmpty());
+		assertTrue(page(reader.getId()).isEmpty());
+	}
+
+	@Test
+	void pagesAreCutFromTheStoredTimelineAtTheCursor() {
+		User author = newUser("author");
+		User reader = newUser("reader");
+		userService.follow(reader.getId(), author.getId());
+		List<String> newestFirst = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			newestFirst.add(0, newPost(author));
+		}
+
+		List<String> seen = new ArrayList<>();
+		String cursor = null;
+		do {
+			FeedPage<Post> page = postService.getTimelinePage(reader.getId(), cursor, 2);
+			assertTrue(page.getItems().size() <= 2);
+			page.getItems().forEach(post -> seen.add(post.getId()));
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		assertEquals(newestFirst, seen);
+	}
+
+	// The post ids pushed into the user's timeline document, newest first
+	private List<String> stored(String userId) {
+		return timelineRepository.findById(userId)
+				.map(timeline -> timeline.getEntries().stream().map(TimelineEntry::getPostId).collect(Collectors.toList()))
+				.orElse(List.of());
+	}
+
+	private List<String> page(String userId) {
+		return postService.getTimelinePage(userId, null, 10).getItems().stream()
+				.map(Post::getId)
+				.collect(Collectors.toList());
+	}
+
+	private String newPost(User author) {
+		Post post = new Post("Fan-out", "to my followers", "public", false, author.getId(), List.of());
+		String postId = postService.savePost(post).getId();
+		postIds.add(postId);
+		return postId;
+	}
+
+	private User newUser(String name) {
+		User user = new User();
+		user.setName(name);
+		user.setEmail(name + "-" + System.nanoTime() + "@fanout.test");
+		User saved = userRepository.save(user);
+		userIds.add(saved.getId());
+		return saved;
+	}
+}
@@ -0,0 +1,53 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.skillnest.backend.model.TimelineEntry;
+
+class TimelineMergeTests {
+
+	private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+	private static TimelineEntry entry(String postId, int minute) {
+		return new TimelineEntry(postId, "author", BASE.plusMinutes(minute));
+	}
+
+	private static List<String> ids(List<TimelineEntry> entries) {
+		return entries.stream().map(TimelineEntry::getPostId).collect(Collectors.toList());
+	}
+
+	@Test
+	void mergesSortedSourcesNewestFirst() {
+		List<TimelineEntry> pushed = List.of(entry("p9", 9), entry("p5", 5), entry("p1", 1));
+		List<TimelineEntry> pulledA = List.of(entry("a8", 8), entry("a2", 2));
+		List<TimelineEntry> pulledB = List.of(entry("b7", 7), entry("b6", 6));
+
+		List<TimelineEntry> merged = TimelineService.mergeNewestFirst(List.of(pushed, pulledA, pulledB), 5);
+
+		assertEquals(List.of("p9", "a8", "b7", "b6", "p5"), ids(merged));
+	}
+
+	@Test
+	void keepsDuplicatePostsOnce() {
+		List<TimelineEntry> pushed = List.of(entry("x", 3), entry("y", 1));
+		List<TimelineEntry> pulled = List.of(entry("x", 3), entry("z", 2));
+
+		List<TimelineEntry> merged = TimelineService.mergeNewestFirst(List.of(pushed, pulled), 10);
+
+		assertEquals(List.of("x", "z", "y"), ids(merged));
+	}
+
+	@Test
+	void breaksTimestampTiesOnPostId() {
+		List<TimelineEntry> merged = TimelineService.mergeNewestFirst(
+				List.of(List.of(entry("a", 1)), List.of(entry("b", 1)), List.of()), 10);
+
+		assertEquals(List.of("b", "a"), ids(merged));
+	}
+}
@@ -0,0 +1,111 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+class TrendingSketchTests {
+
+	private static final Logger logger = LoggerFactory.getLogger(TrendingSketchTests.class);
+
+	private static final int POSTS = 100_000;
+	private static final int EVENTS = 1_000_000;
+	private static final int TOP_K = 20;
+	private static final long HOUR = 3_600_000L;
+
+	// Zipf(s) over POSTS ranks, sampled by binary search on the cumulative distribution
+	private static final class Zipf {
+		private final double[] cdf;
+		private final Random random;
+
+		Zipf(int n, double s, long seed) {
+			cdf = new double[n];
+			double sum = 0;
+			for (int i = 0; i < n; i++) {
+				sum += 1.0 / Math.pow(i + 1, s);
+				cdf[i] = sum;
+			}
+			for (int i = 0; i < n; i++) {
+				cdf[i] /= sum;
+			}
+			random = new Random(seed);
+		}
+
+		int next() {
+			int i = Arrays.binarySearch(cdf, random.nextDouble());
+			return i >= 0 ? i : -i - 1;
+		}
+	}
+
+	@Test
+	void topKMatchesExactCountsOnPowerLawTraffic() {
+		SlidingWindowTopK sketch = new SlidingWindowTopK(HOUR, 12, 500);
+		Map<String, Long> exact = new HashMap<>();
+		Zipf zipf = new Zipf(POSTS, 1.1, 42);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < EVENTS; i++) {
+			String postId = "post" + zipf.next();
+			long now = (long) i * (HOUR - 1) / EVENTS; // spread over one window
+			sketch.offer(postId, 1, now);
+			exact.merge(postId, 1L, Long::sum);
+		}
+		long sketchMillis = (System.nanoTime() - start) / 1_000_000;
+
+		List<String> estimated = sketch.top(TOP_K, HOUR - 1).stream()
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toList());
+		Set<String> truth = exact.entrySet().stream()
+				.sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+				.limit(TOP_K)
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toSet());
+		Set<String> hits = new HashSet<>(estimated);
+		hits.retainAll(truth);
+		double recall = (double) hits.size() / TOP_K;
+
+		logger.info("Trending sketch: {} events, {} distinct posts, top-{} recall {}, {} sketch counters vs {} exact, {} ms",
+				EVENTS, exact.size(), TOP_K, recall, sketch.monitoredCounters(), exact.size(), sketchMillis);
+		assertTrue(recall >= 0.9, "recall " + recall);
+		assertEquals("post0", estimated.get(0)); // the head of a Zipf distribution is unmistakable
+		assertTrue(sketch.monitoredCounters() <= 12 * 500);
+	}
+
+	@Test
+	void oldBucketsFallOutOfTheWindow() {
+		SlidingWindowTopK sketch = new SlidingWindowTopK(HOUR, 12, 10);
+		sketch.offer("old", 100, 0);
+		sketch.offer("new", 1, HOUR + 1);
+
+		List<Map.Entry<String, Long>> top = sketch.top(5, HOUR + 1);
+
+		assertEquals(1, top.size());
+		assertEquals("new", top.get(0).getKey());
+	}
+
+	@Test
+	void spaceSavingNeverUndercounts() {
+		SpaceSaving summary = new SpaceSaving(3);
+		for (String key : List.of("a", "a", "a", "b", "b", "c", "d", "a")) {
+			summary.offer(key, 1);
+		}
+		Map<String, Long> counts = new HashMap<>();
+		summary.addTo(counts);
+
+		assertEquals(3, summary.size());
+		assertEquals(4L, counts.get("a"));
+		assertTrue(counts.values().stream().allMatch(count -> count >= summary.minCount()));
+	}
+}
@@ -0,0 +1,159 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.skillnest.backend.TestcontainersConfiguration;
+import com.skillnest.backend.model.Showcase;
+import com.skillnest.backend.model.UploadName;
+import com.skillnest.backend.repository.ShowcaseRepository;
+import com.skillnest.backend.security.JwtUtil;
+
+// The real sweep below deletes whatever the mark misses, so it runs in a database of its own on the test container.
+// The test's own orphans are backdated past a one hour grace period; the schedule is switched off so only the test runs it,
+// and every report counts as stale so each admin GET starts a dry run
+@SpringBootTest(properties = {
+		"spring.data.mongodb.database=upload-collector-test",
+		"admin.user-ids=collector-test-admin",
+		"upload.gc.report-max-age-minutes=0",
+		"file.upload-dir=target/upload-collector-test-uploads",
+		"upload.gc.cron=-",
+		"upload.gc.grace-hours=1",
+		"upload.gc.page-size=2",
+		"upload.gc.page-pause-millis=0",
+		"upload.gc.max-deletes-per-second=1000"
+})
+@AutoConfigureMockMvc
+@Import(TestcontainersConfiguration.class)
+class UploadCollectorTests {
+
+	@Autowired
+	private UploadCollector uploadCollector;
+
+	@Autowired
+	private UploadStore uploadStore;
+
+	@Autowired
+	private ShowcaseRepository showcaseRepository;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	private Showcase showcase;
+	private String live;
+
+	@AfterEach
+	void cleanUp() {
+		if (showcase != null) {
+			showcaseRepository.delete(showcase);
+			uploadStore.delete(live);
+		}
+	}
+
+	@Test
+	void unreferencedUploadsPastTheGracePeriodAreReportedThenCollected() throws Exception {
+		live = store("kept.pdf");
+		showcase = new Showcase();
+		showcase.setUserId("collector-test");
+		showcase.setFilePath(live);
+		showcase = showcaseRepository.save(showcase);
+
+		String orphan = store("orphan.pdf");
+		String recent = store("recent.pdf"); // unreferenced, but its post may still be on the way
+		backdate(live);
+		backdate(orphan);
+
+		Path legacy = uploadStore.root().resolve("legacy-" + System.nanoTime() + ".pdf");
+		Files.writeString(legacy, "left behind");
+		Files.setLastModifiedTime(legacy, FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS)));
+		Path strayBlob = uploadStore.root().resolve(LocalBlobStore.DIRECTORY).resolve("ff").resolve("ee")
+				.resolve("ffee" + "0".repeat(60));
+		Files.createDirectories(strayBlob.getParent());
+		Files.writeString(strayBlob, "no record");
+		Files.setLastModifiedTime(strayBlob, FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS)));
+
+		UploadCollector.Report dryRun = uploadCollector.collect(true);
+		assertTrue(dryRun.dryRun());
+		assertTrue(dryRun.orphanNames() >= 1 && dryRun.orphanLegacyFiles() >= 1 && dryRun.orphanBlobFiles() >= 1);
+		assertFalse(dryRun.samples().contains(UploadStore.nameOf(live)));
+		assertTrue(uploadStore.find(orphan).isPresent());
+		assertTrue(Files.exists(legacy));
+		assertTrue(Files.exists(strayBlob));
+
+		uploadCollector.collect(false);
+
+		assertTrue(uploadStore.find(orphan).isEmpty());
+		assertTrue(uploadStore.find(live).isPresent());
+		assertTrue(uploadStore.find(recent).isPresent());
+		assertFalse(Files.exists(legacy));
+		assertFalse(Files.exists(strayBlob));
+		uploadStore.delete(recent);
+	}
+
+	@Test
+	void onlyAdminsSeeTheReportAndItIsMadeOffTheRequestThread() throws Exception {
+		mockMvc.perform(get("/actuator/uploadgc")).andExpect(status().isForbidden());
+		mockMvc.perform(get("/actuator/uploadgc").header("Authorization", bearer("collector-test-user")))
+				.andExpect(status().isForbidden());
+
+		UploadCollector.Report before = uploadCollector.lastReport();
+		mockMvc.perform(get("/actuator/uploadgc").header("Authorization", bearer("collector-test-admin")))
+				.andExpect(status().isOk());
+		UploadCollector.Report after = before;
+		for (int i = 0; i < 100 && after == before; i++) {
+			Thread.sleep(100);
+			after = uploadCollector.lastReport();
+		}
+		assertTrue(after != before && after.dryRun());
+
+		// The next GET answers with that report straight away rather than waiting for the run it starts
+		mockMvc.perform(get("/actuator/uploadgc").header("Authorization", bearer("collector-test-admin")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.lastReport.finishedAt").value(after.finishedAt().toString()))
+				.andExpect(jsonPath("$.dryRunRunning").value(true));
+	}
+
+	private String bearer(String userId) {
+		return "Bearer " + jwtUtil.generateToken(userId);
+	}
+
+	private String store(String filename) throws Exception {
+		return uploadStore.store(filename,
+				new ByteArrayInputStream((filename + System.nanoTime()).getBytes(StandardCharsets.UTF_8)), "application/pdf");
+	}
+
+	private void backdate(String url) {
+		mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(UploadStore.nameOf(url))),
+				new Update().set("createdAt", LocalDateTime.now().minusHours(2)), UploadName.class);
+	}
+}
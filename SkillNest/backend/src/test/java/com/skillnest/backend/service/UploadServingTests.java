@@ -0,0 +1,116 @@
+package com.skillnest.backend.service;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.skillnest.backend.TestcontainersConfiguration;
+
+@SpringBootTest(properties = "file.upload-dir=target/upload-serving-test-uploads")
+@AutoConfigureMockMvc
+@Import(TestcontainersConfiguration.class)
+class UploadServingTests {
+
+	private static final int SIZE = 3 * 1024 * 1024;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UploadStore uploadStore;
+
+	private byte[] content;
+	private String url;
+
+	@BeforeEach
+	void upload() throws Exception {
+		content = new byte[SIZE];
+		new Random(42).nextBytes(content);
+		content[0] = (byte) System.nanoTime(); // a fresh blob per run
+		url = uploadStore.store(new MockMultipartFile("file", "clip.mp4", "video/mp4", content));
+	}
+
+	@AfterEach
+	void cleanUp() {
+		uploadStore.delete(url);
+	}
+
+	@Test
+	void rangeRequestGetsJustThatSlice() throws Exception {
+		MvcResult result = mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=1000-1999"))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 1000-1999/" + SIZE))
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "video/mp4"))
+				.andReturn();
+
+		assertArrayEquals(Arrays.copyOfRange(content, 1000, 2000), result.getResponse().getContentAsByteArray());
+	}
+
+	@Test
+	void onlyMediaIsServedInlineAndNothingIsSniffed() throws Exception {
+		mockMvc.perform(get(url))
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "video/mp4"))
+				.andExpect(header().string("X-Content-Type-Options", "nosniff"))
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_DISPOSITION));
+
+		String page = uploadStore.store(new MockMultipartFile("file", "page.html", "text/html",
+				("<script>alert(" + System.nanoTime() + ")</script>").getBytes()));
+		try {
+			mockMvc.perform(get(page))
+					.andExpect(status().isOk())
+					.andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/octet-stream"))
+					.andExpect(header().string("X-Content-Type-Options", "nosniff"))
+					.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, startsWith("attachment")));
+		} finally {
+			uploadStore.delete(page);
+		}
+	}
+
+	@Test
+	void seekPastTheEndIsUnsatisfiable() throws Exception {
+		mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=" + SIZE + "-"))
+				.andExpect(status().isRequestedRangeNotSatisfiable());
+	}
+
+	@Test
+	void revalidationWithTheEtagIsNotModified() throws Exception {
+		MvcResult full = mockMvc.perform(get(url))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+				.andReturn();
+		assertEquals(SIZE, full.getResponse().getContentAsByteArray().length);
+		String etag = full.getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void staleIfRangeGetsTheWholeFile() throws Exception {
+		MvcResult result = mockMvc.perform(get(url)
+						.header(HttpHeaders.RANGE, "bytes=0-99")
+						.header(HttpHeaders.IF_RANGE, "\"b-stale\""))
+				.andExpect(status().isOk())
+				.andReturn();
+
+		assertEquals(SIZE, result.getResponse().getContentAsByteArray().length);
+	}
+}
@@ -0,0 +1,161 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.skillnest.backend.TestcontainersConfiguration;
+import com.skillnest.backend.model.UploadBlob;
+import com.skillnest.backend.model.UploadName;
+
+// No grace period, and the scheduled reap is pushed out of the way so each test drives it itself
+@SpringBootTest(properties = {
+		"file.upload-dir=target/upload-store-test-uploads",
+		"upload.store.reap-grace-minutes=0",
+		"upload.store.reap-millis=3600000"
+})
+@Import(TestcontainersConfiguration.class)
+class UploadStoreTests {
+
+	@Autowired
+	private UploadStore uploadStore;
+
+	@Autowired
+	private BlobStore blobStore;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	private final List<String> urls = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		urls.forEach(uploadStore::delete);
+		uploadStore.reap();
+	}
+
+	@Test
+	void identicalUploadsShareOneBlobUntilTheLastNameGoes() throws Exception {
+		String content = "same bytes " + System.nanoTime();
+		String first = store("a.txt", content);
+		String second = store("b.txt", content);
+
+		String hash = hash(first);
+		assertEquals(hash, hash(second));
+		assertEquals(2, mongoTemplate.findById(hash, UploadBlob.class).getRefCount());
+
+		uploadStore.delete(first);
+		uploadStore.reap();
+		assertTrue(uploadStore.find(first).isEmpty());
+		assertTrue(blobStore.exists(hash));
+		assertEquals(content, read(second));
+
+		uploadStore.delete(second);
+		uploadStore.reap();
+		assertFalse(blobStore.exists(hash));
+		assertEquals(0, mongoTemplate.count(Query.query(Criteria.where("_id").is(hash)), UploadBlob.class));
+	}
+
+	@Test
+	void anUploadDuringAReapWaitsAndWritesItsBytesAgain() throws Exception {
+		String content = "reaped then wanted " + System.nanoTime();
+		String first = store("old.txt", content);
+		String hash = hash(first);
+		uploadStore.delete(first);
+
+		// The reaper's first two steps: the record is marked and the bytes are deleted
+		mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(hash)),
+				new Update().set("reapingSince", LocalDateTime.now()), UploadBlob.class);
+		blobStore.delete(hash);
+		CompletableFuture<String> upload = CompletableFuture.supplyAsync(() -> {
+			try {
+				return store("new.txt", content);
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		Thread.sleep(300);
+		assertFalse(upload.isDone());
+
+		// ...and its last: the record goes, and the waiting upload starts the blob over
+		mongoTemplate.remove(Query.query(Criteria.where("_id").is(hash)), UploadBlob.class);
+		String second = upload.get(10, TimeUnit.SECONDS);
+
+		assertTrue(blobStore.exists(hash));
+		assertEquals(content, read(second));
+		assertEquals(1, mongoTemplate.findById(hash, UploadBlob.class).getRefCount());
+	}
+
+	@Test
+	void storingUnderAnExistingNameReleasesTheOldBytes() throws Exception {
+		String name = "variant-" + System.nanoTime() + ".jpg";
+		String url = uploadStore.storeAs(name, stream("first " + name), "image/jpeg");
+		urls.add(url);
+		String before = hash(url);
+
+		uploadStore.storeAs(name, stream("second"), "image/jpeg");
+		uploadStore.reap();
+
+		assertEquals("second", read(url));
+		assertFalse(blobStore.exists(before));
+		assertEquals(1, mongoTemplate.count(Query.query(Criteria.where("_id").is(name)), UploadName.class));
+	}
+
+	@Test
+	void legacyFilesAreAdoptedUnderTheirOwnName() throws Exception {
+		String content = "legacy " + System.nanoTime();
+		String stored = store("new.txt", content);
+		Path legacy = uploadStore.root().resolve("legacy-" + System.nanoTime() + ".txt");
+		Files.writeString(legacy, content);
+		String legacyUrl = UploadStore.URL_PREFIX + legacy.getFileName();
+		urls.add(legacyUrl);
+		assertEquals(legacy.toFile(), uploadStore.find(legacyUrl).orElseThrow().resource().getFile());
+
+		assertTrue(uploadStore.adopt(legacy));
+
+		assertFalse(Files.exists(legacy));
+		assertEquals(hash(stored), hash(legacyUrl));
+		assertEquals(content, read(legacyUrl));
+	}
+
+	// Registered uploads are tagged with their blob hash
+	private String hash(String url) {
+		return uploadStore.find(url).orElseThrow().etag().substring("b-".length());
+	}
+
+	private String read(String url) throws Exception {
+		return uploadStore.find(url).orElseThrow().resource().getContentAsString(StandardCharsets.UTF_8);
+	}
+
+	private String store(String filename, String content) throws Exception {
+		String url = uploadStore.store(new MockMultipartFile("file", filename, "text/plain",
+				content.getBytes(StandardCharsets.UTF_8)));
+		urls.add(url);
+		return url;
+	}
+
+	private static ByteArrayInputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,75 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.skillnest.backend.TestcontainersConfiguration;
+import com.skillnest.backend.model.User;
+
+@SpringBootTest
+@Import(TestcontainersConfiguration.class)
+class UserEmailIndexTests {
+
+	@Autowired
+	private UserEmailIndex userEmailIndex;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	private final List<ObjectId> userIds = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		mongoTemplate.remove(Query.query(Criteria.where("_id").in(userIds)), User.class);
+		userEmailIndex.run(null); // leaves the database with its index
+	}
+
+	@Test
+	void duplicateEmailsAreReportedAndTheIndexWaitsForThem() {
+		if (hasIndex()) {
+			mongoTemplate.indexOps(User.class).dropIndex(UserEmailIndex.INDEX_NAME);
+		}
+		String email = "twice-" + System.nanoTime() + "@index.test";
+		ObjectId first = insert(email);
+		ObjectId second = insert(email);
+
+		userEmailIndex.run(null);
+
+		assertFalse(hasIndex());
+		UserEmailIndex.Duplicate duplicate = userEmailIndex.findDuplicates().stream()
+				.filter(found -> found.email().equals(email)).findFirst().orElseThrow();
+		assertEquals(List.of(first.toHexString(), second.toHexString()), duplicate.userIds().stream().sorted().toList());
+
+		mongoTemplate.remove(Query.query(Criteria.where("_id").is(second)), User.class);
+		userEmailIndex.run(null);
+
+		assertTrue(hasIndex());
+	}
+
+	private boolean hasIndex() {
+		return mongoTemplate.indexOps(User.class).getIndexInfo().stream()
+				.anyMatch(index -> index.getName().equals(UserEmailIndex.INDEX_NAME) && index.isUnique());
+	}
+
+	private ObjectId insert(String email) {
+		ObjectId id = new ObjectId();
+		mongoTemplate.insert(new Document("_id", id).append("name", "dup").append("email", email), "users");
+		userIds.add(id);
+		return id;
+	}
+}
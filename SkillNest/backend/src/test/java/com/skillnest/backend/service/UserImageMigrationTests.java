@@ -0,0 +1,107 @@
+package com.skillnest.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.skillnest.backend.TestcontainersConfiguration;
+import com.skillnest.backend.model.User;
+import com.skillnest.backend.repository.UserRepository;
+import com.skillnest.backend.security.JwtUtil;
+
+@SpringBootTest(properties = "file.upload-dir=target/user-image-test-uploads")
+@AutoConfigureMockMvc
+@Import(TestcontainersConfiguration.class)
+class UserImageMigrationTests {
+
+	@Autowired
+	private UserImageMigration userImageMigration;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UploadStore uploadStore;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	private final List<String> userIds = new ArrayList<>();
+
+	@AfterEach
+	void cleanUp() {
+		for (User user : userRepository.findAllById(userIds)) {
+			uploadStore.delete(user.getProfileImage());
+			uploadStore.delete(user.getProfileImageOriginal());
+			uploadStore.delete(user.getCoverImage());
+		}
+		userRepository.deleteAllById(userIds);
+	}
+
+	@Test
+	void dataUriImagesBecomeUrlsWithASquareAvatar() throws Exception {
+		User user = new User();
+		user.setName("legacy");
+		user.setEmail("legacy-" + System.nanoTime() + "@images.test");
+		user.setProfileImage(dataUri(1200, 800));
+		user.setCoverImage(dataUri(1500, 400));
+		user = userRepository.save(user);
+		userIds.add(user.getId());
+
+		userImageMigration.run(null);
+
+		User migrated = userRepository.findById(user.getId()).orElseThrow();
+		assertTrue(migrated.getProfileImage().endsWith("_avatar.jpg"));
+		BufferedImage avatar = ImageIO.read(uploadStore.find(migrated.getProfileImage()).orElseThrow().resource().getInputStream());
+		assertEquals(256, avatar.getWidth());
+		assertEquals(256, avatar.getHeight());
+		assertEquals(1200, ImageIO.read(uploadStore.find(migrated.getProfileImageOriginal()).orElseThrow().resource().getInputStream())
+				.getWidth());
+		assertTrue(migrated.getCoverImage().startsWith(UploadStore.URL_PREFIX));
+		assertEquals(user.getVersion() + 1, migrated.getVersion());
+	}
+
+	@Test
+	void imagesOfAMissingUserAreNotFound() throws Exception {
+		String missing = "000000000000000000000000";
+		MockMultipartFile image = new MockMultipartFile("profileImage", "me.png", "image/png", new byte[] { 1 });
+
+		mockMvc.perform(multipart("/api/auth/users/" + missing + "/profile").file(image))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(delete("/api/auth/users/" + missing + "/cover")
+						.header("Authorization", "Bearer " + jwtUtil.generateToken(missing)))
+				.andExpect(status().isNotFound());
+	}
+
+	private static String dataUri(int width, int height) throws Exception {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		for (int x = 0; x < width; x++) {
+			image.setRGB(x, x * height / width, 0xff8800 + x);
+		}
+		ByteArrayOutputStream png = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", png);
+		return "data:image/png;base64," + Base64.getEncoder().encodeToString(png.toByteArray());
+	}
+}
@@ -12,6 +12,8 @@ import API from "../../api/axios";
 import { motion } from "framer-motion";
 import ReactCountryFlag from "react-country-flag"; // Add this import
 
+const COMMENTS_PAGE_SIZE = 5;
+
 const Post = ({
   user,
   post,
@@ -27,15 +29,17 @@ const Post = ({
     title,
     content,
     mediaUrls = [],
+    media,
     likeCount = 0,
     commentCount = 0,
-    likedBy = [],
+    likedByMe = false,
   } = post;
   const [showOptions, setShowOptions] = useState(false);
-  const [isLiked, setIsLiked] = useState(likedBy.includes(user?.id));
+  const [isLiked, setIsLiked] = useState(likedByMe);
   const [currentLikeCount, setCurrentLikeCount] = useState(likeCount);
   const [currentCommentCount, setCurrentCommentCount] = useState(commentCount);
   const [comments, setComments] = useState([]);
+  const [commentsCursor, setCommentsCursor] = useState(null);
   const [commentInput, setCommentInput] = useState("");
   const [showComments, setShowComments] = useState(false);
   const [editingCommentId, setEditingCommentId] = useState(null);
@@ -54,10 +58,13 @@ const Post = ({
     if (showComments) fetchComments();
   }, [showComments, post.id]);
 
-  const fetchComments = async () => {
+  const fetchComments = async (cursor = null) => {
     try {
-      const { data } = await API.get(`/auth/posts/${post.id}/comments`);
-      setComments(data);
+      const params = new URLSearchParams({ limit: COMMENTS_PAGE_SIZE });
+      if (cursor) params.append("cursor", cursor);
+      const { data } = await API.get(`/auth/posts/${post.id}/comments?${params}`);
+      setComments((prev) => (cursor ? [...prev, ...data.items] : data.items));
+      setCommentsCursor(data.nextCursor || null);
     } catch (err) {
       toast.error(err.response?.data?.message || "Failed to load comments");
     }
@@ -202,7 +209,19 @@ const Post = ({
   };
 
   const renderMedia = (url, idx, options = {}) => {
-    const { isGrid = false } = options;
+    const { isGrid = false, poster, processing = false } = options;
+    if (!url && processing) {
+      return (
+        <div
+          key={`processing-${idx}`}
+          className="flex items-center justify-center bg-gray-100 dark:bg-gray-700 rounded-lg animate-pulse"
+          style={{ aspectRatio: "4 / 3", maxHeight: isGrid ? "250px" : "500px" }}
+          aria-label={`Post media ${idx + 1} is processing`}
+        >
+          <span className="text-sm text-gray-500 dark:text-gray-400">Processing…</span>
+        </div>
+      );
+    }
     if (!url) return null;
     const ext = getFileExtension(url);
 
@@ -277,6 +296,8 @@ const Post = ({
         ) : ["mp4", "webm", "mov"].includes(ext) ? (
           <video
             src={fullUrl}
+            poster={poster ? `${baseUrl}${poster}` : undefined}
+            preload={poster ? "none" : "metadata"}
             controls
             className="w-full h-auto object-cover rounded-lg"
             style={{
@@ -297,9 +318,18 @@ const Post = ({
     );
   };
 
-  const visualMediaUrls = mediaUrls.filter((url) =>
+  // Cards from the media pipeline carry a feed-sized variant per upload; older posts only have mediaUrls
+  const mediaItems = media
+    ? media.map((item) => ({
+        url: item.url,
+        original: item.originalUrl,
+        poster: item.posterUrl,
+        processing: item.processing,
+      }))
+    : mediaUrls.map((url) => ({ url, original: url }));
+  const visualMedia = mediaItems.filter((item) =>
     ["jpg", "jpeg", "png", "gif", "mp4", "webm", "mov"].includes(
-      getFileExtension(url)
+      getFileExtension(item.original)
     )
   );
   const pdfUrls = mediaUrls.filter((url) => getFileExtension(url) === "pdf");
@@ -435,19 +465,21 @@ const Post = ({
         )}
         {mediaUrls.length > 0 && (
           <div className="mt-4 space-y-4">
-            {visualMediaUrls.length > 0 && (
+            {visualMedia.length > 0 && (
               <div
                 className={`grid gap-2 ${
-                  visualMediaUrls.length === 1
+                  visualMedia.length === 1
                     ? "grid-cols-1"
-                    : visualMediaUrls.length === 2
+                    : visualMedia.length === 2
                     ? "grid-cols-2"
                     : "grid-cols-2 md:grid-cols-3"
                 }`}
               >
-                {visualMediaUrls.map((url, idx) =>
-                  renderMedia(url, idx, {
-                    isGrid: visualMediaUrls.length > 1,
+                {visualMedia.map((item, idx) =>
+                  renderMedia(item.url, idx, {
+                    isGrid: visualMedia.length > 1,
+                    poster: item.poster,
+                    processing: item.processing,
                   })
                 )}
               </div>
@@ -562,6 +594,14 @@ const Post = ({
             ) : (
               <p className="text-gray-500 text-sm">No comments yet.</p>
             )}
+            {commentsCursor && (
+              <button
+                onClick={() => fetchComments(commentsCursor)}
+                className="text-sm text-blue-600 hover:underline"
+              >
+                Load more comments
+              </button>
+            )}
           </div>
         </section>
       )}
@@ -17,6 +17,7 @@ const Index = () => {
   const [following, setFollowing] = useState(new Set());
   const [page, setPage] = useState(1);
   const [hasMore, setHasMore] = useState(true);
+  const [nextCursor, setNextCursor] = useState(null);
   const postsPerPage = 10;
 
   const getUserId = (userObj) =>
@@ -65,23 +66,30 @@ const Index = () => {
     }
   };
 
-  const fetchPosts = async (pageNum) => {
+  const fetchPosts = async (pageNum, cursor = null) => {
     try {
       const token = localStorage.getItem("token");
       if (!token) return;
 
+      const savedUser = JSON.parse(localStorage.getItem("user") || "null");
       const config = { headers: { Authorization: `Bearer ${token}` } };
-      const { data } = await API.get(
-        `/auth/posts?page=${pageNum}&limit=${postsPerPage}`,
-        config
+      const params = new URLSearchParams({ limit: postsPerPage });
+      const viewerId = savedUser?._id || savedUser?.id;
+      if (viewerId) params.append("userId", viewerId);
+      if (cursor) params.append("cursor", cursor);
+      const { data } = await API.get(`/auth/posts?${params}`, config);
+
+      setPosts((prev) =>
+        pageNum === 1 ? data.items : [...prev, ...data.items]
       );
-
-      setPosts((prev) => (pageNum === 1 ? data : [...prev, ...data]));
-      setHasMore(data.length === postsPerPage);
+      setNextCursor(data.nextCursor);
+      setHasMore(Boolean(data.nextCursor));
       setPage(pageNum);
     } catch (err) {
       console.error("Error fetching posts:", err);
       toast.error("Failed to load posts");
+    } finally {
+      setLoading(false);
     }
   };
 
@@ -136,9 +144,9 @@ const Index = () => {
       !loading
     ) {
       setLoading(true);
-      fetchPosts(page + 1);
+      fetchPosts(page + 1, nextCursor);
     }
-  }, [hasMore, loading, page]);
+  }, [hasMore, loading, page, nextCursor]);
 
   useEffect(() => {
     window.addEventListener("scroll", handleScroll);